@@ -17,6 +17,7 @@ const EditProduct = () => {
   const [errors, setErrors] = useState({});
   const [isSubmitting, setIsSubmitting] = useState(false);
   const [loading, setLoading] = useState(true);
+  const [etag, setEtag] = useState(null);
 
   const categories = [
     "Electronics",
@@ -46,6 +47,8 @@ const EditProduct = () => {
         });
 
         const product = response.data;
+        // Sent back as If-Match so a concurrent edit is rejected instead of overwritten
+        setEtag(response.headers.etag || null);
         setFormData({
           name: product.name,
           category: product.category,
@@ -121,6 +124,7 @@ const EditProduct = () => {
         headers: {
           "Content-Type": "application/json",
           Authorization: `Bearer ${token}`,
+          ...(etag ? { "If-Match": etag } : {}),
         },
       });
 
@@ -135,6 +139,10 @@ const EditProduct = () => {
           navigate("/login");
         } else if (error.response.status === 400) {
           toast.error("Invalid data. Please check your input.");
+        } else if (error.response.status === 412) {
+          toast.error(
+            "This product was changed by someone else. Reload the page to see the latest version."
+          );
         } else {
           toast.error(
             `Error: ${
@@ -49,6 +49,7 @@ const Reports = () => {
     topProducts: [],
     stockStatus: {},
     categories: {},
+    baseline: null,
   });
   const [loading, setLoading] = useState(true);
   const [lastUpdated, setLastUpdated] = useState(new Date());
@@ -64,12 +65,27 @@ const Reports = () => {
         return;
       }
 
-      // Fetch all products to calculate reports
-      const response = await axios.get("/api/products", {
-        headers: {
-          Authorization: `Bearer ${token}`,
-        },
-      });
+      // Fetch all products to calculate reports, the top products ranked server-side, and the
+      // daily rollups of the last month to compare against
+      const [response, topResponse, trendResponse] = await Promise.all([
+        axios.get("/api/products", {
+          headers: {
+            Authorization: `Bearer ${token}`,
+          },
+        }),
+        axios.get("/api/reports/top-products", {
+          params: { by: "value", n: 5 },
+          headers: {
+            Authorization: `Bearer ${token}`,
+          },
+        }),
+        axios.get("/api/reports/trends", {
+          params: { dimension: "total" },
+          headers: {
+            Authorization: `Bearer ${token}`,
+          },
+        }),
+      ]);
 
       const products = response.data;
 
@@ -84,15 +100,12 @@ const Reports = () => {
           product.status === "LOW_STOCK" || product.status === "OUT_OF_STOCK"
       ).length;
 
-      // Calculate top products by value (price * quantity)
-      const topProducts = products
-        .map((product) => ({
-          name: product.name,
-          sales: product.quantity,
-          revenue: product.price * product.quantity,
-        }))
-        .sort((a, b) => b.revenue - a.revenue)
-        .slice(0, 5);
+      // Top products by value (price * quantity)
+      const topProducts = topResponse.data.map((product) => ({
+        name: product.name,
+        sales: product.quantity,
+        revenue: product.value,
+      }));
 
       // Calculate stock status distribution
       const stockStatus = products.reduce((acc, product) => {
@@ -113,6 +126,7 @@ const Reports = () => {
         topProducts,
         stockStatus,
         categories,
+        baseline: trendResponse.data[0] || null,
       });
 
       setLastUpdated(new Date());
@@ -151,30 +165,43 @@ const Reports = () => {
     toast.success("Reports refreshed!");
   };
 
+  // Change against the oldest rollup of the last month; neutral until one exists
+  const changeFrom = (current, previous) => {
+    if (previous === undefined || previous === 0) {
+      return { change: "+0%", changeType: "neutral" };
+    }
+    const percent = ((current - previous) / previous) * 100;
+    return {
+      change: `${percent >= 0 ? "+" : ""}${percent.toFixed(1)}%`,
+      changeType: percent > 0 ? "increase" : percent < 0 ? "decrease" : "neutral",
+    };
+  };
+  const baseline = reports.baseline;
+
   const statCards = [
     {
       name: "Total Value",
       value: `$${reports.totalRevenue.toLocaleString()}`,
       icon: CurrencyDollarIcon,
       color: "bg-green-500",
-      change: "+0%",
-      changeType: "neutral",
+      ...changeFrom(reports.totalRevenue, baseline?.totalValue),
     },
     {
       name: "Total Products",
       value: reports.totalProducts,
       icon: CubeIcon,
       color: "bg-blue-500",
-      change: "+0%",
-      changeType: "neutral",
+      ...changeFrom(reports.totalProducts, baseline?.productCount),
     },
     {
       name: "Low Stock Items",
       value: reports.lowStockItems,
       icon: ChartBarIcon,
       color: "bg-yellow-500",
-      change: "+0%",
-      changeType: "neutral",
+      ...changeFrom(
+        reports.lowStockItems,
+        baseline ? baseline.lowStockCount + baseline.outOfStockCount : undefined
+      ),
     },
   ];
 
@@ -2,12 +2,20 @@ package com.Inventory.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class InventoryManagmentSystemApplication {
 
+	// Enough for every bean and phase of a startup; see /api/reports/startup
+	private static final int STARTUP_STEPS = 10000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(InventoryManagmentSystemApplication.class, args);
+		SpringApplication application = new SpringApplication(InventoryManagmentSystemApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,311 @@
+package com.Inventory.demo.config;
+
+import com.Inventory.demo.entity.AttributeValue;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.service.AttributeDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+// Fills the database with a large synthetic catalog and user base for benchmarks and load tests,
+// e.g. --inventory.generator.products=1000000. Categories and suppliers follow a Zipf
+// distribution, prices a log-normal one, and stock levels are mixed so every status occurs. Each
+// batch draws from its own generator seeded from its first row, so a seed and batch size always
+// produce the same rows whatever the thread count; only the ids depend on the order batches
+// commit in, and the timestamps on when the generator ran.
+// Rows are written with batched JDBC inserts on several threads, bypassing the entity layer, so
+// they have no stock ledger or audit history. Runs after DataInitializer and before the indexes
+// load, and only against a database without generated rows.
+@Component
+@Order(2)
+public class DataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    // Generated rows are recognised by these prefixes
+    private static final String SKU_PREFIX = "GEN-";
+    private static final String USERNAME_PREFIX = "loaduser";
+
+    private static final String[] ADJECTIVES = { "Wireless", "Compact", "Heavy-Duty", "Portable", "Premium",
+            "Ergonomic", "Smart", "Industrial", "Slim", "Rugged", "Digital", "Classic", "Adjustable", "Foldable",
+            "Waterproof", "Rechargeable", "Modular", "Ultra", "Professional", "Eco" };
+    private static final String[] NOUNS = { "Keyboard", "Mouse", "Monitor", "Cable", "Charger", "Headset",
+            "Speaker", "Router", "Drill", "Lamp", "Chair", "Desk", "Printer", "Scanner", "Camera", "Tripod",
+            "Battery", "Adapter", "Switch", "Sensor", "Bracket", "Shelf", "Toolkit", "Backpack", "Bottle", "Kettle",
+            "Fan", "Heater", "Projector", "Microphone" };
+    // Category of each noun, in the same order
+    private static final String[] CATEGORY_NAMES = { "Keyboards", "Mice", "Monitors", "Cables", "Chargers",
+            "Headsets", "Speakers", "Routers", "Drills", "Lamps", "Chairs", "Desks", "Printers", "Scanners", "Cameras",
+            "Tripods", "Batteries", "Adapters", "Switches", "Sensors", "Brackets", "Shelves", "Toolkits", "Backpacks",
+            "Bottles", "Kettles", "Fans", "Heaters", "Projectors", "Microphones" };
+    private static final String[] MATERIALS = { "aluminium", "steel", "plastic", "carbon fibre", "bamboo",
+            "glass", "rubber", "oak", "fabric", "ceramic" };
+    private static final String[] SURNAMES = { "Anders", "Baker", "Chen", "Dubois", "Evans", "Fischer", "Garcia",
+            "Hansen", "Ito", "Jensen", "Kowalski", "Lopez", "Moreau", "Nakamura", "Olsen", "Patel", "Quinn", "Rossi",
+            "Silva", "Tanaka" };
+    private static final String[] COMPANY_SUFFIXES = { "Supply", "Trading", "Industries", "Components", "Imports",
+            "Wholesale", "Manufacturing", "Distribution" };
+
+    private static final String PRODUCT_INSERT = "INSERT INTO products (name, description, category_id, price, "
+            + "quantity, status_id, sku, supplier_id, location_id, reorder_point, created_at, updated_at, version, "
+            + "inventory_value, reorder_shortfall) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String USER_INSERT = "INSERT INTO users (username, password, email, role, full_name, "
+            + "active, created_at, last_login) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AttributeDictionary attributeDictionary;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${inventory.generator.products:0}")
+    private int products;
+
+    @Value("${inventory.generator.users:0}")
+    private int users;
+
+    @Value("${inventory.generator.seed:42}")
+    private long seed;
+
+    @Value("${inventory.generator.threads:4}")
+    private int threads;
+
+    @Value("${inventory.generator.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${inventory.generator.categories:200}")
+    private int categories;
+
+    @Value("${inventory.generator.suppliers:1000}")
+    private int suppliers;
+
+    @Value("${inventory.generator.locations:50}")
+    private int locations;
+
+    // Zipf exponent for categories and suppliers; around 1 the top value holds roughly a tenth
+    @Value("${inventory.generator.zipf-exponent:1.1}")
+    private double zipfExponent;
+
+    @Value("${inventory.generator.price-median:25}")
+    private double priceMedian;
+
+    // Spread of the log-normal price; 1.2 puts about 1% of products above 16 times the median
+    @Value("${inventory.generator.price-sigma:1.2}")
+    private double priceSigma;
+
+    @Value("${inventory.generator.out-of-stock-share:0.05}")
+    private double outOfStockShare;
+
+    @Value("${inventory.generator.low-stock-share:0.15}")
+    private double lowStockShare;
+
+    // Password of every generated user
+    @Value("${inventory.generator.user-password:loadtest123}")
+    private String userPassword;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (products > 0) {
+            generateProducts();
+        }
+        if (users > 0) {
+            generateUsers();
+        }
+    }
+
+    private void generateProducts() throws Exception {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE sku LIKE ?", Long.class,
+                SKU_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            log.info("Skipping product generation: {} generated products already exist", existing);
+            return;
+        }
+        int[] categoryIds = register(AttributeValue.Kind.CATEGORY, categories, DataGenerator::categoryName);
+        int[] supplierIds = register(AttributeValue.Kind.SUPPLIER, suppliers, DataGenerator::supplierName);
+        int[] locationIds = register(AttributeValue.Kind.LOCATION, locations, DataGenerator::locationName);
+        int[] statusIds = new int[Product.ProductStatus.values().length];
+        for (Product.ProductStatus status : Product.ProductStatus.values()) {
+            statusIds[status.ordinal()] = attributeDictionary.register(AttributeValue.Kind.STATUS, status.name());
+        }
+        double[] categoryWeights = zipf(categories, zipfExponent);
+        double[] supplierWeights = zipf(suppliers, zipfExponent);
+        LocalDateTime now = LocalDateTime.now();
+
+        long start = System.nanoTime();
+        insertInBatches(products, (from, to) -> {
+            SplittableRandom random = new SplittableRandom(seed ^ (from * 0x9E3779B97F4A7C15L));
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int category = sample(categoryWeights, random);
+                String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+                String noun = NOUNS[category % NOUNS.length];
+                String material = MATERIALS[random.nextInt(MATERIALS.length)];
+                double price = Math.max(0.01,
+                        Math.round(priceMedian * Math.exp(priceSigma * random.nextGaussian()) * 100) / 100.0);
+                int reorderPoint = 5 + random.nextInt(26);
+                int quantity = quantity(random, reorderPoint);
+                LocalDateTime createdAt = now.minusSeconds(random.nextLong(2L * 365 * 24 * 3600));
+                LocalDateTime updatedAt = createdAt.plusSeconds(
+                        random.nextLong(Math.max(1, Duration.between(createdAt, now).getSeconds())));
+                rows.add(new Object[] {
+                        adjective + " " + noun + " " + (char) ('A' + random.nextInt(26)) + random.nextInt(1000),
+                        adjective + " " + noun.toLowerCase() + " in " + material,
+                        categoryIds[category],
+                        price,
+                        quantity,
+                        statusIds[Product.statusFor(quantity, reorderPoint).ordinal()],
+                        String.format("%s%09d", SKU_PREFIX, i),
+                        // One product in twenty has no supplier on record
+                        random.nextInt(20) == 0 ? null : supplierIds[sample(supplierWeights, random)],
+                        locationIds[random.nextInt(locationIds.length)],
+                        reorderPoint,
+                        Timestamp.valueOf(createdAt),
+                        Timestamp.valueOf(updatedAt),
+                        0L,
+                        price * quantity,
+                        reorderPoint - quantity });
+            }
+            return rows;
+        }, PRODUCT_INSERT);
+        log.info("Generated {} products in {} ms", products, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void generateUsers() throws Exception {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username LIKE ?", Long.class,
+                USERNAME_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            log.info("Skipping user generation: {} generated users already exist", existing);
+            return;
+        }
+        // Hashed once: BCrypt per user would take longer than the inserts
+        String hash = passwordEncoder.encode(userPassword);
+        LocalDateTime now = LocalDateTime.now();
+
+        long start = System.nanoTime();
+        insertInBatches(users, (from, to) -> {
+            SplittableRandom random = new SplittableRandom(~seed ^ (from * 0x9E3779B97F4A7C15L));
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                String username = String.format("%s%07d", USERNAME_PREFIX, i);
+                LocalDateTime createdAt = now.minusSeconds(random.nextLong(365L * 24 * 3600));
+                rows.add(new Object[] {
+                        username,
+                        hash,
+                        username + "@loadtest.example",
+                        random.nextInt(100) == 0 ? "ADMIN" : "USER",
+                        SURNAMES[random.nextInt(SURNAMES.length)] + " " + (char) ('A' + random.nextInt(26)) + ".",
+                        random.nextInt(50) != 0,
+                        Timestamp.valueOf(createdAt),
+                        random.nextInt(4) == 0 ? null : Timestamp.valueOf(createdAt.plusSeconds(
+                                random.nextLong(Math.max(1, Duration.between(createdAt, now).getSeconds())))) });
+            }
+            return rows;
+        }, USER_INSERT);
+        log.info("Generated {} users in {} ms", users, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private interface BatchRows {
+        List<Object[]> rows(int from, int to);
+    }
+
+    // One transaction per batch, batches spread over the pool
+    private void insertInBatches(int total, BatchRows batchRows, String sql) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<?>> batches = new ArrayList<>();
+            for (int from = 0; from < total; from += batchSize) {
+                int batchFrom = from;
+                int batchTo = Math.min(total, from + batchSize);
+                batches.add(executor.submit(() -> transactionTemplate.executeWithoutResult(
+                        status -> jdbcTemplate.batchUpdate(sql, batchRows.rows(batchFrom, batchTo)))));
+            }
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int[] register(AttributeValue.Kind kind, int count, IntFunction<String> name) {
+        int[] ids = new int[Math.max(1, count)];
+        for (int rank = 0; rank < ids.length; rank++) {
+            ids[rank] = attributeDictionary.register(kind, name.apply(rank));
+        }
+        return ids;
+    }
+
+    // Mostly comfortably stocked, with fixed shares out of stock and at or below the reorder point
+    private int quantity(SplittableRandom random, int reorderPoint) {
+        double draw = random.nextDouble();
+        if (draw < outOfStockShare) {
+            return 0;
+        }
+        if (draw < outOfStockShare + lowStockShare) {
+            return 1 + random.nextInt(reorderPoint);
+        }
+        // Long-tailed above the reorder point: median about 60 more
+        return reorderPoint + 1 + (int) Math.min(100_000, Math.exp(4.1 + random.nextGaussian()));
+    }
+
+    // Cumulative weights of ranks 1..n under a Zipf distribution
+    private static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[Math.max(1, n)];
+        double total = 0;
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    // Plain names first: ranks run through the nouns before numbering them
+    private static String categoryName(int rank) {
+        String name = CATEGORY_NAMES[rank % CATEGORY_NAMES.length];
+        return rank < CATEGORY_NAMES.length ? name : name + " " + (rank / CATEGORY_NAMES.length + 1);
+    }
+
+    private static String supplierName(int rank) {
+        int combinations = SURNAMES.length * COMPANY_SUFFIXES.length;
+        String name = SURNAMES[rank % SURNAMES.length] + " "
+                + COMPANY_SUFFIXES[(rank / SURNAMES.length) % COMPANY_SUFFIXES.length];
+        return rank < combinations ? name : name + " " + (rank / combinations + 1);
+    }
+
+    private static String locationName(int rank) {
+        return String.format("Warehouse %02d", rank + 1);
+    }
+}
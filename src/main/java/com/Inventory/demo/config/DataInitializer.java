@@ -4,16 +4,23 @@ import com.Inventory.demo.entity.Product;
 import com.Inventory.demo.entity.User;
 import com.Inventory.demo.repository.ProductRepository;
 import com.Inventory.demo.repository.UserRepository;
+import com.Inventory.demo.service.AttributeDictionary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 
 @Component
+@Order(1)
 public class DataInitializer implements CommandLineRunner {
 
+    // BCrypt (strength 10) of the fixed default passwords "admin123" and "user123", hashed ahead
+    // of time so seeding does not spend a few hundred milliseconds of every startup on them
+    private static final String ADMIN_PASSWORD_HASH = "$2a$10$ZtYSQ50PXK9MkcnVs3kSr.kgqKczqfzdfIJukPKjlL/lMk3gqCaMG";
+    private static final String USER_PASSWORD_HASH = "$2a$10$GOQlZ14HODkFCJX1j2UAU.c57iooTBeD.KJQzh6z68cQbzhdtJzZy";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -21,7 +28,7 @@ public class DataInitializer implements CommandLineRunner {
     private ProductRepository productRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private AttributeDictionary attributeDictionary;
 
     @Override
     public void run(String... args) throws Exception {
@@ -40,7 +47,7 @@ public class DataInitializer implements CommandLineRunner {
         // Create admin user
         User admin = new User();
         admin.setUsername("admin");
-        admin.setPassword(passwordEncoder.encode("admin123"));
+        admin.setPassword(ADMIN_PASSWORD_HASH);
         admin.setEmail("admin@imspro.com");
         admin.setRole(User.UserRole.ADMIN);
         admin.setFullName("System Administrator");
@@ -50,7 +57,7 @@ public class DataInitializer implements CommandLineRunner {
         // Create regular user
         User user = new User();
         user.setUsername("user");
-        user.setPassword(passwordEncoder.encode("user123"));
+        user.setPassword(USER_PASSWORD_HASH);
         user.setEmail("user@imspro.com");
         user.setRole(User.UserRole.USER);
         user.setFullName("Regular User");
@@ -71,7 +78,7 @@ public class DataInitializer implements CommandLineRunner {
         laptop.setSku("LAP-DELL-XPS13");
         laptop.setSupplier("Dell Inc.");
         laptop.setLocation("Warehouse A");
-        productRepository.save(laptop);
+        save(laptop);
 
         Product mouse = new Product();
         mouse.setName("Wireless Mouse");
@@ -82,7 +89,7 @@ public class DataInitializer implements CommandLineRunner {
         mouse.setSku("ACC-MOUSE-WL");
         mouse.setSupplier("Logitech");
         mouse.setLocation("Warehouse B");
-        productRepository.save(mouse);
+        save(mouse);
 
         Product keyboard = new Product();
         keyboard.setName("Mechanical Keyboard");
@@ -93,7 +100,7 @@ public class DataInitializer implements CommandLineRunner {
         keyboard.setSku("ACC-KB-MECH");
         keyboard.setSupplier("Corsair");
         keyboard.setLocation("Warehouse A");
-        productRepository.save(keyboard);
+        save(keyboard);
 
         Product monitor = new Product();
         monitor.setName("4K Monitor");
@@ -104,7 +111,7 @@ public class DataInitializer implements CommandLineRunner {
         monitor.setSku("MON-4K-27");
         monitor.setSupplier("LG Electronics");
         monitor.setLocation("Warehouse C");
-        productRepository.save(monitor);
+        save(monitor);
 
         Product cable = new Product();
         cable.setName("USB-C Cable");
@@ -115,8 +122,14 @@ public class DataInitializer implements CommandLineRunner {
         cable.setSku("CAB-USB-C");
         cable.setSupplier("Anker");
         cable.setLocation("Warehouse B");
-        productRepository.save(cable);
+        save(cable);
 
         System.out.println("Sample products initialized successfully!");
     }
+
+    // Attribute values first, so saving the row needs no second connection for them
+    private void save(Product product) {
+        attributeDictionary.register(product);
+        productRepository.save(product);
+    }
 }
@@ -0,0 +1,182 @@
+package com.Inventory.demo.config;
+
+import com.Inventory.demo.util.TokenBuckets;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Admission control for the product and auth endpoints, after JwtAuthenticationFilter so the
+// principal is known. Every request pays tokens from its client IP's bucket and, when signed in,
+// from its user's bucket, or from neither when either is short. What it pays depends on the route,
+// so a full catalog list costs more than a lookup by id and a login more than either. Out of
+// tokens is 429 with Retry-After.
+// Admitted requests then need one of a fixed number of concurrency permits; when none frees up
+// within a short wait the request is shed with 503 instead of queueing until latency collapses.
+// Nothing is limited until the instance reports ready, so the warm-up runs unthrottled.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Value("${inventory.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.rate-limit.user.tokens-per-second:20}")
+    private double userRate;
+
+    @Value("${inventory.rate-limit.user.capacity:100}")
+    private int userCapacity;
+
+    // Larger than a user's: several users may share an address behind a proxy or NAT
+    @Value("${inventory.rate-limit.ip.tokens-per-second:50}")
+    private double ipRate;
+
+    @Value("${inventory.rate-limit.ip.capacity:200}")
+    private int ipCapacity;
+
+    @Value("${inventory.rate-limit.cost.list:10}")
+    private int listCost;
+
+    @Value("${inventory.rate-limit.cost.search:3}")
+    private int searchCost;
+
+    @Value("${inventory.rate-limit.cost.auth:5}")
+    private int authCost;
+
+    @Value("${inventory.rate-limit.cost.default:1}")
+    private int defaultCost;
+
+    @Value("${inventory.rate-limit.max-concurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${inventory.rate-limit.queue-timeout-ms:50}")
+    private long queueTimeoutMs;
+
+    private TokenBuckets userBuckets;
+    private TokenBuckets ipBuckets;
+    private Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int maxCost = Math.max(Math.max(listCost, searchCost), Math.max(authCost, defaultCost));
+        if (userCapacity < maxCost || ipCapacity < maxCost) {
+            throw new IllegalStateException("Rate limit capacities must cover the most expensive route (" + maxCost
+                    + " tokens)");
+        }
+        userBuckets = new TokenBuckets(userRate, userCapacity);
+        ipBuckets = new TokenBuckets(ipRate, ipCapacity);
+        permits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !(path.startsWith("/api/products") || path.startsWith("/api/auth"))
+                || availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int cost = cost(request);
+        // The client's own address behind the load balancer: Tomcat resolves it from X-Forwarded-For
+        // when the peer is a trusted proxy (server.forward-headers-strategy)
+        String address = request.getRemoteAddr();
+        long wait = ipBuckets.tryTake(address, cost);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (wait == 0 && authentication != null && authentication.isAuthenticated()) {
+            wait = userBuckets.tryTake(authentication.getName(), cost);
+            if (wait > 0) {
+                // Refused for the user alone; others behind the same address keep their share
+                ipBuckets.refund(address, cost);
+            }
+        }
+        if (wait > 0) {
+            rejected.incrementAndGet();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "Rate limit exceeded");
+            return;
+        }
+
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            shed.incrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "Server busy");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        int users = userBuckets.evictFull();
+        int addresses = ipBuckets.evictFull();
+        long rejectedSince = rejected.getAndSet(0);
+        long shedSince = shed.getAndSet(0);
+        if (rejectedSince > 0 || shedSince > 0) {
+            log.info("Rate limiting: {} requests rejected, {} shed; tracking {} users and {} addresses",
+                    rejectedSince, shedSince, users, addresses);
+        }
+    }
+
+    private int cost(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/login") || path.startsWith("/api/auth/register")) {
+            return authCost;
+        }
+        if (!"GET".equals(request.getMethod())) {
+            return defaultCost;
+        }
+        if (path.equals("/api/products") || path.equals("/api/products/")) {
+            return listCost;
+        }
+        if (path.startsWith("/api/products/search") || path.startsWith("/api/products/query")
+                || path.startsWith("/api/products/category") || path.startsWith("/api/products/low-stock")) {
+            return searchCost;
+        }
+        return defaultCost;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String message)
+            throws IOException {
+        // Whole seconds, rounded up, as the header requires
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", Long.toString(seconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"message\":\"" + message + "\",\"retryAfterSeconds\":" + seconds + "}");
+    }
+}
@@ -0,0 +1,34 @@
+package com.Inventory.demo.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Configuration
+public class StartupConfig {
+
+    // With spring.main.lazy-initialization (the startup profile) a bean is only created when first
+    // used. Beans that listen for events or run on a schedule never would be, so they are kept
+    // eager: the in-memory indexes, the outbox dispatcher, rollups and so on. So are beans with a
+    // @PostConstruct, which is where one registers itself or starts its threads; nothing injects
+    // AuditEntityListener, for one, and left lazy it would never hook into Hibernate.
+    @Bean
+    public static LazyInitializationExcludeFilter eagerListenersAndSchedules() {
+        return (beanName, beanDefinition, beanType) -> {
+            AtomicBoolean eager = new AtomicBoolean();
+            ReflectionUtils.doWithMethods(beanType, method -> eager.set(true), method -> {
+                MergedAnnotations annotations = MergedAnnotations.from(method);
+                return annotations.isPresent(EventListener.class) || annotations.isPresent(Scheduled.class)
+                        || annotations.isPresent(PostConstruct.class);
+            });
+            return eager.get();
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.Inventory.demo.controller;
+
+import com.Inventory.demo.dto.AlertDto;
+import com.Inventory.demo.event.SseAlertSink;
+import com.Inventory.demo.service.StockAlertService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AlertController {
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private SseAlertSink sseAlertSink;
+
+    // Live stream of low-stock and out-of-stock alerts as server-sent events
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAlerts() {
+        if (!sseAlertSink.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(sseAlertSink.subscribe());
+    }
+
+    // Most recent outbox entries with their delivery state; X-Undelivered counts the backlog
+    @GetMapping
+    public ResponseEntity<List<AlertDto.OutboxEntry>> getRecentAlerts(@RequestParam(defaultValue = "50") int limit) {
+        try {
+            if (limit < 1 || limit > 500) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok()
+                    .header("X-Undelivered", String.valueOf(stockAlertService.countUndelivered()))
+                    .body(stockAlertService.getRecent(limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.Inventory.demo.controller;
+
+import com.Inventory.demo.dto.AuditDto;
+import com.Inventory.demo.service.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AuditController {
+
+    @Autowired
+    private AuditService auditService;
+
+    // Newest first; records reach the log shortly after the change commits, not synchronously
+    @GetMapping
+    public ResponseEntity<Page<AuditDto.Entry>> getRecords(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            if (page < 0 || size < 1 || size > 500 || (entityId != null && entityType == null)) {
+                return ResponseEntity.badRequest().build();
+            }
+            String type = entityType != null ? entityType.toUpperCase(Locale.ROOT) : null;
+            return ResponseEntity.ok(auditService.getRecords(type, entityId, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<AuditDto.Stats> getStats() {
+        return ResponseEntity.ok(auditService.getStats());
+    }
+}
@@ -6,6 +6,7 @@ import com.Inventory.demo.service.UserService;
 import com.Inventory.demo.util.JwtUtil;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -33,8 +34,7 @@ public class AuthController {
 
             if (user != null && passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
                 // Update last login
-                user.setLastLogin(java.time.LocalDateTime.now());
-                userService.saveUser(user);
+                userService.recordLogin(user);
 
                 // Generate JWT token
                 String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
@@ -54,18 +54,6 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<AuthDto.LoginResponse> register(@Valid @RequestBody AuthDto.RegisterRequest registerRequest) {
         try {
-            // Check if username already exists
-            if (userService.findByUsername(registerRequest.getUsername()) != null) {
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(new AuthDto.LoginResponse("Username already exists"));
-            }
-
-            // Check if email already exists
-            if (userService.findByEmail(registerRequest.getEmail()) != null) {
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(new AuthDto.LoginResponse("Email already exists"));
-            }
-
             // Create new user
             User user = new User();
             user.setUsername(registerRequest.getUsername());
@@ -80,7 +68,15 @@ public class AuthController {
                 user.setRole(User.UserRole.USER);
             }
 
-            User savedUser = userService.saveUser(user);
+            // A single insert; the unique constraints catch a taken username or email
+            User savedUser;
+            try {
+                savedUser = userService.saveUser(user);
+            } catch (DataIntegrityViolationException e) {
+                String message = userService.isUsernameExists(registerRequest.getUsername())
+                        ? "Username already exists" : "Email already exists";
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(new AuthDto.LoginResponse(message));
+            }
 
             // Generate JWT token
             String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getRole().name());
@@ -0,0 +1,36 @@
+package com.Inventory.demo.controller;
+
+import com.Inventory.demo.dto.OrderDto;
+import com.Inventory.demo.service.OrderFulfilmentService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "http://localhost:5173")
+public class OrderController {
+
+    @Autowired
+    private OrderFulfilmentService fulfilmentService;
+
+    // Decrement stock for all lines of an order at once; 409 with the short lines under FAIL
+    @PostMapping("/fulfil")
+    public ResponseEntity<OrderDto.FulfilmentResult> fulfil(@Valid @RequestBody OrderDto.FulfilmentRequest request) {
+        try {
+            return ResponseEntity.ok(fulfilmentService.fulfil(request));
+        } catch (OrderFulfilmentService.InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getResult());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -1,10 +1,23 @@
 package com.Inventory.demo.controller;
 
 import com.Inventory.demo.dto.ProductDto;
+import com.Inventory.demo.dto.ReadModelDto;
+import com.Inventory.demo.dto.ReportDto;
+import com.Inventory.demo.dto.SearchDto;
 import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.service.IdempotencyService;
+import com.Inventory.demo.service.ProductFacetService;
+import com.Inventory.demo.service.ProductQueryService;
+import com.Inventory.demo.service.ProductReadModel;
 import com.Inventory.demo.service.ProductService;
+import com.Inventory.demo.service.ProductSuggestService;
+import com.Inventory.demo.service.ReorderPriorityService;
+import com.Inventory.demo.util.ETags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,10 +34,35 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private ProductQueryService productQueryService;
+
+    @Autowired
+    private ProductReadModel productReadModel;
+
+    @Autowired
+    private ReorderPriorityService reorderPriorityService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // When false, PUT and DELETE without If-Match are still accepted (last write wins)
+    @Value("${inventory.products.require-if-match:false}")
+    private boolean requireIfMatch;
+
     // Get all products
     @GetMapping
     public ResponseEntity<List<ProductDto>> getAllProducts() {
         try {
+            if (productReadModel.isServing()) {
+                return ResponseEntity.ok(productReadModel.findAll());
+            }
             List<Product> products = productService.getAllProducts();
             List<ProductDto> productDtos = products.stream()
                     .map(ProductDto::new)
@@ -39,9 +77,15 @@ public class ProductController {
     @GetMapping("/{id}")
     public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
         try {
+            if (productReadModel.isServing()) {
+                return productReadModel.findById(id)
+                        .map(product -> ResponseEntity.ok().eTag(ETags.of(product.getVersion())).body(product))
+                        .orElseGet(() -> ResponseEntity.notFound().build());
+            }
             Optional<Product> productOpt = productService.getProductById(id);
             if (productOpt.isPresent()) {
-                return ResponseEntity.ok(new ProductDto(productOpt.get()));
+                Product product = productOpt.get();
+                return ResponseEntity.ok().eTag(ETags.of(product.getVersion())).body(new ProductDto(product));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -50,55 +94,83 @@ public class ProductController {
         }
     }
 
-    // Create new product
+    // Create new product; a retry with the same Idempotency-Key gets the original response
     @PostMapping
-    public ResponseEntity<ProductDto> createProduct(@Valid @RequestBody ProductDto productDto) {
-        try {
-            Product product = productDto.toEntity();
-            Product savedProduct = productService.saveProduct(product);
-            return ResponseEntity.status(HttpStatus.CREATED).body(new ProductDto(savedProduct));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<ProductDto> createProduct(@Valid @RequestBody ProductDto productDto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "create-product", productDto, () -> {
+            try {
+                Product product = productDto.toEntity();
+                Product savedProduct = productService.saveProduct(product);
+                return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedProduct.getVersion()))
+                        .body(new ProductDto(savedProduct));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
     }
 
-    // Update product
+    // Update product; 412 if If-Match names a version other than the current one. A retry with
+    // the same Idempotency-Key gets the original response instead of applying the change again.
     @PutMapping("/{id}")
-    public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto) {
-        try {
-            Optional<Product> productOpt = productService.getProductById(id);
-            if (!productOpt.isPresent()) {
-                return ResponseEntity.notFound().build();
-            }
+    public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        Object request = new Object[] { ifMatch, productDto };
+        return idempotencyService.execute(idempotencyKey, "update-product " + id, request, () -> {
+            try {
+                Optional<Product> productOpt = productService.getProductById(id);
+                if (!productOpt.isPresent()) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            Product existingProduct = productOpt.get();
-            // Update fields
-            existingProduct.setName(productDto.getName());
-            existingProduct.setDescription(productDto.getDescription());
-            existingProduct.setCategory(productDto.getCategory());
-            existingProduct.setPrice(productDto.getPrice());
-            existingProduct.setQuantity(productDto.getQuantity());
-            existingProduct.setSku(productDto.getSku());
-            existingProduct.setSupplier(productDto.getSupplier());
-            existingProduct.setLocation(productDto.getLocation());
-
-            Product updatedProduct = productService.saveProduct(existingProduct);
-            return ResponseEntity.ok(new ProductDto(updatedProduct));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+                Product existingProduct = productOpt.get();
+                ResponseEntity<ProductDto> precondition = checkPrecondition(ifMatch, existingProduct);
+                if (precondition != null) {
+                    return precondition;
+                }
+                // Update fields
+                existingProduct.setName(productDto.getName());
+                existingProduct.setDescription(productDto.getDescription());
+                existingProduct.setCategory(productDto.getCategory());
+                existingProduct.setPrice(productDto.getPrice());
+                existingProduct.setQuantity(productDto.getQuantity());
+                existingProduct.setSku(productDto.getSku());
+                existingProduct.setSupplier(productDto.getSupplier());
+                existingProduct.setLocation(productDto.getLocation());
+                if (productDto.getReorderPoint() != null) {
+                    existingProduct.setReorderPoint(productDto.getReorderPoint());
+                }
+
+                Product updatedProduct = productService.saveProduct(existingProduct);
+                return ResponseEntity.ok().eTag(ETags.of(updatedProduct.getVersion()))
+                        .body(new ProductDto(updatedProduct));
+            } catch (OptimisticLockingFailureException e) {
+                // Changed by someone else between our read and our write
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
     }
 
-    // Delete product
+    // Delete product; 412 if If-Match names a version other than the current one
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
             Optional<Product> productOpt = productService.getProductById(id);
             if (!productOpt.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
+            ResponseEntity<Void> precondition = checkPrecondition(ifMatch, productOpt.get());
+            if (precondition != null) {
+                return precondition;
+            }
             productService.deleteProduct(id);
             return ResponseEntity.noContent().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -108,6 +180,14 @@ public class ProductController {
     @GetMapping("/search")
     public ResponseEntity<List<ProductDto>> searchProducts(@RequestParam String query) {
         try {
+            if (productReadModel.isServing()) {
+                List<ProductDto> matches = query.trim().isEmpty() ? productReadModel.findAll()
+                        : productReadModel.search(query.trim());
+                // With no literal match the service falls back to the fuzzy index
+                if (!matches.isEmpty()) {
+                    return ResponseEntity.ok(matches);
+                }
+            }
             List<Product> products = productService.searchProducts(query);
             List<ProductDto> productDtos = products.stream()
                     .map(ProductDto::new)
@@ -118,10 +198,69 @@ public class ProductController {
         }
     }
 
+    // Search with category, supplier, location, status and price facet counts over the matches
+    @GetMapping(value = "/search", params = "facets=true")
+    public ResponseEntity<SearchDto.FacetedResult> searchProductsWithFacets(@RequestParam String query) {
+        try {
+            List<Product> products = productService.searchProducts(query);
+            List<ProductDto> productDtos = products.stream()
+                    .map(ProductDto::new)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(new SearchDto.FacetedResult(productDtos, productFacetService.count(products)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Combined filters with sorting and paging, e.g. ?category=Electronics&maxQuantity=10&sort=price&direction=desc
+    @GetMapping("/query")
+    public ResponseEntity<SearchDto.PageResult<ProductDto>> queryProducts(@ModelAttribute SearchDto.ProductQuery query) {
+        try {
+            Page<Product> page = productQueryService.query(query);
+            List<ProductDto> productDtos = page.getContent().stream()
+                    .map(ProductDto::new)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(new SearchDto.PageResult<>(productDtos, page.getNumber(), page.getSize(),
+                    page.getTotalElements()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Ranked, misspelling-tolerant search
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<SearchDto.FuzzyHit>> fuzzySearchProducts(@RequestParam String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<SearchDto.FuzzyHit> hits = productService.fuzzySearchProducts(query, limit).stream()
+                    .map(match -> new SearchDto.FuzzyHit(match.getProduct(), match.getScore()))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(hits);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Typeahead suggestions by name or SKU prefix, ranked in memory
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SearchDto.Suggestion>> suggestProducts(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(productSuggestService.suggest(prefix, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // Get products by category
     @GetMapping("/category/{category}")
     public ResponseEntity<List<ProductDto>> getProductsByCategory(@PathVariable String category) {
         try {
+            if (productReadModel.isServing()) {
+                return ResponseEntity.ok(productReadModel.findByCategory(category));
+            }
             List<Product> products = productService.getProductsByCategory(category);
             List<ProductDto> productDtos = products.stream()
                     .map(ProductDto::new)
@@ -136,7 +275,10 @@ public class ProductController {
     @GetMapping("/low-stock")
     public ResponseEntity<List<ProductDto>> getLowStockProducts() {
         try {
-            List<Product> products = productService.getLowStockProducts(10); // Default threshold of 10
+            if (productReadModel.isServing()) {
+                return ResponseEntity.ok(productReadModel.findLowStock());
+            }
+            List<Product> products = productService.getLowStockProducts();
             List<ProductDto> productDtos = products.stream()
                     .map(ProductDto::new)
                     .collect(Collectors.toList());
@@ -145,4 +287,40 @@ public class ProductController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    // Most urgent items to reorder, furthest below their reorder point first
+    @GetMapping("/low-stock/priority")
+    public ResponseEntity<List<ReportDto.ReorderItem>> getReorderPriorities(@RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(reorderPriorityService.mostUrgent(limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Compares the in-memory read model with the database; repair=true reloads it when they differ
+    @GetMapping("/read-model/verify")
+    public ResponseEntity<ReadModelDto.Verification> verifyReadModel(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            if (!productReadModel.isServing()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            return ResponseEntity.ok(productReadModel.verify(repair));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // 428 when If-Match is required but missing, 412 with the current ETag when it is stale,
+    // null when the request may proceed
+    private <T> ResponseEntity<T> checkPrecondition(String ifMatch, Product product) {
+        if (ifMatch == null) {
+            return requireIfMatch ? ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build() : null;
+        }
+        if (!ETags.matches(ifMatch, product.getVersion())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(ETags.of(product.getVersion())).build();
+        }
+        return null;
+    }
+}
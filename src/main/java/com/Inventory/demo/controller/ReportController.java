@@ -0,0 +1,132 @@
+package com.Inventory.demo.controller;
+
+import com.Inventory.demo.dto.ReportDto;
+import com.Inventory.demo.entity.InventoryRollup;
+import com.Inventory.demo.service.InventoryRollupService;
+import com.Inventory.demo.service.ProductAnalyticsService;
+import com.Inventory.demo.service.ProductDistributionService;
+import com.Inventory.demo.service.ReportService;
+import com.Inventory.demo.service.StartupReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private InventoryRollupService inventoryRollupService;
+
+    @Autowired
+    private ProductDistributionService productDistributionService;
+
+    @Autowired
+    private ProductAnalyticsService productAnalyticsService;
+
+    @Autowired
+    private StartupReportService startupReportService;
+
+    // Top products by stock value (price * quantity) or by quantity
+    @GetMapping("/top-products")
+    public ResponseEntity<List<ReportDto.TopProduct>> getTopProducts(
+            @RequestParam(defaultValue = "value") String by,
+            @RequestParam(defaultValue = "5") int n,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String location) {
+        try {
+            ReportService.RankBy rankBy = ReportService.RankBy.valueOf(by.trim().toUpperCase());
+            List<ReportDto.TopProduct> topProducts = reportService.getTopProducts(rankBy, n, category, location)
+                    .stream()
+                    .map(ReportDto.TopProduct::new)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(topProducts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Rollup history for a category, location or supplier, or the catalog total; defaults to 30 days.
+    // Without a key every group of the dimension is returned.
+    @GetMapping("/trends")
+    public ResponseEntity<List<ReportDto.TrendPoint>> getTrends(
+            @RequestParam(defaultValue = "total") String dimension,
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            InventoryRollup.Dimension groupBy = InventoryRollup.Dimension.valueOf(dimension.trim().toUpperCase());
+            LocalDateTime end = to != null ? to : LocalDateTime.now();
+            LocalDateTime start = from != null ? from : end.minusDays(30);
+            if (start.isAfter(end)) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(inventoryRollupService.getTrend(groupBy, key, start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Approximate price and quantity quantiles per category, supplier or location, or for the catalog
+    @GetMapping("/distribution")
+    public ResponseEntity<List<ReportDto.Distribution>> getDistribution(
+            @RequestParam(defaultValue = "total") String dimension,
+            @RequestParam(required = false) String key,
+            @RequestParam(defaultValue = "0.5,0.9,0.99") double[] quantiles) {
+        try {
+            InventoryRollup.Dimension groupBy = InventoryRollup.Dimension.valueOf(dimension.trim().toUpperCase());
+            if (quantiles.length == 0 || quantiles.length > 20) {
+                return ResponseEntity.badRequest().build();
+            }
+            for (double q : quantiles) {
+                if (!(q >= 0 && q <= 1)) {
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+            return ResponseEntity.ok(productDistributionService.getDistribution(groupBy, key, quantiles));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Ad-hoc totals grouped by category, supplier, location and/or status, with optional filters,
+    // e.g. ?groupBy=location,category&supplier=Logitech&sort=value
+    @GetMapping("/query")
+    public ResponseEntity<ReportDto.GroupResult> queryGroups(@ModelAttribute ReportDto.GroupQuery query) {
+        try {
+            return ResponseEntity.ok(productAnalyticsService.query(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Where the last startup spent its time, by phase and by bean
+    @GetMapping("/startup")
+    public ResponseEntity<ReportDto.StartupReport> getStartupReport() {
+        ReportDto.StartupReport report = startupReportService.getReport();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(report);
+    }
+}
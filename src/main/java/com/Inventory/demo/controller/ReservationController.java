@@ -0,0 +1,80 @@
+package com.Inventory.demo.controller;
+
+import com.Inventory.demo.dto.ReservationDto;
+import com.Inventory.demo.service.StockReservationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReservationController {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    // Hold stock for a pending order
+    @PostMapping
+    public ResponseEntity<ReservationDto.Reservation> reserve(@Valid @RequestBody ReservationDto.ReserveRequest request) {
+        return handle(HttpStatus.CREATED, () -> reservationService.reserve(request.getProductId(),
+                request.getQuantity(), request.getTtlSeconds()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationDto.Reservation> getReservation(@PathVariable String id) {
+        return reservationService.getReservation(id)
+                .map(r -> ResponseEntity.ok(new ReservationDto.Reservation(r)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Turn the hold into a sale; written to the products table shortly after
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ReservationDto.Reservation> confirm(@PathVariable String id) {
+        return handle(HttpStatus.OK, () -> reservationService.confirm(id));
+    }
+
+    // Give the held stock back
+    @PostMapping("/{id}/release")
+    public ResponseEntity<ReservationDto.Reservation> release(@PathVariable String id) {
+        return handle(HttpStatus.OK, () -> reservationService.release(id));
+    }
+
+    // On-hand, reserved, pending and available counts as the reservation engine sees them
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<ReservationDto.StockLevel> getStockLevel(@PathVariable Long productId) {
+        try {
+            if (!reservationService.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            return ResponseEntity.ok(new ReservationDto.StockLevel(productId, reservationService.getStockLevel(productId)));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private ResponseEntity<ReservationDto.Reservation> handle(HttpStatus success,
+            Supplier<StockReservationService.Reservation> action) {
+        try {
+            if (!reservationService.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            return ResponseEntity.status(success).body(new ReservationDto.Reservation(action.get()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
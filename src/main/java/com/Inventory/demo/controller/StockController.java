@@ -0,0 +1,89 @@
+package com.Inventory.demo.controller;
+
+import com.Inventory.demo.dto.ProductDto;
+import com.Inventory.demo.dto.SearchDto;
+import com.Inventory.demo.dto.StockDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.entity.StockMovement;
+import com.Inventory.demo.service.IdempotencyService;
+import com.Inventory.demo.service.ProductService;
+import com.Inventory.demo.service.StockLedgerService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "http://localhost:5173")
+public class StockController {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // Record a stock movement (receipt, sale, ...) and return the updated product. A retry with
+    // the same Idempotency-Key gets the original response instead of moving the stock twice.
+    @PostMapping("/{id}/movements")
+    public ResponseEntity<ProductDto> recordMovement(@PathVariable Long id,
+            @Valid @RequestBody StockDto.MovementRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "stock-movement " + id, request, () -> {
+            try {
+                if (productService.getProductById(id).isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                Product product = productService.adjustStock(id, request.getDelta(), request.getReason());
+                return ResponseEntity.ok(new ProductDto(product));
+            } catch (IllegalStateException | OptimisticLockingFailureException e) {
+                // Insufficient stock, or still colliding with other writers after every retry
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
+    }
+
+    // Movement history, newest first
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<SearchDto.PageResult<StockDto.Movement>> getMovements(@PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            if (page < 0 || size < 1 || size > 500) {
+                return ResponseEntity.badRequest().build();
+            }
+            Page<StockMovement> movements = stockLedgerService.getMovements(id, page, size);
+            List<StockDto.Movement> content = movements.getContent().stream()
+                    .map(StockDto.Movement::new)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(new SearchDto.PageResult<>(content, page, size, movements.getTotalElements()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Stock on hand at a past instant, replayed from the nearest snapshot
+    @GetMapping("/{id}/stock/as-of")
+    public ResponseEntity<StockDto.StockAsOf> getStockAsOf(@PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        try {
+            return ResponseEntity.ok(stockLedgerService.getStockAsOf(id, at));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
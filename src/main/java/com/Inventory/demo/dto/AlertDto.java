@@ -0,0 +1,178 @@
+package com.Inventory.demo.dto;
+
+import com.Inventory.demo.entity.OutboxEvent;
+import com.Inventory.demo.entity.Product;
+import java.time.LocalDateTime;
+
+public class AlertDto {
+
+    // What the sinks receive; eventId is stable across redeliveries so receivers can deduplicate
+    public static class StockAlert {
+        private Long eventId;
+        private Long productId;
+        private String productName;
+        private String sku;
+        private Product.ProductStatus previousStatus;
+        private Product.ProductStatus status;
+        private int quantity;
+        private int reorderPoint;
+        private LocalDateTime occurredAt;
+
+        public StockAlert() {
+        }
+
+        public StockAlert(OutboxEvent event) {
+            this.eventId = event.getId();
+            this.productId = event.getProductId();
+            this.productName = event.getProductName();
+            this.sku = event.getSku();
+            this.previousStatus = event.getPreviousStatus();
+            this.status = event.getStatus();
+            this.quantity = event.getQuantity();
+            this.reorderPoint = event.getReorderPoint();
+            this.occurredAt = event.getOccurredAt();
+        }
+
+        public Long getEventId() {
+            return eventId;
+        }
+
+        public void setEventId(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public String getProductName() {
+            return productName;
+        }
+
+        public void setProductName(String productName) {
+            this.productName = productName;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public Product.ProductStatus getPreviousStatus() {
+            return previousStatus;
+        }
+
+        public void setPreviousStatus(Product.ProductStatus previousStatus) {
+            this.previousStatus = previousStatus;
+        }
+
+        public Product.ProductStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(Product.ProductStatus status) {
+            this.status = status;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public int getReorderPoint() {
+            return reorderPoint;
+        }
+
+        public void setReorderPoint(int reorderPoint) {
+            this.reorderPoint = reorderPoint;
+        }
+
+        public LocalDateTime getOccurredAt() {
+            return occurredAt;
+        }
+
+        public void setOccurredAt(LocalDateTime occurredAt) {
+            this.occurredAt = occurredAt;
+        }
+    }
+
+    // An outbox row with its delivery state
+    public static class OutboxEntry {
+        private StockAlert alert;
+        private int attempts;
+        private String ackedSinks;
+        private LocalDateTime nextAttemptAt;
+        private LocalDateTime deliveredAt;
+        private String lastError;
+
+        public OutboxEntry() {
+        }
+
+        public OutboxEntry(OutboxEvent event) {
+            this.alert = new StockAlert(event);
+            this.attempts = event.getAttempts();
+            this.ackedSinks = event.getAckedSinks();
+            this.nextAttemptAt = event.getNextAttemptAt();
+            this.deliveredAt = event.getDeliveredAt();
+            this.lastError = event.getLastError();
+        }
+
+        public StockAlert getAlert() {
+            return alert;
+        }
+
+        public void setAlert(StockAlert alert) {
+            this.alert = alert;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public void setAttempts(int attempts) {
+            this.attempts = attempts;
+        }
+
+        public String getAckedSinks() {
+            return ackedSinks;
+        }
+
+        public void setAckedSinks(String ackedSinks) {
+            this.ackedSinks = ackedSinks;
+        }
+
+        public LocalDateTime getNextAttemptAt() {
+            return nextAttemptAt;
+        }
+
+        public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+            this.nextAttemptAt = nextAttemptAt;
+        }
+
+        public LocalDateTime getDeliveredAt() {
+            return deliveredAt;
+        }
+
+        public void setDeliveredAt(LocalDateTime deliveredAt) {
+            this.deliveredAt = deliveredAt;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        public void setLastError(String lastError) {
+            this.lastError = lastError;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.Inventory.demo.dto;
+
+import com.Inventory.demo.entity.AuditRecord;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class AuditDto {
+
+    // A change as captured on the request thread, waiting to be written; also the line format of
+    // the spill file. Changes map a field name to its [before, after] values.
+    public static class Change {
+        private String entityType;
+        private Long entityId;
+        private AuditRecord.Action action;
+        private String principal;
+        private Map<String, String[]> changes = new LinkedHashMap<>();
+        private LocalDateTime occurredAt;
+
+        public Change() {
+        }
+
+        public Change(String entityType, Long entityId, AuditRecord.Action action, String principal,
+                Map<String, String[]> changes) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.action = action;
+            this.principal = principal;
+            this.changes = changes;
+            this.occurredAt = LocalDateTime.now();
+        }
+
+        public String getEntityType() {
+            return entityType;
+        }
+
+        public void setEntityType(String entityType) {
+            this.entityType = entityType;
+        }
+
+        public Long getEntityId() {
+            return entityId;
+        }
+
+        public void setEntityId(Long entityId) {
+            this.entityId = entityId;
+        }
+
+        public AuditRecord.Action getAction() {
+            return action;
+        }
+
+        public void setAction(AuditRecord.Action action) {
+            this.action = action;
+        }
+
+        public String getPrincipal() {
+            return principal;
+        }
+
+        public void setPrincipal(String principal) {
+            this.principal = principal;
+        }
+
+        public Map<String, String[]> getChanges() {
+            return changes;
+        }
+
+        public void setChanges(Map<String, String[]> changes) {
+            this.changes = changes;
+        }
+
+        public LocalDateTime getOccurredAt() {
+            return occurredAt;
+        }
+
+        public void setOccurredAt(LocalDateTime occurredAt) {
+            this.occurredAt = occurredAt;
+        }
+    }
+
+    public static class Entry {
+        private Long id;
+        private String entityType;
+        private Long entityId;
+        private AuditRecord.Action action;
+        private String principal;
+        private String changes;
+        private LocalDateTime occurredAt;
+
+        public Entry() {
+        }
+
+        public Entry(AuditRecord record) {
+            this.id = record.getId();
+            this.entityType = record.getEntityType();
+            this.entityId = record.getEntityId();
+            this.action = record.getAction();
+            this.principal = record.getPrincipal();
+            this.changes = record.getChanges();
+            this.occurredAt = record.getOccurredAt();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getEntityType() {
+            return entityType;
+        }
+
+        public void setEntityType(String entityType) {
+            this.entityType = entityType;
+        }
+
+        public Long getEntityId() {
+            return entityId;
+        }
+
+        public void setEntityId(Long entityId) {
+            this.entityId = entityId;
+        }
+
+        public AuditRecord.Action getAction() {
+            return action;
+        }
+
+        public void setAction(AuditRecord.Action action) {
+            this.action = action;
+        }
+
+        public String getPrincipal() {
+            return principal;
+        }
+
+        public void setPrincipal(String principal) {
+            this.principal = principal;
+        }
+
+        public String getChanges() {
+            return changes;
+        }
+
+        public void setChanges(String changes) {
+            this.changes = changes;
+        }
+
+        public LocalDateTime getOccurredAt() {
+            return occurredAt;
+        }
+
+        public void setOccurredAt(LocalDateTime occurredAt) {
+            this.occurredAt = occurredAt;
+        }
+    }
+
+    public static class Stats {
+        private int buffered;
+        private int capacity;
+        private String overflowPolicy;
+        private long written;
+        private long spilled;
+        private long blocked;
+
+        public Stats() {
+        }
+
+        public Stats(int buffered, int capacity, String overflowPolicy, long written, long spilled, long blocked) {
+            this.buffered = buffered;
+            this.capacity = capacity;
+            this.overflowPolicy = overflowPolicy;
+            this.written = written;
+            this.spilled = spilled;
+            this.blocked = blocked;
+        }
+
+        public int getBuffered() {
+            return buffered;
+        }
+
+        public void setBuffered(int buffered) {
+            this.buffered = buffered;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public String getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(String overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        // Records appended to audit_log since startup
+        public long getWritten() {
+            return written;
+        }
+
+        public void setWritten(long written) {
+            this.written = written;
+        }
+
+        // Records that overflowed to the spill file
+        public long getSpilled() {
+            return spilled;
+        }
+
+        public void setSpilled(long spilled) {
+            this.spilled = spilled;
+        }
+
+        // Callers that had to wait for room under the BLOCK policy
+        public long getBlocked() {
+            return blocked;
+        }
+
+        public void setBlocked(long blocked) {
+            this.blocked = blocked;
+        }
+    }
+}
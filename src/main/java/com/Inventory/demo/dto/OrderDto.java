@@ -0,0 +1,225 @@
+package com.Inventory.demo.dto;
+
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.service.OrderFulfilmentService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class OrderDto {
+
+    public static class FulfilmentRequest {
+        // Caller's order number, echoed back and recorded nowhere else
+        @Size(max = 100, message = "Reference must be at most 100 characters")
+        private String reference;
+
+        // FAIL when absent
+        private OrderFulfilmentService.Policy policy;
+
+        @NotEmpty(message = "An order needs at least one line")
+        @Size(max = OrderFulfilmentService.MAX_LINES, message = "Too many order lines")
+        @Valid
+        private List<Line> lines;
+
+        public String getReference() {
+            return reference;
+        }
+
+        public void setReference(String reference) {
+            this.reference = reference;
+        }
+
+        public OrderFulfilmentService.Policy getPolicy() {
+            return policy;
+        }
+
+        public void setPolicy(OrderFulfilmentService.Policy policy) {
+            this.policy = policy;
+        }
+
+        public List<Line> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<Line> lines) {
+            this.lines = lines;
+        }
+    }
+
+    public static class Line {
+        @NotNull(message = "Product id is required")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        private Integer quantity;
+
+        public Line() {
+        }
+
+        public Line(Long productId, Integer quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    public static class LineResult {
+        private Long productId;
+        private int requested;
+        private int fulfilled;
+        private int backordered;
+        private int remaining;
+        private Product.ProductStatus status;
+
+        public LineResult() {
+        }
+
+        public LineResult(Long productId, int requested, int fulfilled, int remaining, Product.ProductStatus status) {
+            this.productId = productId;
+            this.requested = requested;
+            this.fulfilled = fulfilled;
+            this.backordered = requested - fulfilled;
+            this.remaining = remaining;
+            this.status = status;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        public void setRequested(int requested) {
+            this.requested = requested;
+        }
+
+        public int getFulfilled() {
+            return fulfilled;
+        }
+
+        public void setFulfilled(int fulfilled) {
+            this.fulfilled = fulfilled;
+        }
+
+        public int getBackordered() {
+            return backordered;
+        }
+
+        public void setBackordered(int backordered) {
+            this.backordered = backordered;
+        }
+
+        public int getRemaining() {
+            return remaining;
+        }
+
+        public void setRemaining(int remaining) {
+            this.remaining = remaining;
+        }
+
+        public Product.ProductStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(Product.ProductStatus status) {
+            this.status = status;
+        }
+    }
+
+    public static class FulfilmentResult {
+        private String reference;
+        private OrderFulfilmentService.Policy policy;
+        private OrderFulfilmentService.Outcome outcome;
+        private int totalRequested;
+        private int totalFulfilled;
+        private List<LineResult> lines;
+
+        public FulfilmentResult() {
+        }
+
+        public FulfilmentResult(String reference, OrderFulfilmentService.Policy policy,
+                OrderFulfilmentService.Outcome outcome, List<LineResult> lines) {
+            this.reference = reference;
+            this.policy = policy;
+            this.outcome = outcome;
+            this.lines = lines;
+            for (LineResult line : lines) {
+                totalRequested += line.getRequested();
+                totalFulfilled += line.getFulfilled();
+            }
+        }
+
+        public String getReference() {
+            return reference;
+        }
+
+        public void setReference(String reference) {
+            this.reference = reference;
+        }
+
+        public OrderFulfilmentService.Policy getPolicy() {
+            return policy;
+        }
+
+        public void setPolicy(OrderFulfilmentService.Policy policy) {
+            this.policy = policy;
+        }
+
+        public OrderFulfilmentService.Outcome getOutcome() {
+            return outcome;
+        }
+
+        public void setOutcome(OrderFulfilmentService.Outcome outcome) {
+            this.outcome = outcome;
+        }
+
+        public int getTotalRequested() {
+            return totalRequested;
+        }
+
+        public void setTotalRequested(int totalRequested) {
+            this.totalRequested = totalRequested;
+        }
+
+        public int getTotalFulfilled() {
+            return totalFulfilled;
+        }
+
+        public void setTotalFulfilled(int totalFulfilled) {
+            this.totalFulfilled = totalFulfilled;
+        }
+
+        public List<LineResult> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<LineResult> lines) {
+            this.lines = lines;
+        }
+    }
+}
@@ -30,9 +30,16 @@ public class ProductDto {
     private String sku;
     private String supplier;
     private String location;
+
+    @PositiveOrZero(message = "Reorder point must be zero or positive")
+    private Integer reorderPoint;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Read-only; send it back as If-Match to make an update conditional
+    private Long version;
+
     // Constructors
     public ProductDto() {
     }
@@ -48,8 +55,10 @@ public class ProductDto {
         this.sku = product.getSku();
         this.supplier = product.getSupplier();
         this.location = product.getLocation();
+        this.reorderPoint = product.getReorderPoint();
         this.createdAt = product.getCreatedAt();
         this.updatedAt = product.getUpdatedAt();
+        this.version = product.getVersion();
     }
 
     // Convert DTO to Entity
@@ -64,6 +73,9 @@ public class ProductDto {
         product.setSku(this.sku);
         product.setSupplier(this.supplier);
         product.setLocation(this.location);
+        if (this.reorderPoint != null) {
+            product.setReorderPoint(this.reorderPoint);
+        }
         return product;
     }
 
@@ -148,6 +160,14 @@ public class ProductDto {
         this.location = location;
     }
 
+    public Integer getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public void setReorderPoint(Integer reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -163,4 +183,12 @@ public class ProductDto {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,76 @@
+package com.Inventory.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReadModelDto {
+
+    // Outcome of comparing the in-memory catalog with the database
+    public static class Verification {
+        private boolean consistent;
+        private int checked;
+        private List<Long> missing = new ArrayList<>();
+        private List<Long> unexpected = new ArrayList<>();
+        private List<Long> mismatched = new ArrayList<>();
+        private boolean repaired;
+        private long elapsedMs;
+
+        public boolean isConsistent() {
+            return consistent;
+        }
+
+        public void setConsistent(boolean consistent) {
+            this.consistent = consistent;
+        }
+
+        public int getChecked() {
+            return checked;
+        }
+
+        public void setChecked(int checked) {
+            this.checked = checked;
+        }
+
+        // In the database but not in memory
+        public List<Long> getMissing() {
+            return missing;
+        }
+
+        public void setMissing(List<Long> missing) {
+            this.missing = missing;
+        }
+
+        // In memory but no longer in the database
+        public List<Long> getUnexpected() {
+            return unexpected;
+        }
+
+        public void setUnexpected(List<Long> unexpected) {
+            this.unexpected = unexpected;
+        }
+
+        public List<Long> getMismatched() {
+            return mismatched;
+        }
+
+        public void setMismatched(List<Long> mismatched) {
+            this.mismatched = mismatched;
+        }
+
+        public boolean isRepaired() {
+            return repaired;
+        }
+
+        public void setRepaired(boolean repaired) {
+            this.repaired = repaired;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        public void setElapsedMs(long elapsedMs) {
+            this.elapsedMs = elapsedMs;
+        }
+    }
+}
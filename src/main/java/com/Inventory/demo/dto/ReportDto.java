@@ -0,0 +1,768 @@
+package com.Inventory.demo.dto;
+
+import com.Inventory.demo.entity.InventoryRollup;
+import com.Inventory.demo.entity.Product;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReportDto {
+
+    public static class TopProduct {
+        private Long id;
+        private String name;
+        private String sku;
+        private String category;
+        private String location;
+        private double price;
+        private int quantity;
+        private double value;
+
+        public TopProduct() {
+        }
+
+        public TopProduct(Product product) {
+            this.id = product.getId();
+            this.name = product.getName();
+            this.sku = product.getSku();
+            this.category = product.getCategory();
+            this.location = product.getLocation();
+            this.price = product.getPrice();
+            this.quantity = product.getQuantity();
+            this.value = product.getPrice() * product.getQuantity();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public void setValue(double value) {
+            this.value = value;
+        }
+    }
+
+    public static class ReorderItem {
+        private Long id;
+        private String name;
+        private String sku;
+        private String supplier;
+        private int quantity;
+        private int reorderPoint;
+        private int shortfall;
+        private double urgency;
+
+        public ReorderItem() {
+        }
+
+        public ReorderItem(Product product) {
+            this.id = product.getId();
+            this.name = product.getName();
+            this.sku = product.getSku();
+            this.supplier = product.getSupplier();
+            this.quantity = product.getQuantity();
+            this.reorderPoint = product.getReorderPoint();
+            this.shortfall = Math.max(0, product.getReorderPoint() - product.getQuantity());
+            this.urgency = product.getReorderUrgency();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getSupplier() {
+            return supplier;
+        }
+
+        public void setSupplier(String supplier) {
+            this.supplier = supplier;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public int getReorderPoint() {
+            return reorderPoint;
+        }
+
+        public void setReorderPoint(int reorderPoint) {
+            this.reorderPoint = reorderPoint;
+        }
+
+        public int getShortfall() {
+            return shortfall;
+        }
+
+        public void setShortfall(int shortfall) {
+            this.shortfall = shortfall;
+        }
+
+        public double getUrgency() {
+            return urgency;
+        }
+
+        public void setUrgency(double urgency) {
+            this.urgency = urgency;
+        }
+    }
+
+    // Inventory totals for one group at the start of a rollup bucket
+    public static class TrendPoint {
+        private LocalDateTime bucketStart;
+        private InventoryRollup.Dimension dimension;
+        private String key;
+        private int productCount;
+        private long totalQuantity;
+        private double totalValue;
+        private int inStockCount;
+        private int lowStockCount;
+        private int outOfStockCount;
+
+        public TrendPoint() {
+        }
+
+        public TrendPoint(InventoryRollup rollup) {
+            this.bucketStart = rollup.getBucketStart();
+            this.dimension = rollup.getDimension();
+            this.key = rollup.getDimensionKey();
+            this.productCount = rollup.getProductCount();
+            this.totalQuantity = rollup.getTotalQuantity();
+            this.totalValue = rollup.getTotalValue();
+            this.inStockCount = rollup.getInStockCount();
+            this.lowStockCount = rollup.getLowStockCount();
+            this.outOfStockCount = rollup.getOutOfStockCount();
+        }
+
+        public LocalDateTime getBucketStart() {
+            return bucketStart;
+        }
+
+        public void setBucketStart(LocalDateTime bucketStart) {
+            this.bucketStart = bucketStart;
+        }
+
+        public InventoryRollup.Dimension getDimension() {
+            return dimension;
+        }
+
+        public void setDimension(InventoryRollup.Dimension dimension) {
+            this.dimension = dimension;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public int getProductCount() {
+            return productCount;
+        }
+
+        public void setProductCount(int productCount) {
+            this.productCount = productCount;
+        }
+
+        public long getTotalQuantity() {
+            return totalQuantity;
+        }
+
+        public void setTotalQuantity(long totalQuantity) {
+            this.totalQuantity = totalQuantity;
+        }
+
+        public double getTotalValue() {
+            return totalValue;
+        }
+
+        public void setTotalValue(double totalValue) {
+            this.totalValue = totalValue;
+        }
+
+        public int getInStockCount() {
+            return inStockCount;
+        }
+
+        public void setInStockCount(int inStockCount) {
+            this.inStockCount = inStockCount;
+        }
+
+        public int getLowStockCount() {
+            return lowStockCount;
+        }
+
+        public void setLowStockCount(int lowStockCount) {
+            this.lowStockCount = lowStockCount;
+        }
+
+        public int getOutOfStockCount() {
+            return outOfStockCount;
+        }
+
+        public void setOutOfStockCount(int outOfStockCount) {
+            this.outOfStockCount = outOfStockCount;
+        }
+    }
+
+    // Estimated quantiles keyed p50, p90 and so on, plus approximate distinct counts, for one group
+    public static class Distribution {
+        private InventoryRollup.Dimension dimension;
+        private String key;
+        private long count;
+        private Map<String, Double> price = new LinkedHashMap<>();
+        private Map<String, Double> quantity = new LinkedHashMap<>();
+        private long distinctSuppliers;
+        private long distinctLocations;
+        private long distinctCategories;
+        // Share of the sketched values that belong to products since changed or deleted
+        private double staleFraction;
+
+        public Distribution() {
+        }
+
+        public Distribution(InventoryRollup.Dimension dimension, String key, long count) {
+            this.dimension = dimension;
+            this.key = key;
+            this.count = count;
+        }
+
+        // 0.5 -> p50, 0.999 -> p99.9
+        public static String label(double quantile) {
+            return "p" + BigDecimal.valueOf(quantile).movePointRight(2).stripTrailingZeros().toPlainString();
+        }
+
+        public InventoryRollup.Dimension getDimension() {
+            return dimension;
+        }
+
+        public void setDimension(InventoryRollup.Dimension dimension) {
+            this.dimension = dimension;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public Map<String, Double> getPrice() {
+            return price;
+        }
+
+        public void setPrice(Map<String, Double> price) {
+            this.price = price;
+        }
+
+        public Map<String, Double> getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Map<String, Double> quantity) {
+            this.quantity = quantity;
+        }
+
+        public long getDistinctSuppliers() {
+            return distinctSuppliers;
+        }
+
+        public void setDistinctSuppliers(long distinctSuppliers) {
+            this.distinctSuppliers = distinctSuppliers;
+        }
+
+        public long getDistinctLocations() {
+            return distinctLocations;
+        }
+
+        public void setDistinctLocations(long distinctLocations) {
+            this.distinctLocations = distinctLocations;
+        }
+
+        public long getDistinctCategories() {
+            return distinctCategories;
+        }
+
+        public void setDistinctCategories(long distinctCategories) {
+            this.distinctCategories = distinctCategories;
+        }
+
+        public double getStaleFraction() {
+            return staleFraction;
+        }
+
+        public void setStaleFraction(double staleFraction) {
+            this.staleFraction = staleFraction;
+        }
+    }
+
+    // Ad-hoc group-by over the catalog, e.g. ?groupBy=location,category&supplier=Logitech. Filters
+    // take one or more values; (none) matches products without one.
+    public static class GroupQuery {
+        private List<String> groupBy = new ArrayList<>();
+        private List<String> category;
+        private List<String> supplier;
+        private List<String> location;
+        private List<String> status;
+        private Double minPrice;
+        private Double maxPrice;
+        private Integer minQuantity;
+        private Integer maxQuantity;
+        // value, quantity, count, averagePrice or key
+        private String sort = "value";
+        private String direction = "desc";
+        private int limit = 100;
+
+        public List<String> getGroupBy() {
+            return groupBy;
+        }
+
+        public void setGroupBy(List<String> groupBy) {
+            this.groupBy = groupBy;
+        }
+
+        public List<String> getCategory() {
+            return category;
+        }
+
+        public void setCategory(List<String> category) {
+            this.category = category;
+        }
+
+        public List<String> getSupplier() {
+            return supplier;
+        }
+
+        public void setSupplier(List<String> supplier) {
+            this.supplier = supplier;
+        }
+
+        public List<String> getLocation() {
+            return location;
+        }
+
+        public void setLocation(List<String> location) {
+            this.location = location;
+        }
+
+        public List<String> getStatus() {
+            return status;
+        }
+
+        public void setStatus(List<String> status) {
+            this.status = status;
+        }
+
+        public Double getMinPrice() {
+            return minPrice;
+        }
+
+        public void setMinPrice(Double minPrice) {
+            this.minPrice = minPrice;
+        }
+
+        public Double getMaxPrice() {
+            return maxPrice;
+        }
+
+        public void setMaxPrice(Double maxPrice) {
+            this.maxPrice = maxPrice;
+        }
+
+        public Integer getMinQuantity() {
+            return minQuantity;
+        }
+
+        public void setMinQuantity(Integer minQuantity) {
+            this.minQuantity = minQuantity;
+        }
+
+        public Integer getMaxQuantity() {
+            return maxQuantity;
+        }
+
+        public void setMaxQuantity(Integer maxQuantity) {
+            this.maxQuantity = maxQuantity;
+        }
+
+        public String getSort() {
+            return sort;
+        }
+
+        public void setSort(String sort) {
+            this.sort = sort;
+        }
+
+        public String getDirection() {
+            return direction;
+        }
+
+        public void setDirection(String direction) {
+            this.direction = direction;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    // Groups of a GroupQuery plus how fresh the data behind them is
+    public static class GroupResult {
+        private List<String> groupBy;
+        private int totalGroups;
+        private List<GroupRow> groups = new ArrayList<>();
+        private long rowsScanned;
+        private LocalDateTime snapshotAt;
+        private long elapsedMicros;
+
+        public List<String> getGroupBy() {
+            return groupBy;
+        }
+
+        public void setGroupBy(List<String> groupBy) {
+            this.groupBy = groupBy;
+        }
+
+        public int getTotalGroups() {
+            return totalGroups;
+        }
+
+        public void setTotalGroups(int totalGroups) {
+            this.totalGroups = totalGroups;
+        }
+
+        public List<GroupRow> getGroups() {
+            return groups;
+        }
+
+        public void setGroups(List<GroupRow> groups) {
+            this.groups = groups;
+        }
+
+        public long getRowsScanned() {
+            return rowsScanned;
+        }
+
+        public void setRowsScanned(long rowsScanned) {
+            this.rowsScanned = rowsScanned;
+        }
+
+        public LocalDateTime getSnapshotAt() {
+            return snapshotAt;
+        }
+
+        public void setSnapshotAt(LocalDateTime snapshotAt) {
+            this.snapshotAt = snapshotAt;
+        }
+
+        public long getElapsedMicros() {
+            return elapsedMicros;
+        }
+
+        public void setElapsedMicros(long elapsedMicros) {
+            this.elapsedMicros = elapsedMicros;
+        }
+    }
+
+    // One group's key (grouping column to value) and totals
+    public static class GroupRow {
+        private Map<String, String> key = new LinkedHashMap<>();
+        private long count;
+        private long totalQuantity;
+        private double totalValue;
+        private double averagePrice;
+        private double minPrice;
+        private double maxPrice;
+
+        public Map<String, String> getKey() {
+            return key;
+        }
+
+        public void setKey(Map<String, String> key) {
+            this.key = key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public long getTotalQuantity() {
+            return totalQuantity;
+        }
+
+        public void setTotalQuantity(long totalQuantity) {
+            this.totalQuantity = totalQuantity;
+        }
+
+        public double getTotalValue() {
+            return totalValue;
+        }
+
+        public void setTotalValue(double totalValue) {
+            this.totalValue = totalValue;
+        }
+
+        public double getAveragePrice() {
+            return averagePrice;
+        }
+
+        public void setAveragePrice(double averagePrice) {
+            this.averagePrice = averagePrice;
+        }
+
+        public double getMinPrice() {
+            return minPrice;
+        }
+
+        public void setMinPrice(double minPrice) {
+            this.minPrice = minPrice;
+        }
+
+        public double getMaxPrice() {
+            return maxPrice;
+        }
+
+        public void setMaxPrice(double maxPrice) {
+            this.maxPrice = maxPrice;
+        }
+    }
+
+    // How long the last startup took, from JVM launch and from SpringApplication.run, and where the time went
+    public static class StartupReport {
+        private LocalDateTime readyAt;
+        private long jvmUptimeMs;
+        private long applicationStartMs;
+        private boolean lazyInitialization;
+        private boolean aotGenerated;
+        private int stepsRecorded;
+        private List<StartupPhase> phases = new ArrayList<>();
+        private List<StartupBean> slowestBeans = new ArrayList<>();
+
+        public LocalDateTime getReadyAt() {
+            return readyAt;
+        }
+
+        public void setReadyAt(LocalDateTime readyAt) {
+            this.readyAt = readyAt;
+        }
+
+        public long getJvmUptimeMs() {
+            return jvmUptimeMs;
+        }
+
+        public void setJvmUptimeMs(long jvmUptimeMs) {
+            this.jvmUptimeMs = jvmUptimeMs;
+        }
+
+        public long getApplicationStartMs() {
+            return applicationStartMs;
+        }
+
+        public void setApplicationStartMs(long applicationStartMs) {
+            this.applicationStartMs = applicationStartMs;
+        }
+
+        public boolean isLazyInitialization() {
+            return lazyInitialization;
+        }
+
+        public void setLazyInitialization(boolean lazyInitialization) {
+            this.lazyInitialization = lazyInitialization;
+        }
+
+        public boolean isAotGenerated() {
+            return aotGenerated;
+        }
+
+        public void setAotGenerated(boolean aotGenerated) {
+            this.aotGenerated = aotGenerated;
+        }
+
+        public int getStepsRecorded() {
+            return stepsRecorded;
+        }
+
+        public void setStepsRecorded(int stepsRecorded) {
+            this.stepsRecorded = stepsRecorded;
+        }
+
+        public List<StartupPhase> getPhases() {
+            return phases;
+        }
+
+        public void setPhases(List<StartupPhase> phases) {
+            this.phases = phases;
+        }
+
+        public List<StartupBean> getSlowestBeans() {
+            return slowestBeans;
+        }
+
+        public void setSlowestBeans(List<StartupBean> slowestBeans) {
+            this.slowestBeans = slowestBeans;
+        }
+    }
+
+    // All recorded startup steps of one kind; nested steps are counted in their parents as well
+    public static class StartupPhase {
+        private String name;
+        private int count;
+        private long totalMicros;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public long getTotalMicros() {
+            return totalMicros;
+        }
+
+        public void setTotalMicros(long totalMicros) {
+            this.totalMicros = totalMicros;
+        }
+    }
+
+    // One bean's creation, with and without the beans it created on the way
+    public static class StartupBean {
+        private String name;
+        private long totalMicros;
+        private long selfMicros;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getTotalMicros() {
+            return totalMicros;
+        }
+
+        public void setTotalMicros(long totalMicros) {
+            this.totalMicros = totalMicros;
+        }
+
+        public long getSelfMicros() {
+            return selfMicros;
+        }
+
+        public void setSelfMicros(long selfMicros) {
+            this.selfMicros = selfMicros;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.Inventory.demo.dto;
+
+import com.Inventory.demo.service.StockReservationService;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Instant;
+
+public class ReservationDto {
+
+    public static class ReserveRequest {
+        @NotNull(message = "Product id is required")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        private Integer quantity;
+
+        // Optional; the server default applies when absent
+        @Positive(message = "TTL must be positive")
+        private Long ttlSeconds;
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public Long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(Long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+    }
+
+    public static class Reservation {
+        private String id;
+        private Long productId;
+        private int quantity;
+        private StockReservationService.State state;
+        private Instant createdAt;
+        private Instant expiresAt;
+
+        public Reservation() {
+        }
+
+        public Reservation(StockReservationService.Reservation reservation) {
+            this.id = reservation.getId();
+            this.productId = reservation.getProductId();
+            this.quantity = reservation.getQuantity();
+            this.state = reservation.getState();
+            this.createdAt = reservation.getCreatedAt();
+            this.expiresAt = reservation.getExpiresAt();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public StockReservationService.State getState() {
+            return state;
+        }
+
+        public void setState(StockReservationService.State state) {
+            this.state = state;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(Instant createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+
+        public void setExpiresAt(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static class StockLevel {
+        private Long productId;
+        private int onHand;
+        private int reserved;
+        private int pendingCommit;
+        private int available;
+
+        public StockLevel() {
+        }
+
+        public StockLevel(Long productId, StockReservationService.Counts counts) {
+            this.productId = productId;
+            this.onHand = counts.getOnHand();
+            this.reserved = counts.getReserved();
+            this.pendingCommit = counts.getPendingCommit();
+            this.available = counts.getAvailable();
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public int getOnHand() {
+            return onHand;
+        }
+
+        public void setOnHand(int onHand) {
+            this.onHand = onHand;
+        }
+
+        public int getReserved() {
+            return reserved;
+        }
+
+        public void setReserved(int reserved) {
+            this.reserved = reserved;
+        }
+
+        public int getPendingCommit() {
+            return pendingCommit;
+        }
+
+        public void setPendingCommit(int pendingCommit) {
+            this.pendingCommit = pendingCommit;
+        }
+
+        public int getAvailable() {
+            return available;
+        }
+
+        public void setAvailable(int available) {
+            this.available = available;
+        }
+    }
+}
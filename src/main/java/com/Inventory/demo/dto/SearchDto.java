@@ -0,0 +1,428 @@
+package com.Inventory.demo.dto;
+
+import com.Inventory.demo.entity.Product;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SearchDto {
+
+    public static class Suggestion {
+        private Long id;
+        private String name;
+        private String sku;
+        private String category;
+        private int quantity;
+
+        public Suggestion() {
+        }
+
+        public Suggestion(Product product) {
+            this.id = product.getId();
+            this.name = product.getName();
+            this.sku = product.getSku();
+            this.category = product.getCategory();
+            this.quantity = product.getQuantity();
+        }
+
+        public Suggestion(ProductDto product) {
+            this.id = product.getId();
+            this.name = product.getName();
+            this.sku = product.getSku();
+            this.category = product.getCategory();
+            this.quantity = product.getQuantity();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    public static class FuzzyHit {
+        private ProductDto product;
+        private double score;
+
+        public FuzzyHit() {
+        }
+
+        public FuzzyHit(Product product, double score) {
+            this.product = new ProductDto(product);
+            this.score = score;
+        }
+
+        public ProductDto getProduct() {
+            return product;
+        }
+
+        public void setProduct(ProductDto product) {
+            this.product = product;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public void setScore(double score) {
+            this.score = score;
+        }
+    }
+
+    public static class PriceBucket {
+        private String label;
+        private Double min;
+        private Double max;
+        private long count;
+
+        public PriceBucket() {
+        }
+
+        public PriceBucket(String label, Double min, Double max, long count) {
+            this.label = label;
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public Double getMin() {
+            return min;
+        }
+
+        public void setMin(Double min) {
+            this.min = min;
+        }
+
+        public Double getMax() {
+            return max;
+        }
+
+        public void setMax(Double max) {
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    public static class Facets {
+        private Map<String, Long> category = new LinkedHashMap<>();
+        private Map<String, Long> supplier = new LinkedHashMap<>();
+        private Map<String, Long> location = new LinkedHashMap<>();
+        private Map<String, Long> status = new LinkedHashMap<>();
+        private List<PriceBucket> price = new ArrayList<>();
+
+        public Map<String, Long> getCategory() {
+            return category;
+        }
+
+        public void setCategory(Map<String, Long> category) {
+            this.category = category;
+        }
+
+        public Map<String, Long> getSupplier() {
+            return supplier;
+        }
+
+        public void setSupplier(Map<String, Long> supplier) {
+            this.supplier = supplier;
+        }
+
+        public Map<String, Long> getLocation() {
+            return location;
+        }
+
+        public void setLocation(Map<String, Long> location) {
+            this.location = location;
+        }
+
+        public Map<String, Long> getStatus() {
+            return status;
+        }
+
+        public void setStatus(Map<String, Long> status) {
+            this.status = status;
+        }
+
+        public List<PriceBucket> getPrice() {
+            return price;
+        }
+
+        public void setPrice(List<PriceBucket> price) {
+            this.price = price;
+        }
+    }
+
+    public static class FacetedResult {
+        private List<ProductDto> products;
+        private long total;
+        private Facets facets;
+
+        public FacetedResult() {
+        }
+
+        public FacetedResult(List<ProductDto> products, Facets facets) {
+            this.products = products;
+            this.total = products.size();
+            this.facets = facets;
+        }
+
+        public List<ProductDto> getProducts() {
+            return products;
+        }
+
+        public void setProducts(List<ProductDto> products) {
+            this.products = products;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public Facets getFacets() {
+            return facets;
+        }
+
+        public void setFacets(Facets facets) {
+            this.facets = facets;
+        }
+    }
+
+    // Filter, sort and paging parameters for GET /api/products/query
+    public static class ProductQuery {
+        private String category;
+        private String supplier;
+        private String location;
+        private Product.ProductStatus status;
+        private Double minPrice;
+        private Double maxPrice;
+        private Integer minQuantity;
+        private Integer maxQuantity;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime updatedSince;
+
+        private String sort = "id";
+        private String direction = "asc";
+        private int page = 0;
+        private int size = 50;
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public String getSupplier() {
+            return supplier;
+        }
+
+        public void setSupplier(String supplier) {
+            this.supplier = supplier;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+
+        public Product.ProductStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(Product.ProductStatus status) {
+            this.status = status;
+        }
+
+        public Double getMinPrice() {
+            return minPrice;
+        }
+
+        public void setMinPrice(Double minPrice) {
+            this.minPrice = minPrice;
+        }
+
+        public Double getMaxPrice() {
+            return maxPrice;
+        }
+
+        public void setMaxPrice(Double maxPrice) {
+            this.maxPrice = maxPrice;
+        }
+
+        public Integer getMinQuantity() {
+            return minQuantity;
+        }
+
+        public void setMinQuantity(Integer minQuantity) {
+            this.minQuantity = minQuantity;
+        }
+
+        public Integer getMaxQuantity() {
+            return maxQuantity;
+        }
+
+        public void setMaxQuantity(Integer maxQuantity) {
+            this.maxQuantity = maxQuantity;
+        }
+
+        public LocalDateTime getUpdatedSince() {
+            return updatedSince;
+        }
+
+        public void setUpdatedSince(LocalDateTime updatedSince) {
+            this.updatedSince = updatedSince;
+        }
+
+        public String getSort() {
+            return sort;
+        }
+
+        public void setSort(String sort) {
+            this.sort = sort;
+        }
+
+        public String getDirection() {
+            return direction;
+        }
+
+        public void setDirection(String direction) {
+            this.direction = direction;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    public static class PageResult<T> {
+        private List<T> content;
+        private int page;
+        private int size;
+        private long totalElements;
+        private int totalPages;
+
+        public PageResult() {
+        }
+
+        public PageResult(List<T> content, int page, int size, long totalElements) {
+            this.content = content;
+            this.page = page;
+            this.size = size;
+            this.totalElements = totalElements;
+            this.totalPages = size == 0 ? 0 : (int) ((totalElements + size - 1) / size);
+        }
+
+        public List<T> getContent() {
+            return content;
+        }
+
+        public void setContent(List<T> content) {
+            this.content = content;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public long getTotalElements() {
+            return totalElements;
+        }
+
+        public void setTotalElements(long totalElements) {
+            this.totalElements = totalElements;
+        }
+
+        public int getTotalPages() {
+            return totalPages;
+        }
+
+        public void setTotalPages(int totalPages) {
+            this.totalPages = totalPages;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.Inventory.demo.dto;
+
+import com.Inventory.demo.entity.StockMovement;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+public class StockDto {
+
+    public static class MovementRequest {
+        @NotNull(message = "Delta is required")
+        private Integer delta;
+
+        @NotNull(message = "Reason is required")
+        private StockMovement.Reason reason;
+
+        public MovementRequest() {
+        }
+
+        public MovementRequest(Integer delta, StockMovement.Reason reason) {
+            this.delta = delta;
+            this.reason = reason;
+        }
+
+        public Integer getDelta() {
+            return delta;
+        }
+
+        public void setDelta(Integer delta) {
+            this.delta = delta;
+        }
+
+        public StockMovement.Reason getReason() {
+            return reason;
+        }
+
+        public void setReason(StockMovement.Reason reason) {
+            this.reason = reason;
+        }
+    }
+
+    public static class Movement {
+        private Long id;
+        private Long productId;
+        private int delta;
+        private StockMovement.Reason reason;
+        private String username;
+        private LocalDateTime occurredAt;
+
+        public Movement() {
+        }
+
+        public Movement(StockMovement movement) {
+            this.id = movement.getId();
+            this.productId = movement.getProductId();
+            this.delta = movement.getDelta();
+            this.reason = movement.getReason();
+            this.username = movement.getUsername();
+            this.occurredAt = movement.getOccurredAt();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public int getDelta() {
+            return delta;
+        }
+
+        public void setDelta(int delta) {
+            this.delta = delta;
+        }
+
+        public StockMovement.Reason getReason() {
+            return reason;
+        }
+
+        public void setReason(StockMovement.Reason reason) {
+            this.reason = reason;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public LocalDateTime getOccurredAt() {
+            return occurredAt;
+        }
+
+        public void setOccurredAt(LocalDateTime occurredAt) {
+            this.occurredAt = occurredAt;
+        }
+    }
+
+    public static class StockAsOf {
+        private Long productId;
+        private LocalDateTime at;
+        private int quantity;
+        private LocalDateTime snapshotTakenAt;
+        private long replayedMovements;
+
+        public StockAsOf() {
+        }
+
+        public StockAsOf(Long productId, LocalDateTime at, int quantity, LocalDateTime snapshotTakenAt,
+                long replayedMovements) {
+            this.productId = productId;
+            this.at = at;
+            this.quantity = quantity;
+            this.snapshotTakenAt = snapshotTakenAt;
+            this.replayedMovements = replayedMovements;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public LocalDateTime getAt() {
+            return at;
+        }
+
+        public void setAt(LocalDateTime at) {
+            this.at = at;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public LocalDateTime getSnapshotTakenAt() {
+            return snapshotTakenAt;
+        }
+
+        public void setSnapshotTakenAt(LocalDateTime snapshotTakenAt) {
+            this.snapshotTakenAt = snapshotTakenAt;
+        }
+
+        public long getReplayedMovements() {
+            return replayedMovements;
+        }
+
+        public void setReplayedMovements(long replayedMovements) {
+            this.replayedMovements = replayedMovements;
+        }
+    }
+}
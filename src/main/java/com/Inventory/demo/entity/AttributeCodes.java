@@ -0,0 +1,21 @@
+package com.Inventory.demo.entity;
+
+// What the product converters and listener need from the attribute lookup table. Implemented by
+// AttributeDictionary in the service package, which the entities only reach through this.
+public interface AttributeCodes {
+
+    // Matches no stored value; used for query parameters nobody has ever saved
+    int UNKNOWN = -1;
+
+    // The id for a value about to be written, adding it to the lookup table if it is new
+    int register(AttributeValue.Kind kind, String value);
+
+    // The id for a value read from a query or a write; UNKNOWN when it has never been stored
+    int lookup(AttributeValue.Kind kind, String value);
+
+    // The shared instance of the text behind an id
+    String decode(int code);
+
+    // The shared instance of a known value, or null when it has not been stored yet
+    String registered(AttributeValue.Kind kind, String value);
+}
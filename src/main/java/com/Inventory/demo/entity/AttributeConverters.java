@@ -0,0 +1,78 @@
+package com.Inventory.demo.entity;
+
+import jakarta.persistence.AttributeConverter;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Store product attributes as ids into product_attribute_values and read them back as the shared
+// dictionary instance. Hibernate also runs query parameters through these, so a filter on a value
+// that was never saved compares against an id no row has. Created by Spring when Hibernate asks,
+// through the constructor, which works with AOT-generated startup code too; the codes are
+// resolved on first use because their implementation needs the transaction manager, which needs
+// Hibernate.
+public final class AttributeConverters {
+
+    private AttributeConverters() {
+    }
+
+    private abstract static class DictionaryConverter implements AttributeConverter<String, Integer> {
+
+        private final ObjectProvider<AttributeCodes> dictionary;
+
+        private final AttributeValue.Kind kind;
+
+        DictionaryConverter(AttributeValue.Kind kind, ObjectProvider<AttributeCodes> dictionary) {
+            this.kind = kind;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public Integer convertToDatabaseColumn(String value) {
+            return value == null ? null : dictionary.getObject().lookup(kind, value);
+        }
+
+        @Override
+        public String convertToEntityAttribute(Integer code) {
+            return code == null ? null : dictionary.getObject().decode(code);
+        }
+    }
+
+    public static class CategoryConverter extends DictionaryConverter {
+        public CategoryConverter(ObjectProvider<AttributeCodes> dictionary) {
+            super(AttributeValue.Kind.CATEGORY, dictionary);
+        }
+    }
+
+    public static class SupplierConverter extends DictionaryConverter {
+        public SupplierConverter(ObjectProvider<AttributeCodes> dictionary) {
+            super(AttributeValue.Kind.SUPPLIER, dictionary);
+        }
+    }
+
+    public static class LocationConverter extends DictionaryConverter {
+        public LocationConverter(ObjectProvider<AttributeCodes> dictionary) {
+            super(AttributeValue.Kind.LOCATION, dictionary);
+        }
+    }
+
+    // Statuses are a closed set, registered before the first save (AttributeDictionary, or
+    // AttributeValueListener for a direct repository save), so this only looks them up: a query
+    // parameter must never write. One that was never saved matches no row.
+    public static class StatusConverter implements AttributeConverter<Product.ProductStatus, Integer> {
+
+        private final ObjectProvider<AttributeCodes> dictionary;
+
+        public StatusConverter(ObjectProvider<AttributeCodes> dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public Integer convertToDatabaseColumn(Product.ProductStatus status) {
+            return status == null ? null : dictionary.getObject().lookup(AttributeValue.Kind.STATUS, status.name());
+        }
+
+        @Override
+        public Product.ProductStatus convertToEntityAttribute(Integer code) {
+            return code == null ? null : Product.ProductStatus.valueOf(dictionary.getObject().decode(code));
+        }
+    }
+}
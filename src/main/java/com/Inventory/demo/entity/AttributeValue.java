@@ -0,0 +1,55 @@
+package com.Inventory.demo.entity;
+
+import jakarta.persistence.*;
+
+// Lookup table for the low-cardinality product attributes. Products store the id of their
+// category, supplier, location and status here instead of repeating the text in every row.
+// Values are only ever added, so an id always decodes to the same text.
+@Entity
+@Table(name = "product_attribute_values", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_product_attribute_values_kind_name", columnNames = { "kind", "name" })
+})
+public class AttributeValue {
+
+    public enum Kind {
+        CATEGORY, SUPPLIER, LOCATION, STATUS
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private String name;
+
+    public AttributeValue() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
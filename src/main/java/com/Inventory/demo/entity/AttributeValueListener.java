@@ -0,0 +1,45 @@
+package com.Inventory.demo.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Swaps in the shared instance of a product's category, supplier and location just before the row
+// is written, and makes sure every status is stored, since the status converter only looks them
+// up. Writers register new values beforehand, outside the flush (ProductService does it before its
+// transaction starts); a value that still turns up unknown here, from a direct repository save, is
+// registered on the spot, in a transaction and connection of its own. Created by Spring through
+// the constructor, like the converters.
+public class AttributeValueListener {
+
+    private final ObjectProvider<AttributeCodes> codes;
+
+    public AttributeValueListener(ObjectProvider<AttributeCodes> codes) {
+        this.codes = codes;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void register(Product product) {
+        product.setCategory(canonical(AttributeValue.Kind.CATEGORY, product.getCategory()));
+        product.setSupplier(canonical(AttributeValue.Kind.SUPPLIER, product.getSupplier()));
+        product.setLocation(canonical(AttributeValue.Kind.LOCATION, product.getLocation()));
+        // Every one, since the product's own update callback may still change it after this
+        for (Product.ProductStatus status : Product.ProductStatus.values()) {
+            canonical(AttributeValue.Kind.STATUS, status.name());
+        }
+    }
+
+    private String canonical(AttributeValue.Kind kind, String value) {
+        if (value == null) {
+            return null;
+        }
+        AttributeCodes values = codes.getObject();
+        String shared = values.registered(kind, value);
+        if (shared == null) {
+            values.register(kind, value);
+            shared = values.registered(kind, value);
+        }
+        return shared;
+    }
+}
@@ -0,0 +1,74 @@
+package com.Inventory.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One committed change to a product or user. Rows are appended in batches by AuditService over
+// plain JDBC and never updated; JPA is only used to create the table and to read it back.
+@Entity
+@Table(name = "audit_log", indexes = {
+        @Index(name = "idx_audit_log_entity", columnList = "entity_type, entity_id")
+})
+public class AuditRecord {
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Action action;
+
+    @Column(length = 50)
+    private String principal;
+
+    // JSON object of field name to [before, after]
+    @Column(length = 8000)
+    private String changes;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Constructors
+    public AuditRecord() {
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public String getChanges() {
+        return changes;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
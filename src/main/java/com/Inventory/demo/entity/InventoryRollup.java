@@ -0,0 +1,108 @@
+package com.Inventory.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Inventory totals for one category, location or supplier (or the whole catalog) as they stood at
+// the start of a rollup bucket. Trend reports read only these rows, one per group per bucket.
+@Entity
+@Table(name = "inventory_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventory_rollups_bucket", columnNames = { "bucket_start", "dimension",
+                "dimension_key" })
+}, indexes = {
+        @Index(name = "idx_inventory_rollups_group", columnList = "dimension, dimension_key, bucket_start")
+})
+public class InventoryRollup {
+
+    public enum Dimension {
+        TOTAL, CATEGORY, LOCATION, SUPPLIER
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Dimension dimension;
+
+    @Column(name = "dimension_key", nullable = false)
+    private String dimensionKey;
+
+    private int productCount;
+
+    private long totalQuantity;
+
+    private double totalValue;
+
+    private int inStockCount;
+
+    private int lowStockCount;
+
+    private int outOfStockCount;
+
+    // Constructors
+    public InventoryRollup() {
+    }
+
+    public InventoryRollup(LocalDateTime bucketStart, Dimension dimension, String dimensionKey) {
+        this.bucketStart = bucketStart;
+        this.dimension = dimension;
+        this.dimensionKey = dimensionKey;
+    }
+
+    public void add(int quantity, double price, Product.ProductStatus status) {
+        productCount++;
+        totalQuantity += quantity;
+        totalValue += price * quantity;
+        switch (status) {
+            case IN_STOCK -> inStockCount++;
+            case LOW_STOCK -> lowStockCount++;
+            case OUT_OF_STOCK -> outOfStockCount++;
+        }
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public String getDimensionKey() {
+        return dimensionKey;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    public int getInStockCount() {
+        return inStockCount;
+    }
+
+    public int getLowStockCount() {
+        return lowStockCount;
+    }
+
+    public int getOutOfStockCount() {
+        return outOfStockCount;
+    }
+}
@@ -0,0 +1,148 @@
+package com.Inventory.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A stock alert written in the same transaction as the status change that caused it, and
+// delivered afterwards by StockAlertService. Each sink acknowledges independently, so a failing
+// sink is retried on its own without holding back the others.
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_due", columnList = "delivered_at, next_attempt_at")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private String productName;
+
+    private String sku;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Product.ProductStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Product.ProductStatus status;
+
+    private int quantity;
+
+    private int reorderPoint;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Comma-separated names of the sinks that have accepted this event
+    @Column(name = "acked_sinks", length = 255)
+    private String ackedSinks = "";
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // Constructors
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(Product product, Product.ProductStatus previousStatus) {
+        this.productId = product.getId();
+        this.productName = product.getName();
+        this.sku = product.getSku();
+        this.previousStatus = previousStatus;
+        this.status = product.getStatus();
+        this.quantity = product.getQuantity();
+        this.reorderPoint = product.getReorderPoint();
+        this.occurredAt = LocalDateTime.now();
+        this.nextAttemptAt = this.occurredAt;
+    }
+
+    public boolean isAckedBy(String sink) {
+        return ("," + ackedSinks + ",").contains("," + sink + ",");
+    }
+
+    public void ack(String sink) {
+        if (!isAckedBy(sink)) {
+            ackedSinks = ackedSinks.isEmpty() ? sink : ackedSinks + "," + sink;
+        }
+    }
+
+    public void markDelivered(LocalDateTime at) {
+        this.deliveredAt = at;
+        this.lastError = null;
+    }
+
+    public void retryAt(LocalDateTime at, String error) {
+        this.attempts++;
+        this.nextAttemptAt = at;
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public Product.ProductStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Product.ProductStatus getStatus() {
+        return status;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getAckedSinks() {
+        return ackedSinks;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -8,8 +8,27 @@ import jakarta.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category", columnList = "category_id"),
+        @Index(name = "idx_products_supplier", columnList = "supplier_id"),
+        @Index(name = "idx_products_location", columnList = "location_id"),
+        @Index(name = "idx_products_status", columnList = "status_id"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_quantity", columnList = "quantity"),
+        @Index(name = "idx_products_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_products_inventory_value", columnList = "inventory_value"),
+        @Index(name = "idx_products_reorder_shortfall", columnList = "reorder_shortfall"),
+        // Filtered top-N reports (ReportService) read these in order instead of sorting the matches
+        @Index(name = "idx_products_category_value", columnList = "category_id, inventory_value"),
+        @Index(name = "idx_products_category_quantity", columnList = "category_id, quantity"),
+        @Index(name = "idx_products_location_value", columnList = "location_id, inventory_value"),
+        @Index(name = "idx_products_location_quantity", columnList = "location_id, quantity")
+})
+@EntityListeners(AttributeValueListener.class)
 public class Product {
+
+    public static final int DEFAULT_REORDER_POINT = 10;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -19,7 +38,10 @@ public class Product {
 
     private String description;
 
+    // Category, supplier, location and status are stored as ids into product_attribute_values
     @NotBlank(message = "Category is required")
+    @Convert(converter = AttributeConverters.CategoryConverter.class)
+    @Column(name = "category_id")
     private String category;
 
     @NotNull(message = "Price is required")
@@ -30,15 +52,69 @@ public class Product {
     @PositiveOrZero(message = "Quantity must be zero or positive")
     private int quantity;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = AttributeConverters.StatusConverter.class)
+    @Column(name = "status_id")
     private ProductStatus status;
 
     private String sku;
+
+    @Convert(converter = AttributeConverters.SupplierConverter.class)
+    @Column(name = "supplier_id")
     private String supplier;
+
+    @Convert(converter = AttributeConverters.LocationConverter.class)
+    @Column(name = "location_id")
     private String location;
+
+    // Read-only views of the same columns: they declare the foreign keys and let queries sort by
+    // the text rather than the id. Never loaded unless a query joins them.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", insertable = false, updatable = false)
+    private AttributeValue categoryValue;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "supplier_id", insertable = false, updatable = false)
+    private AttributeValue supplierValue;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id", insertable = false, updatable = false)
+    private AttributeValue locationValue;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "status_id", insertable = false, updatable = false)
+    private AttributeValue statusValue;
+
+    // Stock level at or below which the product counts as low stock
+    @PositiveOrZero(message = "Reorder point must be zero or positive")
+    @Column(name = "reorder_point", nullable = false)
+    private int reorderPoint = DEFAULT_REORDER_POINT;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Bumped by Hibernate on every update; an update carrying an older value fails instead of
+    // overwriting someone else's change. Exposed to clients as the ETag.
+    @Version
+    private Long version;
+
+    // price * quantity, stored so top-by-value reports can read it off an index
+    @Column(name = "inventory_value")
+    private double inventoryValue;
+
+    // reorderPoint - quantity, stored so that "at or below the reorder point" is shortfall >= 0,
+    // a range on one indexed column; quantity <= reorder_point compares two columns and scans
+    @Column(name = "reorder_shortfall", nullable = false)
+    private int reorderShortfall;
+
+    // Quantity as last read from or written to the database; the difference to quantity is the
+    // movement ProductService records in the stock ledger
+    @Transient
+    private Integer persistedQuantity;
+
+    // Status as last read or written; a change from it may raise a stock alert
+    @Transient
+    private ProductStatus persistedStatus;
+
     public enum ProductStatus {
         IN_STOCK, LOW_STOCK, OUT_OF_STOCK
     }
@@ -57,6 +133,7 @@ public class Product {
         this.category = category;
         this.price = price;
         this.quantity = quantity;
+        this.inventoryValue = price * quantity;
         updateStatus();
     }
 
@@ -70,12 +147,17 @@ public class Product {
 
     // Method to update status based on quantity
     public void updateStatus() {
-        if (this.quantity == 0) {
-            this.status = ProductStatus.OUT_OF_STOCK;
-        } else if (this.quantity <= 10) {
-            this.status = ProductStatus.LOW_STOCK;
+        this.status = statusFor(this.quantity, this.reorderPoint);
+        this.reorderShortfall = this.reorderPoint - this.quantity;
+    }
+
+    public static ProductStatus statusFor(int quantity, int reorderPoint) {
+        if (quantity == 0) {
+            return ProductStatus.OUT_OF_STOCK;
+        } else if (quantity <= reorderPoint) {
+            return ProductStatus.LOW_STOCK;
         } else {
-            this.status = ProductStatus.IN_STOCK;
+            return ProductStatus.IN_STOCK;
         }
     }
 
@@ -118,6 +200,7 @@ public class Product {
 
     public void setPrice(double price) {
         this.price = price;
+        this.inventoryValue = price * quantity;
     }
 
     public int getQuantity() {
@@ -126,6 +209,7 @@ public class Product {
 
     public void setQuantity(int quantity) {
         this.quantity = quantity;
+        this.inventoryValue = price * quantity;
         updateStatus();
     }
 
@@ -161,6 +245,44 @@ public class Product {
         this.location = location;
     }
 
+    public double getInventoryValue() {
+        return inventoryValue;
+    }
+
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public void setReorderPoint(int reorderPoint) {
+        this.reorderPoint = reorderPoint;
+        updateStatus();
+    }
+
+    // How far below its reorder point the product is, from 0 (at the point) to 1 (out of stock);
+    // negative when it is above the point
+    public double getReorderUrgency() {
+        if (reorderPoint <= 0) {
+            return quantity == 0 ? 1.0 : -1.0;
+        }
+        return (double) (reorderPoint - quantity) / reorderPoint;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getPersistedQuantity() {
+        return persistedQuantity;
+    }
+
+    public ProductStatus getPersistedStatus() {
+        return persistedStatus;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -177,9 +299,24 @@ public class Product {
         this.updatedAt = updatedAt;
     }
 
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void capturePersistedState() {
+        this.persistedQuantity = quantity;
+        this.persistedStatus = status;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.inventoryValue = price * quantity;
+        this.reorderShortfall = reorderPoint - quantity;
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.inventoryValue = price * quantity;
         updateStatus();
     }
 
@@ -196,6 +333,8 @@ public class Product {
                 ", sku='" + sku + '\'' +
                 ", supplier='" + supplier + '\'' +
                 ", location='" + location + '\'' +
+                ", reorderPoint=" + reorderPoint +
+                ", version=" + version +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
@@ -0,0 +1,85 @@
+package com.Inventory.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One row per stock change. Rows are only ever inserted; Product.quantity is the running sum.
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_product", columnList = "product_id, occurred_at")
+})
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Reason reason;
+
+    @Column(length = 50)
+    private String username;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Reason {
+        OPENING, INITIAL, ADJUSTMENT, RECEIPT, SALE, RETURN, DAMAGE, TRANSFER, RESERVATION
+    }
+
+    // Constructors
+    public StockMovement() {
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public StockMovement(Long productId, int delta, Reason reason, String username) {
+        this();
+        this.productId = productId;
+        this.delta = delta;
+        this.reason = reason;
+        this.username = username;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StockMovement{" +
+                "id=" + id +
+                ", productId=" + productId +
+                ", delta=" + delta +
+                ", reason=" + reason +
+                ", username='" + username + '\'' +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
@@ -0,0 +1,59 @@
+package com.Inventory.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Product quantity after applying every movement up to and including lastMovementId
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+        @Index(name = "idx_stock_snapshots_product", columnList = "product_id, taken_at")
+})
+public class StockSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    // Constructors
+    public StockSnapshot() {
+    }
+
+    public StockSnapshot(Long productId, int quantity, Long lastMovementId, LocalDateTime takenAt) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.lastMovementId = lastMovementId;
+        this.takenAt = takenAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Long getLastMovementId() {
+        return lastMovementId;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+}
@@ -0,0 +1,145 @@
+package com.Inventory.demo.event;
+
+import com.Inventory.demo.dto.AuditDto;
+import com.Inventory.demo.entity.AuditRecord;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.entity.User;
+import com.Inventory.demo.service.AuditService;
+import com.Inventory.demo.util.SecurityUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Feeds the audit trail from Hibernate's own before/after state, so saving a product or user
+// costs no extra read and no extra insert. The post-commit variants fire on the committing
+// thread only once the change is durable: rolled-back changes are never audited, and the
+// principal set by JwtAuthenticationFilter is still in the security context.
+@Component
+public class AuditEntityListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    // Bookkeeping that changes on every write and says nothing about who changed what, and the
+    // read-only lookup views that repeat a product's attribute columns
+    private static final Set<String> IGNORED = Set.of("version", "updatedAt", "inventoryValue", "reorderShortfall",
+            "lastLogin", "categoryValue", "supplierValue", "locationValue", "statusValue");
+
+    private static final String MASKED = "***";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AuditService auditService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return entityType(persister.getMappedClass()) != null;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getEntity(), event.getId(), AuditRecord.Action.CREATE, event.getPersister(), null,
+                event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getEntity(), event.getId(), AuditRecord.Action.UPDATE, event.getPersister(),
+                event.getOldState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getEntity(), event.getId(), AuditRecord.Action.DELETE, event.getPersister(),
+                event.getDeletedState(), null);
+    }
+
+    // Nothing was committed, so there is nothing to audit
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void record(Object entity, Object id, AuditRecord.Action action, EntityPersister persister,
+            Object[] before, Object[] after) {
+        String entityType = entityType(entity.getClass());
+        if (entityType == null) {
+            return;
+        }
+        Map<String, String[]> changes = new LinkedHashMap<>();
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (IGNORED.contains(names[i])) {
+                continue;
+            }
+            Object from = before != null ? before[i] : null;
+            Object to = after != null ? after[i] : null;
+            if (Objects.equals(from, to)) {
+                continue;
+            }
+            if (names[i].equals("password")) {
+                changes.put(names[i], new String[] { from != null ? MASKED : null, to != null ? MASKED : null });
+            } else {
+                changes.put(names[i], new String[] { format(from), format(to) });
+            }
+        }
+        // A save that only touched ignored fields
+        if (changes.isEmpty() && action == AuditRecord.Action.UPDATE) {
+            return;
+        }
+        auditService.record(new AuditDto.Change(entityType, (Long) id, action, SecurityUtil.currentUsername(),
+                changes));
+    }
+
+    private static String entityType(Class<?> type) {
+        if (Product.class.isAssignableFrom(type)) {
+            return "PRODUCT";
+        }
+        if (User.class.isAssignableFrom(type)) {
+            return "USER";
+        }
+        return null;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString();
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text;
+    }
+}
@@ -0,0 +1,120 @@
+package com.Inventory.demo.event;
+
+import com.Inventory.demo.entity.CacheInvalidation;
+import com.Inventory.demo.repository.CacheInvalidationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Publishes through the cache_invalidations table of the shared database, so it needs nothing
+// the instances do not already have. Each publish is one row per batch; polls read rows by id.
+// Ids are handed out at insert but rows become visible at commit, so a row may appear after a
+// higher id was already read: ids skipped over are kept as gaps and read again until they turn
+// up or gap-timeout-ms passes (an insert that rolled back leaves a gap for good).
+@Component
+public class DatabaseInvalidationTransport implements InvalidationTransport {
+
+    private static final int PAGE_SIZE = 500;
+    // A larger jump is not a commit race but e.g. an identity cache skipped after a restart
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    @Autowired
+    private CacheInvalidationRepository invalidationRepository;
+
+    @Value("${inventory.invalidation.database.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${inventory.invalidation.database.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private String origin;
+    private volatile boolean started;
+    // Every id up to here has been read or given up on
+    private long floor;
+    private long highest;
+    private final TreeSet<Long> readAboveFloor = new TreeSet<>();
+    // Missing id -> System.nanoTime() when it was first skipped
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+    @Override
+    public String name() {
+        return "database";
+    }
+
+    // Starts after the newest row: whatever came before is already in what this instance loads
+    @Override
+    public synchronized void start(String origin) {
+        this.origin = origin;
+        floor = invalidationRepository.findTopByOrderByIdDesc().map(CacheInvalidation::getId).orElse(0L);
+        highest = floor;
+        started = true;
+    }
+
+    @Override
+    public void publish(Collection<Invalidation> batch) {
+        List<CacheInvalidation> rows = new ArrayList<>();
+        for (String payload : Invalidation.encode(batch, 4000)) {
+            rows.add(new CacheInvalidation(origin, payload));
+        }
+        invalidationRepository.saveAll(rows);
+    }
+
+    @Override
+    public synchronized List<Invalidation> poll() {
+        List<Invalidation> received = new ArrayList<>();
+        List<CacheInvalidation> rows;
+        do {
+            rows = invalidationRepository.findByIdGreaterThanOrderByIdAsc(floor, PageRequest.of(0, PAGE_SIZE));
+            long now = System.nanoTime();
+            for (CacheInvalidation row : rows) {
+                long id = row.getId();
+                if (!readAboveFloor.add(id)) {
+                    continue;
+                }
+                gaps.remove(id);
+                if (id - highest <= MAX_TRACKED_GAP) {
+                    for (long missing = highest + 1; missing < id; missing++) {
+                        gaps.put(missing, now);
+                    }
+                }
+                highest = Math.max(highest, id);
+                if (!origin.equals(row.getOrigin())) {
+                    received.addAll(Invalidation.decode(row.getPayload()));
+                }
+            }
+            gaps.values().removeIf(skippedAt -> now - skippedAt > gapTimeoutMs * 1_000_000);
+            long newFloor = gaps.isEmpty() ? highest : gaps.firstKey() - 1;
+            readAboveFloor.headSet(newFloor, true).clear();
+            // A full page that moved nothing would be read again as it is
+            if (newFloor == floor && rows.size() == PAGE_SIZE) {
+                break;
+            }
+            floor = newFloor;
+        } while (rows.size() == PAGE_SIZE);
+        return received;
+    }
+
+    @Override
+    public void stop() {
+        started = false;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.invalidation.database.purge-interval-ms:600000}")
+    @Transactional
+    public int purgeExpired() {
+        if (!started) {
+            return 0;
+        }
+        return invalidationRepository.deleteCreatedBefore(LocalDateTime.now().minusMinutes(retentionMinutes));
+    }
+}
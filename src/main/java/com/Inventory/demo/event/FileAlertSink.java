@@ -0,0 +1,60 @@
+package com.Inventory.demo.event;
+
+import com.Inventory.demo.dto.AlertDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends alerts as JSON lines to a local file that other processes can tail or pick up.
+// Disabled when no path is configured.
+@Component
+public class FileAlertSink implements StockAlertSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.alerts.file.path:}")
+    private String path;
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !path.isBlank();
+    }
+
+    @Override
+    public synchronized void deliver(List<AlertDto.StockAlert> alerts) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (AlertDto.StockAlert alert : alerts) {
+            lines.append(objectMapper.writeValueAsString(alert)).append('\n');
+        }
+        Path file = Paths.get(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // Only acknowledge what is on disk
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.Inventory.demo.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+// One entry on the invalidation bus: the product or user with this id changed, read it again.
+// Entries carry no state, so repeats and reordering are harmless and a batch needs only one per
+// key. ALL stands for everything, for when a receiver knows it has missed entries.
+public final class Invalidation {
+
+    public enum Kind {
+        PRODUCT('P'), USER('U'), ALL('*');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+    }
+
+    private static final Invalidation ALL_ENTRIES = new Invalidation(Kind.ALL, null);
+
+    private final Kind kind;
+    private final Long id;
+
+    private Invalidation(Kind kind, Long id) {
+        this.kind = kind;
+        this.id = id;
+    }
+
+    public static Invalidation product(Long id) {
+        return new Invalidation(Kind.PRODUCT, Objects.requireNonNull(id));
+    }
+
+    public static Invalidation user(Long id) {
+        return new Invalidation(Kind.USER, Objects.requireNonNull(id));
+    }
+
+    public static Invalidation all() {
+        return ALL_ENTRIES;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // Null for ALL
+    public Long getId() {
+        return id;
+    }
+
+    // Space-separated tokens such as "P12 P40 U3", split so that no part is longer than maxLength
+    public static List<String> encode(Collection<Invalidation> batch, int maxLength) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        for (Invalidation invalidation : batch) {
+            String token = invalidation.kind == Kind.ALL ? "*" : invalidation.kind.code + invalidation.id.toString();
+            if (part.length() > 0 && part.length() + 1 + token.length() > maxLength) {
+                parts.add(part.toString());
+                part.setLength(0);
+            }
+            if (part.length() > 0) {
+                part.append(' ');
+            }
+            part.append(token);
+        }
+        if (part.length() > 0) {
+            parts.add(part.toString());
+        }
+        return parts;
+    }
+
+    // Tokens it does not understand, e.g. from a newer instance, are skipped
+    public static List<Invalidation> decode(String encoded) {
+        List<Invalidation> batch = new ArrayList<>();
+        for (String token : encoded.trim().split("\\s+")) {
+            if (token.equals("*")) {
+                batch.add(ALL_ENTRIES);
+            } else if (token.length() > 1) {
+                try {
+                    long id = Long.parseLong(token.substring(1));
+                    if (token.charAt(0) == Kind.PRODUCT.code) {
+                        batch.add(product(id));
+                    } else if (token.charAt(0) == Kind.USER.code) {
+                        batch.add(user(id));
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Not an entry this version knows
+                }
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Invalidation)) {
+            return false;
+        }
+        Invalidation other = (Invalidation) o;
+        return kind == other.kind && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, id);
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.ALL ? "ALL" : kind + ":" + id;
+    }
+}
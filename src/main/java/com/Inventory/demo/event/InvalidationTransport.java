@@ -0,0 +1,22 @@
+package com.Inventory.demo.event;
+
+import java.util.Collection;
+import java.util.List;
+
+// Carries invalidations between the instances that share a database. Delivery is at-least-once
+// at best; a transport that can tell it has lost entries reports Invalidation.all() instead.
+public interface InvalidationTransport {
+
+    // Matched against inventory.invalidation.transport
+    String name();
+
+    // Called once before anything is published or polled; origin tells this instance's entries apart
+    void start(String origin) throws Exception;
+
+    void publish(Collection<Invalidation> batch) throws Exception;
+
+    // What other instances have published since the last poll, never this instance's own
+    List<Invalidation> poll() throws Exception;
+
+    void stop();
+}
@@ -0,0 +1,256 @@
+package com.Inventory.demo.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Publishes as UDP datagrams to a multicast group, for networks that route it: no database load
+// and lower latency than polling, but datagrams can be lost. Each datagram is numbered per
+// sender, and senders keep their most recent datagrams. A receiver that sees numbers skipped
+// asks the sender to send them again (a NACK to the group) and applies them when they come;
+// only those still missing after the resend timeout, or too many to be buffered, make it report
+// Invalidation.all(). The first datagram from a sender is taken as is: whatever that sender
+// published before predates this instance loading its caches.
+@Component
+public class MulticastInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationTransport.class);
+
+    // Stays under a typical MTU once the IP and UDP headers are added
+    private static final int MAX_DATAGRAM = 1400;
+
+    @Value("${inventory.invalidation.multicast.group:239.255.42.99}")
+    private String group;
+
+    @Value("${inventory.invalidation.multicast.port:4446}")
+    private int port;
+
+    // Blank lets the operating system choose
+    @Value("${inventory.invalidation.multicast.interface:}")
+    private String interfaceName;
+
+    @Value("${inventory.invalidation.multicast.ttl:1}")
+    private int ttl;
+
+    // Datagrams a sender keeps for resending; a receiver further behind than this reloads everything
+    @Value("${inventory.invalidation.multicast.resend-buffer:1024}")
+    private int resendBuffer;
+
+    @Value("${inventory.invalidation.multicast.resend-timeout-ms:1000}")
+    private long resendTimeoutMs;
+
+    private String origin;
+    private MulticastSocket socket;
+    private InetSocketAddress groupAddress;
+    private NetworkInterface networkInterface;
+    private Thread receiver;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentLinkedQueue<Invalidation> received = new ConcurrentLinkedQueue<>();
+    // Sequence number -> datagram, oldest first, for resending; guarded by itself
+    private final LinkedHashMap<Long, byte[]> sent = new LinkedHashMap<>();
+    // Per sender; only touched by the receiver thread
+    private final Map<String, Sender> senders = new HashMap<>();
+
+    private static final class Sender {
+        // Highest number seen
+        long last;
+        // Numbers skipped and asked for again -> when to give up on them (System.nanoTime)
+        final TreeMap<Long, Long> missing = new TreeMap<>();
+
+        Sender(long last) {
+            this.last = last;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "multicast";
+    }
+
+    @Override
+    public synchronized void start(String origin) throws IOException {
+        this.origin = origin;
+        groupAddress = new InetSocketAddress(InetAddress.getByName(group), port);
+        socket = new MulticastSocket(port);
+        socket.setTimeToLive(ttl);
+        if (!interfaceName.isBlank()) {
+            networkInterface = NetworkInterface.getByName(interfaceName);
+            if (networkInterface == null) {
+                socket.close();
+                throw new IllegalStateException("No network interface named " + interfaceName);
+            }
+            socket.setNetworkInterface(networkInterface);
+        }
+        socket.joinGroup(groupAddress, networkInterface);
+        // Wakes the receiver now and then to give up on numbers that were never resent
+        socket.setSoTimeout((int) Math.max(50, Math.min(resendTimeoutMs / 2, 1000)));
+        receiver = new Thread(this::receive, "invalidation-multicast");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    // Header line "origin sequence", then the entries
+    @Override
+    public void publish(Collection<Invalidation> batch) throws IOException {
+        int room = MAX_DATAGRAM - origin.length() - 21;
+        for (String payload : Invalidation.encode(batch, room)) {
+            long number = sequence.incrementAndGet();
+            byte[] bytes = (origin + " " + number + "\n" + payload).getBytes(StandardCharsets.UTF_8);
+            synchronized (sent) {
+                sent.put(number, bytes);
+                Iterator<Long> oldest = sent.keySet().iterator();
+                while (sent.size() > resendBuffer && oldest.hasNext()) {
+                    oldest.next();
+                    oldest.remove();
+                }
+            }
+            socket.send(new DatagramPacket(bytes, bytes.length, groupAddress));
+        }
+    }
+
+    @Override
+    public List<Invalidation> poll() {
+        List<Invalidation> batch = new ArrayList<>();
+        Invalidation invalidation;
+        while ((invalidation = received.poll()) != null) {
+            batch.add(invalidation);
+        }
+        return batch;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (socket != null) {
+            // Unblocks the receiver
+            socket.close();
+        }
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_DATAGRAM * 2];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                accept(new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8));
+            } catch (SocketTimeoutException e) {
+                // Nothing arrived; just check for overdue resends below
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Receiving invalidations failed: {}", e.toString());
+            }
+            giveUpOverdue();
+        }
+    }
+
+    // Header line "origin sequence" followed by the entries, or "origin NACK target from to" alone
+    private void accept(String message) throws IOException {
+        int headerEnd = message.indexOf('\n');
+        String[] header = (headerEnd < 0 ? message : message.substring(0, headerEnd)).split(" ");
+        if (header[0].equals(origin)) {
+            return;
+        }
+        try {
+            if (header.length == 5 && header[1].equals("NACK")) {
+                if (header[2].equals(origin)) {
+                    resend(Long.parseLong(header[3]), Long.parseLong(header[4]));
+                }
+            } else if (headerEnd >= 0 && header.length == 2) {
+                if (isNew(header[0], Long.parseLong(header[1]))) {
+                    received.addAll(Invalidation.decode(message.substring(headerEnd + 1)));
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Not ours
+        }
+    }
+
+    // False for a number already applied, i.e. a resend someone else asked for
+    private boolean isNew(String senderOrigin, long number) throws IOException {
+        Sender sender = senders.get(senderOrigin);
+        if (sender == null) {
+            senders.put(senderOrigin, new Sender(number));
+            return true;
+        }
+        if (number <= sender.last) {
+            return sender.missing.remove(number) != null;
+        }
+        long from = sender.last + 1;
+        long to = number - 1;
+        sender.last = number;
+        if (from <= to) {
+            if (to - from + 1 > resendBuffer) {
+                // More than the sender still has
+                log.warn("Missed {} invalidation datagram(s) from {}", to - from + 1, senderOrigin);
+                received.add(Invalidation.all());
+            } else {
+                long deadline = System.nanoTime() + resendTimeoutMs * 1_000_000;
+                for (long missed = from; missed <= to; missed++) {
+                    sender.missing.put(missed, deadline);
+                }
+                send(origin + " NACK " + senderOrigin + " " + from + " " + to);
+            }
+        }
+        return true;
+    }
+
+    private void resend(long from, long to) throws IOException {
+        List<byte[]> datagrams = new ArrayList<>();
+        synchronized (sent) {
+            for (long number = from; number <= to; number++) {
+                byte[] bytes = sent.get(number);
+                if (bytes != null) {
+                    datagrams.add(bytes);
+                }
+            }
+        }
+        for (byte[] bytes : datagrams) {
+            socket.send(new DatagramPacket(bytes, bytes.length, groupAddress));
+        }
+    }
+
+    private void giveUpOverdue() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, Sender> entry : senders.entrySet()) {
+            Iterator<Long> deadlines = entry.getValue().missing.values().iterator();
+            int lost = 0;
+            while (deadlines.hasNext()) {
+                if (deadlines.next() - now <= 0) {
+                    deadlines.remove();
+                    lost++;
+                }
+            }
+            if (lost > 0) {
+                log.warn("Missed {} invalidation datagram(s) from {}, not resent in time", lost, entry.getKey());
+                received.add(Invalidation.all());
+            }
+        }
+    }
+
+    private void send(String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        socket.send(new DatagramPacket(bytes, bytes.length, groupAddress));
+    }
+}
@@ -0,0 +1,57 @@
+package com.Inventory.demo.event;
+
+import com.Inventory.demo.entity.Product;
+
+// Published by ProductService after a product write so in-memory indexes can follow the catalog,
+// and by CacheInvalidationBus for writes another instance made (remote, not to be sent on again)
+public class ProductChangedEvent {
+
+    public enum Type {
+        SAVED, DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final Product product;
+    private final boolean remote;
+
+    public ProductChangedEvent(Type type, Long productId, Product product) {
+        this(type, productId, product, false);
+    }
+
+    public ProductChangedEvent(Type type, Long productId, Product product, boolean remote) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+        this.remote = remote;
+    }
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(Type.SAVED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    // Null for deletions
+    public Product getProduct() {
+        return product;
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
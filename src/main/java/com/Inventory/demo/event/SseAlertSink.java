@@ -0,0 +1,60 @@
+package com.Inventory.demo.event;
+
+import com.Inventory.demo.dto.AlertDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Pushes alerts to connected browsers. This is a live channel: with nobody listening a batch
+// still counts as delivered, and clients that connect later start from the next alert.
+@Component
+public class SseAlertSink implements StockAlertSink {
+
+    @Value("${inventory.alerts.sse.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.alerts.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    @Override
+    public void deliver(List<AlertDto.StockAlert> alerts) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                for (AlertDto.StockAlert alert : alerts) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(alert.getEventId()))
+                            .name("stock-alert")
+                            .data(alert));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; it reconnects on its own
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.Inventory.demo.event;
+
+import com.Inventory.demo.dto.AlertDto;
+
+import java.util.List;
+
+// A destination for stock alerts drained from the outbox. Delivery is at-least-once: a batch that
+// throws is offered again later, and a batch that partly got through may be seen twice.
+public interface StockAlertSink {
+
+    // Recorded on each outbox row that the sink has accepted, so keep it stable
+    String name();
+
+    boolean isEnabled();
+
+    void deliver(List<AlertDto.StockAlert> alerts) throws Exception;
+}
@@ -0,0 +1,15 @@
+package com.Inventory.demo.event;
+
+// Published by UserService after a user is saved or deleted, for instances that cache users
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    public UserChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.Inventory.demo.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+
+import com.Inventory.demo.entity.AuditRecord;
+
+// Read side of the audit log; AuditService appends rows itself in JDBC batches
+public interface AuditRecordRepository extends Repository<AuditRecord, Long> {
+
+    Page<AuditRecord> findByOrderByIdDesc(Pageable pageable);
+
+    Page<AuditRecord> findByEntityTypeOrderByIdDesc(String entityType, Pageable pageable);
+
+    Page<AuditRecord> findByEntityTypeAndEntityIdOrderByIdDesc(String entityType, Long entityId, Pageable pageable);
+
+    long count();
+}
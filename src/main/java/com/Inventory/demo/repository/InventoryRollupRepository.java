@@ -0,0 +1,30 @@
+package com.Inventory.demo.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.Inventory.demo.entity.InventoryRollup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Rollups are written once per bucket and only ever removed by retention
+public interface InventoryRollupRepository extends Repository<InventoryRollup, Long> {
+
+    List<InventoryRollup> saveAll(Iterable<InventoryRollup> rollups);
+
+    @Query("SELECT MAX(r.bucketStart) FROM InventoryRollup r")
+    LocalDateTime findLatestBucketStart();
+
+    List<InventoryRollup> findByDimensionAndDimensionKeyAndBucketStartBetweenOrderByBucketStartAsc(
+            InventoryRollup.Dimension dimension, String dimensionKey, LocalDateTime from, LocalDateTime to);
+
+    List<InventoryRollup> findByDimensionAndBucketStartBetweenOrderByBucketStartAscDimensionKeyAsc(
+            InventoryRollup.Dimension dimension, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM InventoryRollup r WHERE r.bucketStart < :before")
+    int deleteByBucketStartBefore(@Param("before") LocalDateTime before);
+}
@@ -1,27 +1,32 @@
 package com.Inventory.demo.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.Inventory.demo.entity.Product;
+import jakarta.persistence.LockModeType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     
-    // Search methods
-    List<Product> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrCategoryContainingIgnoreCase(
-        String name, String description, String category);
+    // Search methods. Category is stored as an id, so case-insensitive and partial matches on it
+    // are resolved to the matching names through AttributeDictionary first.
+    List<Product> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrCategoryIn(
+        String name, String description, Collection<String> categories);
     
-    List<Product> findByCategoryIgnoreCase(String category);
+    List<Product> findByCategoryIn(Collection<String> categories);
     
     List<Product> findByQuantityLessThan(int quantity);
     
     List<Product> findByPriceBetween(double minPrice, double maxPrice);
     
-    List<Product> findBySupplierIgnoreCase(String supplier);
-    
     // Custom queries
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.category IS NOT NULL")
     List<String> findDistinctCategories();
@@ -29,8 +34,68 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT SUM(p.price * p.quantity) FROM Product p")
     Double getTotalInventoryValue();
     
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.quantity < :threshold")
-    Long countLowStockProducts(@Param("threshold") int threshold);
+    @Query("SELECT p.quantity FROM Product p WHERE p.id = :id")
+    Integer findQuantityById(@Param("id") Long id);
+    
+    @Query("SELECT p.status FROM Product p WHERE p.id = :id")
+    Product.ProductStatus findStatusById(@Param("id") Long id);
+    
+    // Lightweight rows for in-memory ranking: id, price, quantity
+    @Query("SELECT p.id, p.price, p.quantity FROM Product p WHERE (:category IS NULL OR p.category = :category) "
+            + "AND (:location IS NULL OR p.location = :location)")
+    Stream<Object[]> streamRankingRows(@Param("category") String category, @Param("location") String location);
+    
+    // At or below each product's own reorder point, out-of-stock included
+    @Query("SELECT p FROM Product p WHERE p.reorderShortfall >= 0")
+    List<Product> findAtOrBelowReorderPoint();
+    
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.reorderShortfall >= 0")
+    Long countLowStockProducts();
+    
+    // Row locks are taken in ascending id order, so transactions locking overlapping sets of
+    // products always queue behind each other instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Rows for inventory rollups: id, category, location, supplier, price, quantity, reorder point, created
+    @Query("SELECT p.id, p.category, p.location, p.supplier, p.price, p.quantity, p.reorderPoint, p.createdAt "
+            + "FROM Product p")
+    List<Object[]> findRollupRows();
+    
+    // Rows for one distribution group: category, supplier, location, price, quantity. With none
+    // set, products without a value match too.
+    @Query("SELECT p.category, p.supplier, p.location, p.price, p.quantity FROM Product p "
+            + "WHERE p.category = :key OR (:none = true AND p.category IS NULL)")
+    Stream<Object[]> streamDistributionRowsByCategory(@Param("key") String key, @Param("none") boolean none);
+    
+    @Query("SELECT p.category, p.supplier, p.location, p.price, p.quantity FROM Product p "
+            + "WHERE p.supplier = :key OR (:none = true AND p.supplier IS NULL)")
+    Stream<Object[]> streamDistributionRowsBySupplier(@Param("key") String key, @Param("none") boolean none);
+    
+    @Query("SELECT p.category, p.supplier, p.location, p.price, p.quantity FROM Product p "
+            + "WHERE p.location = :key OR (:none = true AND p.location IS NULL)")
+    Stream<Object[]> streamDistributionRowsByLocation(@Param("key") String key, @Param("none") boolean none);
+    
+    @Query("SELECT p.category, p.supplier, p.location, p.price, p.quantity FROM Product p")
+    Stream<Object[]> streamDistributionRows();
+    
+    // Products per value: value, count
+    @Query("SELECT p.category, COUNT(p) FROM Product p GROUP BY p.category")
+    List<Object[]> countByCategory();
+    
+    @Query("SELECT p.supplier, COUNT(p) FROM Product p GROUP BY p.supplier")
+    List<Object[]> countBySupplier();
+    
+    @Query("SELECT p.location, COUNT(p) FROM Product p GROUP BY p.location")
+    List<Object[]> countByLocation();
+    
+    // Keyset pages in id order, for loading the whole catalog a page at a time
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Id and version pairs in id order; a version that differs from a copy's means the row changed
+    @Query("SELECT p.id, p.version FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<Object[]> findVersionsAfter(@Param("after") Long after, Pageable pageable);
     
     @Query("SELECT p FROM Product p WHERE p.updatedAt >= :since")
     List<Product> findRecentlyUpdated(@Param("since") java.time.LocalDateTime since);
@@ -0,0 +1,55 @@
+package com.Inventory.demo.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.Inventory.demo.entity.Product;
+
+import java.time.LocalDateTime;
+
+// Single-column predicates for ProductRepository, combined by ProductQueryService.
+// Equality predicates compare the stored value directly so the column indexes stay usable.
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> categoryEquals(String category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Product> supplierEquals(String supplier) {
+        return (root, query, cb) -> cb.equal(root.get("supplier"), supplier);
+    }
+
+    public static Specification<Product> locationEquals(String location) {
+        return (root, query, cb) -> cb.equal(root.get("location"), location);
+    }
+
+    public static Specification<Product> statusEquals(Product.ProductStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Product> priceBetween(Double min, Double max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get("price"), min, max);
+            }
+            return min != null ? cb.greaterThanOrEqualTo(root.get("price"), min)
+                    : cb.lessThanOrEqualTo(root.get("price"), max);
+        };
+    }
+
+    public static Specification<Product> quantityBetween(Integer min, Integer max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get("quantity"), min, max);
+            }
+            return min != null ? cb.greaterThanOrEqualTo(root.get("quantity"), min)
+                    : cb.lessThanOrEqualTo(root.get("quantity"), max);
+        };
+    }
+
+    public static Specification<Product> updatedSince(LocalDateTime since) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), since);
+    }
+}
@@ -0,0 +1,58 @@
+package com.Inventory.demo.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.Inventory.demo.entity.StockMovement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Deliberately not a JpaRepository: the journal exposes inserts and reads, never updates or deletes
+public interface StockMovementRepository extends Repository<StockMovement, Long> {
+
+    StockMovement save(StockMovement movement);
+
+    List<StockMovement> saveAll(Iterable<StockMovement> movements);
+
+    Page<StockMovement> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+
+    // Movements a snapshot has not absorbed yet, up to the requested instant
+    @Query("SELECT COALESCE(SUM(m.delta), 0), COUNT(m) FROM StockMovement m WHERE m.productId = :productId "
+            + "AND m.id > :afterId AND m.occurredAt <= :at")
+    List<Object[]> sumDeltasAfter(@Param("productId") Long productId, @Param("afterId") Long afterId,
+            @Param("at") LocalDateTime at);
+
+    // Net change per product for movements in (fromId, toId]: product id, delta sum
+    @Query("SELECT m.productId, SUM(m.delta) FROM StockMovement m WHERE m.id > :fromId AND m.id <= :toId "
+            + "GROUP BY m.productId")
+    List<Object[]> sumDeltasByProduct(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Net change per product and interval after an instant, leaving out one reason: product id,
+    // index of the last interval start (counted from 1970-01-01) the movement came after, delta sum
+    @Query("SELECT m.productId, FLOOR((((m.occurredAt - {ts '1970-01-01 00:00:00'}) BY NANOSECOND) - 1) "
+            + "/ :intervalNanos) AS bucket, SUM(m.delta) FROM StockMovement m WHERE m.occurredAt > :at "
+            + "AND m.reason <> :excluded GROUP BY m.productId, bucket")
+    List<Object[]> sumDeltasByProductAndBucketAfter(@Param("at") LocalDateTime at,
+            @Param("intervalNanos") long intervalNanos, @Param("excluded") StockMovement.Reason excluded);
+
+    // Highest movement id old enough that no earlier id can still be uncommitted
+    @Query("SELECT MAX(m.id) FROM StockMovement m WHERE m.occurredAt < :before")
+    Long findMaxIdBefore(@Param("before") LocalDateTime before);
+
+    @Query("SELECT MAX(m.id) FROM StockMovement m WHERE m.productId = :productId AND m.reason = :reason")
+    Long findMaxIdByProductIdAndReason(@Param("productId") Long productId, @Param("reason") StockMovement.Reason reason);
+    
+    @Query("SELECT SUM(m.delta) FROM StockMovement m WHERE m.productId = :productId AND m.reason = :reason "
+            + "AND m.id > :afterId")
+    Integer sumDeltasByProductIdAndReasonAfter(@Param("productId") Long productId,
+            @Param("reason") StockMovement.Reason reason, @Param("afterId") Long afterId);
+    
+    // Products whose stock predates the journal and still need an opening balance: id, quantity
+    @Query("SELECT p.id, p.quantity FROM Product p WHERE NOT EXISTS "
+            + "(SELECT m.id FROM StockMovement m WHERE m.productId = p.id)")
+    List<Object[]> findProductsWithoutMovements();
+}
@@ -0,0 +1,26 @@
+package com.Inventory.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.Inventory.demo.entity.StockSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    Optional<StockSnapshot> findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long productId,
+            LocalDateTime at);
+
+    // Latest snapshot for each of the given products
+    @Query("SELECT s FROM StockSnapshot s WHERE s.productId IN :productIds AND s.lastMovementId = "
+            + "(SELECT MAX(s2.lastMovementId) FROM StockSnapshot s2 WHERE s2.productId = s.productId)")
+    List<StockSnapshot> findLatestFor(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT MAX(s.lastMovementId) FROM StockSnapshot s")
+    Long findSnapshotWatermark();
+}
@@ -1,6 +1,7 @@
 package com.Inventory.demo.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -21,9 +22,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     long countByActiveTrue();
     
+    Optional<User> findFirstByActiveTrueAndRoleOrderByIdAsc(User.UserRole role);
+    
     @Query("SELECT u FROM User u WHERE u.lastLogin >= :since")
     List<User> findRecentlyActiveUsers(@Param("since") java.time.LocalDateTime since);
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(@Param("role") User.UserRole role);
+    
+    // What decides whether a cached user may still sign in and with which role
+    @Query("SELECT u.password, u.role, u.active FROM User u WHERE u.id = :id")
+    List<Object[]> findCredentialsById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.id = :id")
+    int updateLastLogin(@Param("id") Long id, @Param("lastLogin") java.time.LocalDateTime lastLogin);
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Inventory.demo.entity.AttributeCodes;
+import com.Inventory.demo.entity.AttributeValue;
+import com.Inventory.demo.entity.Product;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+// In-process copy of product_attribute_values, shared by every entity and DTO: decoding an id
+// always returns the same String instance, so a million loaded products hold one copy of each
+// category name. Values added by this process are registered in their own transaction, so the id
+// is final before any product row refers to it; writers do that before their own transaction
+// starts, not from inside a flush. Values added elsewhere are read in on first miss.
+@Service
+public class AttributeDictionary implements AttributeCodes {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // How long matching() trusts that no other instance has added values
+    @Value("${inventory.attributes.recheck-interval-ms:5000}")
+    private long recheckIntervalMs;
+
+    private TransactionTemplate registration;
+    private volatile long checkedAt;
+    private volatile boolean statusesRegistered;
+
+    private final Map<AttributeValue.Kind, Map<String, Integer>> codes = new EnumMap<>(AttributeValue.Kind.class);
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (AttributeValue.Kind kind : AttributeValue.Kind.values()) {
+            codes.put(kind, new ConcurrentHashMap<>());
+        }
+        registration = new TransactionTemplate(transactionManager);
+        registration.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // The schema may not exist yet (deferred JPA bootstrap), so nothing is read here
+        checkedAt = System.nanoTime() - recheckIntervalMs * 1_000_000L;
+    }
+
+    // Registers a product's category, supplier and location, and on first use every status,
+    // ahead of saving it, so the flush finds them known and needs no connection of its own
+    public void register(Product product) {
+        if (!statusesRegistered) {
+            for (Product.ProductStatus status : Product.ProductStatus.values()) {
+                register(AttributeValue.Kind.STATUS, status.name());
+            }
+            statusesRegistered = true;
+        }
+        registerIfPresent(AttributeValue.Kind.CATEGORY, product.getCategory());
+        registerIfPresent(AttributeValue.Kind.SUPPLIER, product.getSupplier());
+        registerIfPresent(AttributeValue.Kind.LOCATION, product.getLocation());
+    }
+
+    @Override
+    public int register(AttributeValue.Kind kind, String value) {
+        Integer code = codes.get(kind).get(value);
+        if (code != null) {
+            return code;
+        }
+        Integer registered = registration.execute(status -> {
+            try {
+                jdbcTemplate.update("INSERT INTO product_attribute_values (kind, name) VALUES (?, ?)", kind.name(),
+                        value);
+            } catch (DuplicateKeyException e) {
+                // Registered concurrently, here or by another instance
+            }
+            return jdbcTemplate.queryForObject("SELECT id FROM product_attribute_values WHERE kind = ? AND name = ?",
+                    Integer.class, kind.name(), value);
+        });
+        return remember(kind, registered, value);
+    }
+
+    @Override
+    public int lookup(AttributeValue.Kind kind, String value) {
+        Integer code = codes.get(kind).get(value);
+        if (code != null) {
+            return code;
+        }
+        List<Integer> stored = jdbcTemplate.queryForList(
+                "SELECT id FROM product_attribute_values WHERE kind = ? AND name = ?", Integer.class, kind.name(), value);
+        return stored.isEmpty() ? UNKNOWN : remember(kind, stored.get(0), value);
+    }
+
+    @Override
+    public String decode(int code) {
+        String name = names.get(code);
+        if (name == null) {
+            reload();
+            name = names.get(code);
+            if (name == null) {
+                throw new IllegalStateException("Unknown product attribute value id " + code);
+            }
+        }
+        return name;
+    }
+
+    @Override
+    public String registered(AttributeValue.Kind kind, String value) {
+        Integer code = codes.get(kind).get(value);
+        return code != null ? names.get(code) : null;
+    }
+
+    // Stored values of a kind that pass the test, for case-insensitive and substring matches
+    // that cannot be answered from the ids in the product table. Values this process added are
+    // known at once; those added elsewhere show up within the recheck interval.
+    public List<String> matching(AttributeValue.Kind kind, Predicate<String> test) {
+        long now = System.nanoTime();
+        if (now - checkedAt >= recheckIntervalMs * 1_000_000L) {
+            checkedAt = now;
+            Long stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_attribute_values", Long.class);
+            if (stored != null && stored != names.size()) {
+                reload();
+            }
+        }
+        List<String> result = new ArrayList<>();
+        for (String name : codes.get(kind).keySet()) {
+            if (test.test(name)) {
+                result.add(names.get(codes.get(kind).get(name)));
+            }
+        }
+        return result;
+    }
+
+    private void registerIfPresent(AttributeValue.Kind kind, String value) {
+        if (value != null) {
+            register(kind, value);
+        }
+    }
+
+    private synchronized void reload() {
+        jdbcTemplate.query("SELECT id, kind, name FROM product_attribute_values", rs -> {
+            remember(AttributeValue.Kind.valueOf(rs.getString("kind")), rs.getInt("id"), rs.getString("name"));
+        });
+    }
+
+    private int remember(AttributeValue.Kind kind, int code, String value) {
+        String name = names.computeIfAbsent(code, c -> value);
+        codes.get(kind).putIfAbsent(name, code);
+        return code;
+    }
+}
@@ -0,0 +1,247 @@
+package com.Inventory.demo.service;
+
+import com.Inventory.demo.dto.AuditDto;
+import com.Inventory.demo.entity.AuditRecord;
+import com.Inventory.demo.repository.AuditRecordRepository;
+import com.Inventory.demo.util.RingBuffer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Write-behind audit trail. Callers hand over a captured change and return at once; the change
+// waits in a lock-free ring buffer until a single background writer appends it to audit_log in a
+// JDBC batch. When the buffer is full the overflow policy either blocks the caller until the
+// writer catches up or spills the record to a local file that is replayed once the writer is idle.
+@Service
+public class AuditService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit_log "
+            + "(entity_type, entity_id, action, principal, changes, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    public enum OverflowPolicy {
+        BLOCK, SPILL
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditRecordRepository auditRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.audit.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${inventory.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${inventory.audit.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${inventory.audit.spill-path:data/audit-spill.jsonl}")
+    private String spillPath;
+
+    private RingBuffer<AuditDto.Change> buffer;
+    private Thread writer;
+    private volatile boolean running;
+    private final Object spillLock = new Object();
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        buffer = new RingBuffer<>(bufferSize);
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Whatever is still buffered is written before the datasource goes away
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void record(AuditDto.Change change) {
+        if (buffer.offer(change)) {
+            // Wake the writer early rather than letting a burst fill the buffer
+            if (buffer.size() >= buffer.capacity() / 2) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            spill(List.of(change));
+            return;
+        }
+        blocked.increment();
+        LockSupport.unpark(writer);
+        while (!buffer.offer(change)) {
+            if (!running) {
+                // Nobody is left to make room
+                spill(List.of(change));
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    public Page<AuditDto.Entry> getRecords(String entityType, Long entityId, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        Page<AuditRecord> records;
+        if (entityType == null) {
+            records = auditRecordRepository.findByOrderByIdDesc(pageable);
+        } else if (entityId == null) {
+            records = auditRecordRepository.findByEntityTypeOrderByIdDesc(entityType, pageable);
+        } else {
+            records = auditRecordRepository.findByEntityTypeAndEntityIdOrderByIdDesc(entityType, entityId, pageable);
+        }
+        return records.map(AuditDto.Entry::new);
+    }
+
+    public AuditDto.Stats getStats() {
+        return new AuditDto.Stats(buffer.size(), buffer.capacity(), overflowPolicy.name(), written.sum(),
+                spilled.sum(), blocked.sum());
+    }
+
+    private void runWriter() {
+        List<AuditDto.Change> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            batch.clear();
+            if (buffer.drainTo(batch, batchSize) > 0) {
+                write(batch);
+            } else {
+                replaySpill();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+    }
+
+    private void write(List<AuditDto.Change> batch) {
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            log.warn("Writing {} audit record(s) failed, spilling them to {}: {}", batch.size(), spillPath,
+                    e.toString());
+            spill(batch);
+        }
+    }
+
+    private void insert(List<AuditDto.Change> entries) {
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (AuditDto.Change change : entries) {
+            rows.add(new Object[] { change.getEntityType(), change.getEntityId(), change.getAction().name(),
+                    change.getPrincipal(), toJson(change.getChanges()), Timestamp.valueOf(change.getOccurredAt()) });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        written.add(entries.size());
+    }
+
+    private void spill(List<AuditDto.Change> entries) {
+        synchronized (spillLock) {
+            Path file = Paths.get(spillPath);
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (AuditDto.Change change : entries) {
+                        out.write(objectMapper.writeValueAsString(change));
+                        out.newLine();
+                    }
+                }
+                spilled.add(entries.size());
+            } catch (IOException e) {
+                log.error("Could not spill {} audit record(s) to {}; they are lost", entries.size(), spillPath, e);
+            }
+        }
+    }
+
+    // The spill file is moved aside before it is read, so spilling can carry on meanwhile. All of
+    // it is inserted in one transaction and the file deleted after, so a failure retries the lot.
+    private void replaySpill() {
+        Path file = Paths.get(spillPath);
+        Path replay = file.resolveSibling(file.getFileName() + ".replay");
+        try {
+            if (!Files.exists(replay)) {
+                synchronized (spillLock) {
+                    if (!Files.exists(file) || Files.size(file) == 0) {
+                        return;
+                    }
+                    Files.move(file, replay, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            List<AuditDto.Change> entries = new ArrayList<>();
+            for (String line : Files.readAllLines(replay, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(objectMapper.readValue(line, AuditDto.Change.class));
+                } catch (JsonProcessingException e) {
+                    // A line torn by a crash mid-append
+                    log.warn("Skipping unreadable spilled audit record: {}", e.getOriginalMessage());
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    insert(entries.subList(from, Math.min(entries.size(), from + batchSize)));
+                }
+            });
+            Files.delete(replay);
+            log.info("Replayed {} spilled audit record(s)", entries.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Replaying spilled audit records failed, will retry: {}", e.toString());
+        }
+    }
+
+    private String toJson(Map<String, String[]> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Audit changes cannot be serialized", e);
+        }
+    }
+}
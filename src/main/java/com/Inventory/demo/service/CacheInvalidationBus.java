@@ -0,0 +1,210 @@
+package com.Inventory.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.event.Invalidation;
+import com.Inventory.demo.event.InvalidationTransport;
+import com.Inventory.demo.event.ProductChangedEvent;
+import com.Inventory.demo.event.UserChangedEvent;
+import com.Inventory.demo.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Keeps the in-process caches of several instances sharing one database in step. Committed
+// product and user writes are collected here, a key at most once however often it changed, and
+// published as one batch per flush interval through the configured transport. Entries from other
+// instances are applied per poll, again once per key: users are evicted from UserService, and
+// products are read back and announced as remote ProductChangedEvents, so the read model and the
+// search, suggest, reorder and distribution indexes follow them the same way they
+// follow local writes. The attribute dictionary needs nothing; it reads unknown values on a miss.
+@Service
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    @Autowired
+    private List<InvalidationTransport> transports;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductReadModel readModel;
+
+    @Autowired
+    private ProductFuzzySearchService fuzzySearchService;
+
+    @Autowired
+    private ProductSuggestService suggestService;
+
+    @Autowired
+    private ReorderPriorityService reorderPriorityService;
+
+    @Autowired
+    private ProductDistributionService distributionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // database, multicast or none
+    @Value("${inventory.invalidation.transport:none}")
+    private String transportName;
+
+    @Value("${inventory.invalidation.max-batch:500}")
+    private int maxBatch;
+
+    private final String origin = UUID.randomUUID().toString();
+    private InvalidationTransport transport;
+    private final LinkedHashSet<Invalidation> pending = new LinkedHashSet<>();
+
+    // Before the indexes load on ApplicationReadyEvent, so nothing written in between is missed
+    @PostConstruct
+    public void start() throws Exception {
+        if (transportName.isBlank() || transportName.equals("none")) {
+            return;
+        }
+        InvalidationTransport selected = transports.stream()
+                .filter(candidate -> candidate.name().equals(transportName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown invalidation transport " + transportName));
+        selected.start(origin);
+        transport = selected;
+        log.info("Cache invalidation bus started on {} as {}", transportName, origin);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (transport != null) {
+            flush();
+            transport.stop();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!event.isRemote()) {
+            enqueue(Invalidation.product(event.getProductId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        enqueue(Invalidation.user(event.getUserId()));
+    }
+
+    // A batch that fails to go out is merged back into what is pending and tried again next time
+    @Scheduled(fixedDelayString = "${inventory.invalidation.flush-interval-ms:100}")
+    public void flush() {
+        if (transport == null) {
+            return;
+        }
+        List<Invalidation> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (int from = 0; from < batch.size(); from += maxBatch) {
+            List<Invalidation> part = batch.subList(from, Math.min(batch.size(), from + maxBatch));
+            try {
+                transport.publish(part);
+            } catch (Exception e) {
+                synchronized (pending) {
+                    pending.addAll(batch.subList(from, batch.size()));
+                }
+                log.warn("Publishing {} invalidation(s) failed, will retry: {}", batch.size() - from, e.toString());
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.invalidation.poll-interval-ms:500}")
+    public void poll() {
+        if (transport == null) {
+            return;
+        }
+        List<Invalidation> received;
+        try {
+            received = transport.poll();
+        } catch (Exception e) {
+            log.warn("Polling for invalidations failed: {}", e.toString());
+            return;
+        }
+        if (!received.isEmpty()) {
+            apply(new LinkedHashSet<>(received));
+        }
+    }
+
+    private void apply(Set<Invalidation> received) {
+        if (received.contains(Invalidation.all())) {
+            invalidateAll();
+            return;
+        }
+        List<Long> productIds = new ArrayList<>();
+        for (Invalidation invalidation : received) {
+            if (invalidation.getKind() == Invalidation.Kind.USER) {
+                userService.evict(invalidation.getId());
+            } else {
+                productIds.add(invalidation.getId());
+            }
+        }
+        for (int from = 0; from < productIds.size(); from += maxBatch) {
+            List<Long> ids = productIds.subList(from, Math.min(productIds.size(), from + maxBatch));
+            Map<Long, Product> found = new HashMap<>();
+            for (Product product : productRepository.findAllById(ids)) {
+                found.put(product.getId(), product);
+            }
+            for (Long id : ids) {
+                Product product = found.get(id);
+                eventPublisher.publishEvent(product != null
+                        ? new ProductChangedEvent(ProductChangedEvent.Type.SAVED, id, product, true)
+                        : new ProductChangedEvent(ProductChangedEvent.Type.DELETED, id, null, true));
+            }
+        }
+        log.debug("Applied {} invalidation(s) from other instances", received.size());
+    }
+
+    // Only when entries were lost, so rebuilding everything is acceptable
+    private void invalidateAll() {
+        log.warn("Invalidation entries were lost; reloading every cache");
+        userService.clearCache();
+        if (readModel.isLoaded()) {
+            readModel.verify(true);
+        }
+        fuzzySearchService.rebuild();
+        suggestService.rebuild();
+        reorderPriorityService.rebuild();
+        distributionService.rebuild();
+    }
+
+    private void enqueue(Invalidation invalidation) {
+        if (transport == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.add(invalidation);
+        }
+    }
+}
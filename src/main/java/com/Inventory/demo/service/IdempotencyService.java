@@ -0,0 +1,177 @@
+package com.Inventory.demo.service;
+
+import com.Inventory.demo.util.SecurityUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Remembers the response to each Idempotency-Key so a retried request is answered from memory
+// instead of being applied twice. The first request with a key runs; duplicates that arrive
+// while it is running wait for its response rather than racing it. Keys are scoped to the user
+// and the operation, expire after a TTL and are bounded in number, oldest evicted first.
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${inventory.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    // How long a duplicate waits for the original request before giving up with 409
+    @Value("${inventory.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    // Insertion order, so the eldest entry is the first to go when the store is full
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        // Set once the response is known; in-flight entries never expire
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    // Runs the action once per key; without a key it simply runs. The request object is
+    // fingerprinted so that reusing a key for a different payload is rejected with 422.
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request,
+            Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        String scopedKey = SecurityUtil.currentUsername() + " " + operation + " " + key;
+        String fingerprint = fingerprint(request);
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(scopedKey);
+            if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(scopedKey);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(fingerprint);
+                entries.put(scopedKey, entry);
+                owner = true;
+                evictOverflow();
+            }
+        }
+
+        if (!owner) {
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+            }
+            return replay(entry);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            forget(scopedKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        // Server errors are not remembered, so a retry gets a fresh attempt
+        if (response.getStatusCode().is5xxServerError()) {
+            forget(scopedKey, entry);
+        } else {
+            entry.expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+        }
+        entry.response.complete(response);
+        return response;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.idempotency.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.expiresAt < now);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry entry) {
+        try {
+            ResponseEntity<?> original = entry.response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            return ResponseEntity.status(original.getStatusCode())
+                    .headers(original.getHeaders())
+                    .header(REPLAYED_HEADER, "true")
+                    .body((T) original.getBody());
+        } catch (TimeoutException e) {
+            // The original is still running; the client should retry later with the same key
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (ExecutionException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private void forget(String scopedKey, Entry entry) {
+        synchronized (entries) {
+            entries.remove(scopedKey, entry);
+        }
+    }
+
+    // Caller holds the lock. Requests still running are skipped, since dropping one would let a
+    // duplicate through; there can only be as many of those as there are request threads.
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            if (it.next().getValue().response.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
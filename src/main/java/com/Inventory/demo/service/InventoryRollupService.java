@@ -0,0 +1,172 @@
+package com.Inventory.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Inventory.demo.dto.ReportDto;
+import com.Inventory.demo.entity.InventoryRollup;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.entity.StockMovement;
+import com.Inventory.demo.repository.InventoryRollupRepository;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.repository.StockMovementRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Periodic inventory totals per category, location and supplier, so trend reports read a few
+// rows per bucket instead of scanning the catalog or the movement history. Buckets are aligned
+// to the configured interval (midnight for daily rollups). A bucket records the inventory as it
+// stood at its start: current quantities minus the ledger movements since then. That makes a
+// late run exact, and lets a restart fill in the buckets it missed, from one catalog read and
+// one aggregate of the movements over the whole missed window.
+@Service
+public class InventoryRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryRollupService.class);
+
+    public static final String TOTAL_KEY = "ALL";
+    public static final String NONE_KEY = "(none)";
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private InventoryRollupRepository rollupRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Value("${inventory.rollups.interval-minutes:1440}")
+    private long intervalMinutes;
+
+    // Missed buckets older than this many intervals are left empty rather than reconstructed
+    @Value("${inventory.rollups.max-catch-up:366}")
+    private int maxCatchUp;
+
+    @Value("${inventory.rollups.retention-days:730}")
+    private long retentionDays;
+
+    // Writes every bucket that has started since the last one recorded; 0 when up to date
+    @Scheduled(fixedDelayString = "${inventory.rollups.check-interval-ms:60000}")
+    @Transactional
+    public int rollUp() {
+        LocalDateTime current = bucketStart(LocalDateTime.now());
+        LocalDateTime latest = rollupRepository.findLatestBucketStart();
+        LocalDateTime next = latest == null ? current : latest.plusMinutes(intervalMinutes);
+        LocalDateTime earliest = current.minusMinutes(intervalMinutes * (maxCatchUp - 1));
+        if (next.isBefore(earliest)) {
+            log.warn("Skipping rollup buckets from {} to {}: beyond the catch-up limit of {}", next,
+                    earliest.minusMinutes(intervalMinutes), maxCatchUp);
+            next = earliest;
+        }
+        if (next.isAfter(current)) {
+            return 0;
+        }
+
+        List<Object[]> products = productRepository.findRollupRows();
+        // Latest bucket index each movement came after -> net change per product. Opening balances
+        // are stock that already existed when the journal started, not a change.
+        TreeMap<Long, Map<Long, Long>> deltasByBucket = new TreeMap<>();
+        for (Object[] row : movementRepository.sumDeltasByProductAndBucketAfter(next,
+                TimeUnit.MINUTES.toNanos(intervalMinutes), StockMovement.Reason.OPENING)) {
+            deltasByBucket.computeIfAbsent(((Number) row[1]).longValue(), k -> new HashMap<>())
+                    .merge((Long) row[0], ((Number) row[2]).longValue(), Long::sum);
+        }
+
+        // Newest first, so each bucket's later movements are the previous ones plus its own interval
+        Map<Long, Long> laterDeltas = new HashMap<>();
+        List<List<InventoryRollup>> rollups = new ArrayList<>();
+        for (LocalDateTime bucket = current; !bucket.isBefore(next); bucket = bucket.minusMinutes(intervalMinutes)) {
+            long index = ChronoUnit.MINUTES.between(EPOCH, bucket) / intervalMinutes;
+            Map<Long, Map<Long, Long>> reached = deltasByBucket.tailMap(index, true);
+            reached.values().forEach(deltas -> deltas.forEach(
+                    (productId, delta) -> laterDeltas.merge(productId, delta, Long::sum)));
+            reached.clear();
+            rollups.add(rollUp(bucket, products, laterDeltas));
+        }
+        int buckets = rollups.size();
+        for (int i = buckets - 1; i >= 0; i--) {
+            rollupRepository.saveAll(rollups.get(i));
+        }
+        rollupRepository.deleteByBucketStartBefore(current.minusDays(retentionDays));
+        if (buckets > 1) {
+            log.info("Caught up {} inventory rollup buckets through {}", buckets, current);
+        }
+        return buckets;
+    }
+
+    // One point per bucket for a single group; without a key, every group of the dimension
+    @Transactional(readOnly = true)
+    public List<ReportDto.TrendPoint> getTrend(InventoryRollup.Dimension dimension, String key,
+            LocalDateTime from, LocalDateTime to) {
+        if (dimension == InventoryRollup.Dimension.TOTAL) {
+            key = TOTAL_KEY;
+        }
+        List<InventoryRollup> rollups = key != null
+                ? rollupRepository.findByDimensionAndDimensionKeyAndBucketStartBetweenOrderByBucketStartAsc(
+                        dimension, key, from, to)
+                : rollupRepository.findByDimensionAndBucketStartBetweenOrderByBucketStartAscDimensionKeyAsc(
+                        dimension, from, to);
+        return rollups.stream().map(ReportDto.TrendPoint::new).collect(Collectors.toList());
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime at) {
+        long minutes = ChronoUnit.MINUTES.between(EPOCH, at);
+        return EPOCH.plusMinutes(Math.floorDiv(minutes, intervalMinutes) * intervalMinutes);
+    }
+
+    // Price history is not journaled, so past buckets are valued at current prices, and products
+    // deleted since the bucket started are missing from it
+    private List<InventoryRollup> rollUp(LocalDateTime bucket, List<Object[]> products, Map<Long, Long> laterDeltas) {
+        Map<InventoryRollup.Dimension, Map<String, InventoryRollup>> groups =
+                new EnumMap<>(InventoryRollup.Dimension.class);
+        for (InventoryRollup.Dimension dimension : InventoryRollup.Dimension.values()) {
+            groups.put(dimension, new TreeMap<>());
+        }
+        for (Object[] row : products) {
+            LocalDateTime createdAt = (LocalDateTime) row[7];
+            if (createdAt != null && createdAt.isAfter(bucket)) {
+                continue;
+            }
+            int quantity = (int) Math.max(0, (Integer) row[5] - laterDeltas.getOrDefault((Long) row[0], 0L));
+            double price = (Double) row[4];
+            Product.ProductStatus status = Product.statusFor(quantity, (Integer) row[6]);
+            add(groups, bucket, InventoryRollup.Dimension.TOTAL, TOTAL_KEY, quantity, price, status);
+            add(groups, bucket, InventoryRollup.Dimension.CATEGORY, (String) row[1], quantity, price, status);
+            add(groups, bucket, InventoryRollup.Dimension.LOCATION, (String) row[2], quantity, price, status);
+            add(groups, bucket, InventoryRollup.Dimension.SUPPLIER, (String) row[3], quantity, price, status);
+        }
+
+        List<InventoryRollup> rollups = new ArrayList<>();
+        // The total is written even for an empty catalog, so the bucket counts as done
+        groups.get(InventoryRollup.Dimension.TOTAL)
+                .computeIfAbsent(TOTAL_KEY, k -> new InventoryRollup(bucket, InventoryRollup.Dimension.TOTAL, k));
+        groups.values().forEach(group -> rollups.addAll(group.values()));
+        return rollups;
+    }
+
+    private static void add(Map<InventoryRollup.Dimension, Map<String, InventoryRollup>> groups,
+            LocalDateTime bucket, InventoryRollup.Dimension dimension, String key, int quantity, double price,
+            Product.ProductStatus status) {
+        String groupKey = key == null || key.isBlank() ? NONE_KEY : key;
+        groups.get(dimension)
+                .computeIfAbsent(groupKey, k -> new InventoryRollup(bucket, dimension, k))
+                .add(quantity, price, status);
+    }
+}
@@ -0,0 +1,155 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Inventory.demo.dto.OrderDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.entity.StockMovement;
+import com.Inventory.demo.event.ProductChangedEvent;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.util.SecurityUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+// Decrements stock for every line of an order in one transaction. The affected rows are locked
+// up front in ascending id order, so concurrent orders over overlapping products serialize
+// on their first shared product rather than deadlocking on each other.
+@Service
+public class OrderFulfilmentService {
+
+    public static final int MAX_LINES = 500;
+
+    public enum Policy {
+        // Roll back the whole order if any line is short
+        FAIL,
+        // Ship what is on hand and backorder the rest
+        PARTIAL
+    }
+
+    public enum Outcome {
+        FULFILLED, PARTIAL, UNFULFILLED
+    }
+
+    // Thrown under the FAIL policy; carries the lines that could not be filled
+    public static class InsufficientStockException extends IllegalStateException {
+        private final OrderDto.FulfilmentResult result;
+
+        public InsufficientStockException(OrderDto.FulfilmentResult result) {
+            super("Insufficient stock for " + result.getLines().size() + " order line(s)");
+            this.result = result;
+        }
+
+        public OrderDto.FulfilmentResult getResult() {
+            return result;
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private ObjectProvider<StockReservationService> reservationService;
+
+    // Repeated lines for a product are merged; results come back one per product, by id
+    @Transactional
+    public OrderDto.FulfilmentResult fulfil(OrderDto.FulfilmentRequest request) {
+        Policy policy = request.getPolicy() != null ? request.getPolicy() : Policy.FAIL;
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (OrderDto.Line line : request.getLines()) {
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive");
+            }
+            requested.merge(line.getProductId(), line.getQuantity(), Math::addExact);
+        }
+
+        List<Product> products = productRepository.findAllByIdForUpdate(requested.keySet());
+        if (products.size() != requested.size()) {
+            for (Product product : products) {
+                requested.remove(product.getId());
+            }
+            throw new NoSuchElementException("Products not found: " + requested.keySet());
+        }
+
+        // What reservations hold is not for sale; each line holds what it can take of the rest
+        StockReservationService reservations = reservationService.getObject();
+        Map<Long, StockReservationService.Hold> holds = new HashMap<>();
+        List<OrderDto.LineResult> shortfalls = new ArrayList<>();
+        for (Product product : products) {
+            int wanted = requested.get(product.getId());
+            StockReservationService.Hold hold = reservations.holdForSale(product.getId(), wanted,
+                    product.getQuantity());
+            holds.put(product.getId(), hold);
+            if (hold.getQuantity() < wanted) {
+                shortfalls.add(new OrderDto.LineResult(product.getId(), wanted, 0, product.getQuantity(),
+                        product.getStatus()));
+            }
+        }
+        if (policy == Policy.FAIL && !shortfalls.isEmpty()) {
+            holds.values().forEach(reservations::releaseHold);
+            throw new InsufficientStockException(
+                    new OrderDto.FulfilmentResult(request.getReference(), policy, Outcome.UNFULFILLED, shortfalls));
+        }
+        try {
+            return apply(request, policy, products, requested, holds, shortfalls);
+        } catch (RuntimeException e) {
+            holds.values().forEach(reservations::releaseHold);
+            throw e;
+        }
+    }
+
+    // Takes what each line holds; the holds are let go once the transaction completes
+    private OrderDto.FulfilmentResult apply(OrderDto.FulfilmentRequest request, Policy policy, List<Product> products,
+            Map<Long, Integer> requested, Map<Long, StockReservationService.Hold> holds,
+            List<OrderDto.LineResult> shortfalls) {
+        // Dirty products are flushed as one batch of updates at commit
+        LocalDateTime now = LocalDateTime.now();
+        String username = SecurityUtil.currentUsername();
+        List<OrderDto.LineResult> lines = new ArrayList<>();
+        List<StockMovement> movements = new ArrayList<>();
+        List<Product> changed = new ArrayList<>();
+        for (Product product : products) {
+            int wanted = requested.get(product.getId());
+            int taken = Math.min(wanted, holds.get(product.getId()).getQuantity());
+            if (taken > 0) {
+                Product.ProductStatus previousStatus = product.getStatus();
+                product.setQuantity(product.getQuantity() - taken);
+                product.setUpdatedAt(now);
+                movements.add(new StockMovement(product.getId(), -taken, StockMovement.Reason.SALE, username));
+                stockAlertService.recordTransition(product, previousStatus);
+                changed.add(product);
+            }
+            lines.add(new OrderDto.LineResult(product.getId(), wanted, taken, product.getQuantity(),
+                    product.getStatus()));
+        }
+        if (!movements.isEmpty()) {
+            stockLedgerService.recordAll(movements);
+        }
+        for (Product product : changed) {
+            eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+        }
+        reservationService.getObject().releaseAfterCompletion(new ArrayList<>(holds.values()));
+
+        Outcome outcome = changed.isEmpty() ? Outcome.UNFULFILLED
+                : shortfalls.isEmpty() ? Outcome.FULFILLED : Outcome.PARTIAL;
+        return new OrderDto.FulfilmentResult(request.getReference(), policy, outcome, lines);
+    }
+}
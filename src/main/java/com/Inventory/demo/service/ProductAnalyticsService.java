@@ -0,0 +1,146 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.Inventory.demo.dto.ReportDto;
+import com.Inventory.demo.util.ProductAggregator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ad-hoc group-by reports over the columns of ProductReadModel. Queries never touch the database,
+// and since committed product writes are applied to the columns as they happen, results are as
+// current as the catalog.
+@Service
+public class ProductAnalyticsService {
+
+    private static final int MAX_LIMIT = 10000;
+
+    @Autowired
+    private ProductReadModel readModel;
+
+    public ReportDto.GroupResult query(ReportDto.GroupQuery query) {
+        long start = System.nanoTime();
+        List<ProductAggregator.Dimension> groupBy = new ArrayList<>();
+        for (String column : query.getGroupBy()) {
+            ProductAggregator.Dimension dimension = dimension(column);
+            if (groupBy.contains(dimension)) {
+                throw new IllegalArgumentException("Grouped by " + column + " twice");
+            }
+            groupBy.add(dimension);
+        }
+        Map<ProductAggregator.Dimension, List<String>> filters = new LinkedHashMap<>();
+        addFilter(filters, ProductAggregator.Dimension.CATEGORY, query.getCategory());
+        addFilter(filters, ProductAggregator.Dimension.SUPPLIER, query.getSupplier());
+        addFilter(filters, ProductAggregator.Dimension.LOCATION, query.getLocation());
+        addFilter(filters, ProductAggregator.Dimension.STATUS, query.getStatus());
+        if (query.getLimit() < 1 || query.getLimit() > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        Comparator<ProductAggregator.Aggregate> order = order(query.getSort(), query.getDirection());
+
+        if (!readModel.isLoaded()) {
+            throw new IllegalStateException("The catalog is still loading");
+        }
+        LocalDateTime at = LocalDateTime.now();
+        List<ProductAggregator.Aggregate> aggregates = readModel.aggregate(groupBy, filters,
+                query.getMinPrice() != null ? query.getMinPrice() : Double.NEGATIVE_INFINITY,
+                query.getMaxPrice() != null ? query.getMaxPrice() : Double.POSITIVE_INFINITY,
+                query.getMinQuantity() != null ? query.getMinQuantity() : Integer.MIN_VALUE,
+                query.getMaxQuantity() != null ? query.getMaxQuantity() : Integer.MAX_VALUE);
+        aggregates.sort(order);
+
+        ReportDto.GroupResult result = new ReportDto.GroupResult();
+        result.setGroupBy(groupBy.stream().map(d -> d.name().toLowerCase()).toList());
+        result.setTotalGroups(aggregates.size());
+        for (ProductAggregator.Aggregate aggregate : aggregates.subList(0, Math.min(aggregates.size(), query.getLimit()))) {
+            result.getGroups().add(toRow(groupBy, aggregate));
+        }
+        result.setRowsScanned(readModel.count());
+        result.setSnapshotAt(at);
+        result.setElapsedMicros((System.nanoTime() - start) / 1000);
+        return result;
+    }
+
+    private static ReportDto.GroupRow toRow(List<ProductAggregator.Dimension> groupBy,
+            ProductAggregator.Aggregate aggregate) {
+        ReportDto.GroupRow row = new ReportDto.GroupRow();
+        for (int g = 0; g < groupBy.size(); g++) {
+            String value = aggregate.getKeys()[g];
+            row.getKey().put(groupBy.get(g).name().toLowerCase(), value != null ? value : InventoryRollupService.NONE_KEY);
+        }
+        row.setCount(aggregate.getCount());
+        row.setTotalQuantity(aggregate.getQuantity());
+        row.setTotalValue(aggregate.getValue());
+        row.setAveragePrice(aggregate.getAveragePrice());
+        row.setMinPrice(aggregate.getMinPrice());
+        row.setMaxPrice(aggregate.getMaxPrice());
+        return row;
+    }
+
+    private static void addFilter(Map<ProductAggregator.Dimension, List<String>> filters,
+            ProductAggregator.Dimension dimension, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        List<String> resolved = new ArrayList<>();
+        for (String value : values) {
+            String trimmed = value.trim();
+            if (trimmed.isEmpty() || trimmed.equals(InventoryRollupService.NONE_KEY)) {
+                resolved.add(null);
+            } else {
+                // Statuses are stored by enum name
+                resolved.add(dimension == ProductAggregator.Dimension.STATUS ? trimmed.toUpperCase() : trimmed);
+            }
+        }
+        filters.put(dimension, resolved);
+    }
+
+    private static ProductAggregator.Dimension dimension(String column) {
+        return ProductAggregator.Dimension.valueOf(column.trim().toUpperCase());
+    }
+
+    private static Comparator<ProductAggregator.Aggregate> order(String sort, String direction) {
+        Comparator<ProductAggregator.Aggregate> byKey = (a, b) -> {
+            for (int i = 0; i < a.getKeys().length; i++) {
+                int c = Comparator.nullsLast(Comparator.<String>naturalOrder()).compare(a.getKeys()[i], b.getKeys()[i]);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        };
+        Comparator<ProductAggregator.Aggregate> order;
+        switch (sort.trim().toLowerCase()) {
+            case "value":
+                order = Comparator.comparingDouble(ProductAggregator.Aggregate::getValue);
+                break;
+            case "quantity":
+                order = Comparator.comparingLong(ProductAggregator.Aggregate::getQuantity);
+                break;
+            case "count":
+                order = Comparator.comparingLong(ProductAggregator.Aggregate::getCount);
+                break;
+            case "averageprice":
+                order = Comparator.comparingDouble(ProductAggregator.Aggregate::getAveragePrice);
+                break;
+            case "key":
+                order = byKey;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            order = order.reversed();
+        } else if (!"asc".equalsIgnoreCase(direction)) {
+            throw new IllegalArgumentException("Unknown direction: " + direction);
+        }
+        // Ties in key order, so equal totals list the same way every time
+        return order.thenComparing(byKey);
+    }
+}
@@ -0,0 +1,367 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Inventory.demo.dto.ReportDto;
+import com.Inventory.demo.entity.InventoryRollup;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.event.ProductChangedEvent;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.util.HyperLogLog;
+import com.Inventory.demo.util.KllSketch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Price and quantity quantiles and distinct supplier, location and category counts per category,
+// supplier and location (and for the whole catalog), answered from KLL and HyperLogLog sketches
+// that product writes keep up to date. Nothing is kept per product. Sketches only ever grow, so
+// a changed product leaves its old values behind, and a deleted one or one that moved to another
+// key stays in its old group until a periodic recount of each group in the database notices. A
+// group whose left-behind values pass a fraction of its values is rebuilt on the next refresh,
+// from the database rows with its key only, which bounds the extra error. Both are rate-limited by
+// time: the recount's GROUP BYs run at most once per recount interval, and only after updates or
+// deletes (an insert leaves nothing behind), and a group is rebuilt at most once per rebuild
+// interval however stale it gets, so a steady stream of writes cannot keep re-reading the catalog
+// for the TOTAL group.
+@Service
+public class ProductDistributionService {
+
+    private static final String SEPARATOR = "\u0000";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.distribution.kll-k:200}")
+    private int kllK;
+
+    @Value("${inventory.distribution.hll-precision:10}")
+    private int hllPrecision;
+
+    @Value("${inventory.distribution.max-stale-fraction:0.1}")
+    private double maxStaleFraction;
+
+    @Value("${inventory.distribution.recount-interval-ms:60000}")
+    private long recountIntervalMs;
+
+    @Value("${inventory.distribution.min-rebuild-interval-ms:600000}")
+    private long minRebuildIntervalMs;
+
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+    // Updates and deletes seen, and how many of them the last recount covered
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long recountedChanges;
+    private volatile long recountedAt = System.nanoTime();
+    // Rows written while the whole catalog is being read, applied again once it is in
+    private volatile List<Row> writtenDuringLoad;
+
+    // One product's values as a write announced them; not kept once fed to the sketches
+    private static final class Row {
+        final String category;
+        final String supplier;
+        final String location;
+        final double price;
+        final int quantity;
+
+        Row(String category, String supplier, String location, double price, int quantity) {
+            this.category = groupKey(category);
+            this.supplier = groupKey(supplier);
+            this.location = groupKey(location);
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        Row(Object[] columns) {
+            this((String) columns[0], (String) columns[1], (String) columns[2], ((Number) columns[3]).doubleValue(),
+                    ((Number) columns[4]).intValue());
+        }
+
+        String keyFor(InventoryRollup.Dimension dimension) {
+            switch (dimension) {
+                case CATEGORY:
+                    return category;
+                case SUPPLIER:
+                    return supplier;
+                case LOCATION:
+                    return location;
+                default:
+                    return InventoryRollupService.TOTAL_KEY;
+            }
+        }
+    }
+
+    private final class Sketches {
+        final KllSketch price = new KllSketch(kllK);
+        final KllSketch quantity = new KllSketch(kllK);
+        final HyperLogLog suppliers = new HyperLogLog(hllPrecision);
+        final HyperLogLog locations = new HyperLogLog(hllPrecision);
+        final HyperLogLog categories = new HyperLogLog(hllPrecision);
+        int rows;
+
+        void feed(Row row) {
+            price.update(row.price);
+            quantity.update(row.quantity);
+            suppliers.add(row.supplier);
+            locations.add(row.location);
+            categories.add(row.category);
+            rows++;
+        }
+    }
+
+    private final class Group {
+        final InventoryRollup.Dimension dimension;
+        final String key;
+        Sketches sketches = new Sketches();
+        int live;
+        int stale;
+        // Rows written while a rebuild reads the database, applied again to the rebuilt sketches
+        List<Row> writtenDuringRebuild;
+        // When the sketches were last built from the database, or the group created
+        long rebuiltAt = System.nanoTime();
+
+        Group(InventoryRollup.Dimension dimension, String key) {
+            this.dimension = dimension;
+            this.key = key;
+        }
+
+        // A product that was already in the group leaves its previous values behind. One that
+        // moved here from another key counts from the next recount, unless the group was empty.
+        synchronized void add(Row row, boolean existing) {
+            sketches.feed(row);
+            if (existing && live > 0) {
+                stale++;
+            } else {
+                live++;
+            }
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.add(row);
+            }
+        }
+
+        // Products the database no longer has under this key left their values behind
+        synchronized void recount(int count) {
+            stale += Math.max(0, live - count);
+            live = count;
+        }
+
+        synchronized boolean startRebuild(long now) {
+            if (writtenDuringRebuild != null || staleFraction() <= maxStaleFraction
+                    || now - rebuiltAt < TimeUnit.MILLISECONDS.toNanos(minRebuildIntervalMs)) {
+                return false;
+            }
+            writtenDuringRebuild = new ArrayList<>();
+            return true;
+        }
+
+        // Rows written meanwhile may be in the database result too, so they count as stale
+        synchronized void finishRebuild(Sketches rebuilt, long now) {
+            sketches = rebuilt;
+            rebuiltAt = now;
+            live = rebuilt.rows;
+            stale = 0;
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.forEach(sketches::feed);
+                stale = writtenDuringRebuild.size();
+            }
+            writtenDuringRebuild = null;
+        }
+
+        synchronized void abandonRebuild() {
+            writtenDuringRebuild = null;
+        }
+
+        // Share of the values in the sketches that no live product holds any more
+        private double staleFraction() {
+            return live + stale > 0 ? (double) stale / (live + stale) : 0;
+        }
+
+        synchronized ReportDto.Distribution describe(double[] quantiles) {
+            ReportDto.Distribution distribution = new ReportDto.Distribution(dimension, key, live);
+            for (double q : quantiles) {
+                String label = ReportDto.Distribution.label(q);
+                distribution.getPrice().put(label, sketches.price.quantile(q));
+                distribution.getQuantity().put(label, sketches.quantity.quantile(q));
+            }
+            distribution.setDistinctSuppliers(sketches.suppliers.estimate());
+            distribution.setDistinctLocations(sketches.locations.estimate());
+            distribution.setDistinctCategories(sketches.categories.estimate());
+            distribution.setStaleFraction(staleFraction());
+            return distribution;
+        }
+    }
+
+    // One pass over a projection of the product table, streamed so entities are never built
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Row> written = new ArrayList<>();
+        writtenDuringLoad = written;
+        long seen = changes.get();
+        Map<String, Group> loaded = new HashMap<>();
+        boolean complete = false;
+        try {
+            stream(null, null, rows -> rows.map(Row::new).forEach(row -> index(loaded, row, false)));
+            complete = true;
+        } finally {
+            synchronized (written) {
+                if (complete) {
+                    groups.clear();
+                    groups.putAll(loaded);
+                    recountedChanges = seen;
+                }
+                // They may be in what was read too, so they count as stale
+                written.forEach(row -> index(groups, row, true));
+                writtenDuringLoad = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            // Which groups it was in is only known to the database; the recount finds out
+            changes.incrementAndGet();
+            return;
+        }
+        Product product = event.getProduct();
+        // Version 0 is the insert; anything later replaces values the product had before, and
+        // may have moved it to another key
+        boolean existing = product.getVersion() != null && product.getVersion() > 0;
+        if (existing) {
+            changes.incrementAndGet();
+        }
+        Row row = new Row(product.getCategory(), product.getSupplier(), product.getLocation(), product.getPrice(),
+                product.getQuantity());
+        List<Row> written = writtenDuringLoad;
+        if (written != null) {
+            synchronized (written) {
+                if (writtenDuringLoad == written) {
+                    written.add(row);
+                    return;
+                }
+            }
+        }
+        index(groups, row, existing);
+    }
+
+    // Recounts the groups after updates and deletes, then rebuilds those that have drifted too far
+    @Scheduled(fixedDelayString = "${inventory.distribution.refresh-interval-ms:5000}")
+    public void refreshStaleGroups() {
+        long seen = changes.get();
+        long now = System.nanoTime();
+        if (seen != recountedChanges && now - recountedAt >= TimeUnit.MILLISECONDS.toNanos(recountIntervalMs)) {
+            recount();
+            recountedChanges = seen;
+            recountedAt = now;
+        }
+        for (Group group : groups.values()) {
+            if (!group.startRebuild(now)) {
+                continue;
+            }
+            try {
+                Sketches rebuilt = new Sketches();
+                boolean none = group.key.equals(InventoryRollupService.NONE_KEY);
+                stream(group.dimension, none ? "" : group.key, rows -> rows.map(Row::new).forEach(rebuilt::feed));
+                group.finishRebuild(rebuilt, System.nanoTime());
+            } catch (RuntimeException e) {
+                group.abandonRebuild();
+                throw e;
+            }
+        }
+    }
+
+    // Without a key, every group of the dimension, largest first. Groups left without products
+    // are not reported.
+    public List<ReportDto.Distribution> getDistribution(InventoryRollup.Dimension dimension, String key,
+            double[] quantiles) {
+        if (dimension == InventoryRollup.Dimension.TOTAL) {
+            key = InventoryRollupService.TOTAL_KEY;
+        }
+        List<Group> candidates = new ArrayList<>();
+        if (key != null) {
+            Group group = groups.get(dimension + SEPARATOR + key);
+            if (group != null) {
+                candidates.add(group);
+            }
+        } else {
+            for (Group group : groups.values()) {
+                if (group.dimension == dimension) {
+                    candidates.add(group);
+                }
+            }
+        }
+        List<ReportDto.Distribution> result = new ArrayList<>();
+        for (Group group : candidates) {
+            ReportDto.Distribution distribution = group.describe(quantiles);
+            if (distribution.getCount() > 0) {
+                result.add(distribution);
+            }
+        }
+        result.sort(Comparator.comparingLong(ReportDto.Distribution::getCount).reversed()
+                .thenComparing(ReportDto.Distribution::getKey));
+        return result;
+    }
+
+    private void index(Map<String, Group> groups, Row row, boolean existing) {
+        for (InventoryRollup.Dimension dimension : InventoryRollup.Dimension.values()) {
+            String key = row.keyFor(dimension);
+            groups.computeIfAbsent(dimension + SEPARATOR + key, k -> new Group(dimension, key)).add(row, existing);
+        }
+    }
+
+    // One GROUP BY per dimension; groups the database no longer has are counted down to none
+    private void recount() {
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put(InventoryRollup.Dimension.TOTAL + SEPARATOR + InventoryRollupService.TOTAL_KEY,
+                (int) productRepository.count());
+        addCounts(counts, InventoryRollup.Dimension.CATEGORY, productRepository.countByCategory());
+        addCounts(counts, InventoryRollup.Dimension.SUPPLIER, productRepository.countBySupplier());
+        addCounts(counts, InventoryRollup.Dimension.LOCATION, productRepository.countByLocation());
+        groups.forEach((key, group) -> group.recount(counts.getOrDefault(key, 0)));
+    }
+
+    private static void addCounts(Map<String, Integer> counts, InventoryRollup.Dimension dimension,
+            List<Object[]> rows) {
+        for (Object[] row : rows) {
+            counts.merge(dimension + SEPARATOR + groupKey((String) row[0]), ((Number) row[1]).intValue(),
+                    Integer::sum);
+        }
+    }
+
+    // The rows of one group, or of the whole catalog without a dimension
+    private void stream(InventoryRollup.Dimension dimension, String key, Consumer<Stream<Object[]>> consumer) {
+        boolean none = key != null && key.isEmpty();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = dimension == null || dimension == InventoryRollup.Dimension.TOTAL
+                    ? productRepository.streamDistributionRows()
+                    : switch (dimension) {
+                        case CATEGORY -> productRepository.streamDistributionRowsByCategory(key, none);
+                        case SUPPLIER -> productRepository.streamDistributionRowsBySupplier(key, none);
+                        default -> productRepository.streamDistributionRowsByLocation(key, none);
+                    }) {
+                consumer.accept(rows);
+            }
+        });
+    }
+
+    private static String groupKey(String value) {
+        return value == null || value.isBlank() ? InventoryRollupService.NONE_KEY : value;
+    }
+}
@@ -0,0 +1,77 @@
+package com.Inventory.demo.service;
+
+import org.springframework.stereotype.Service;
+
+import com.Inventory.demo.dto.SearchDto;
+import com.Inventory.demo.entity.Product;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Facet counts for a search result, gathered in a single pass over the matching products
+@Service
+public class ProductFacetService {
+
+    // Upper bounds of the price buckets; the last bucket is open-ended
+    private static final double[] PRICE_EDGES = { 25, 100, 500, 1000 };
+
+    private static final String UNSPECIFIED = "Unspecified";
+
+    public SearchDto.Facets count(List<Product> products) {
+        Map<String, Long> category = new HashMap<>();
+        Map<String, Long> supplier = new HashMap<>();
+        Map<String, Long> location = new HashMap<>();
+        long[] status = new long[Product.ProductStatus.values().length];
+        long[] price = new long[PRICE_EDGES.length + 1];
+
+        for (Product product : products) {
+            category.merge(label(product.getCategory()), 1L, Long::sum);
+            supplier.merge(label(product.getSupplier()), 1L, Long::sum);
+            location.merge(label(product.getLocation()), 1L, Long::sum);
+            if (product.getStatus() != null) {
+                status[product.getStatus().ordinal()]++;
+            }
+            price[priceBucket(product.getPrice())]++;
+        }
+
+        SearchDto.Facets facets = new SearchDto.Facets();
+        facets.setCategory(byCountDescending(category));
+        facets.setSupplier(byCountDescending(supplier));
+        facets.setLocation(byCountDescending(location));
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        for (Product.ProductStatus s : Product.ProductStatus.values()) {
+            statusCounts.put(s.name(), status[s.ordinal()]);
+        }
+        facets.setStatus(statusCounts);
+        for (int i = 0; i < price.length; i++) {
+            Double min = i == 0 ? 0.0 : PRICE_EDGES[i - 1];
+            Double max = i < PRICE_EDGES.length ? PRICE_EDGES[i] : null;
+            String label = max == null ? String.format("%.0f+", min) : String.format("%.0f-%.0f", min, max);
+            facets.getPrice().add(new SearchDto.PriceBucket(label, min, max, price[i]));
+        }
+        return facets;
+    }
+
+    private static int priceBucket(double price) {
+        for (int i = 0; i < PRICE_EDGES.length; i++) {
+            if (price < PRICE_EDGES[i]) {
+                return i;
+            }
+        }
+        return PRICE_EDGES.length;
+    }
+
+    private static String label(String value) {
+        return value == null || value.isBlank() ? UNSPECIFIED : value;
+    }
+
+    private static Map<String, Long> byCountDescending(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,72 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.event.ProductChangedEvent;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.util.SearchText;
+import com.Inventory.demo.util.TrigramIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Misspelling-tolerant product search over name, category and supplier
+@Service
+public class ProductFuzzySearchService {
+
+    private static final double NAME_WEIGHT = 1.0;
+    private static final double CATEGORY_WEIGHT = 0.6;
+    private static final double SUPPLIER_WEIGHT = 0.5;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    // Reads the catalog in id-ordered pages, so it is never held as entities all at once
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.clear();
+        long after = 0;
+        List<Product> page;
+        do {
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Product product : page) {
+                index(product);
+                after = product.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            index.remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    // Ranked matches, best first
+    public List<TrigramIndex.Hit> search(String query, int limit) {
+        return index.search(SearchText.tokens(query), limit);
+    }
+
+    private void index(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        List<TrigramIndex.Field> fields = new ArrayList<>();
+        fields.add(new TrigramIndex.Field(SearchText.tokens(product.getName()), NAME_WEIGHT));
+        fields.add(new TrigramIndex.Field(SearchText.tokens(product.getCategory()), CATEGORY_WEIGHT));
+        fields.add(new TrigramIndex.Field(SearchText.tokens(product.getSupplier()), SUPPLIER_WEIGHT));
+        index.put(product.getId(), fields);
+    }
+}
@@ -0,0 +1,90 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.Inventory.demo.dto.SearchDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.repository.ProductSpecifications;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Turns a ProductQuery into one parameterized statement; which index serves it is up to the
+// database's planner.
+@Service
+public class ProductQueryService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final Set<String> SORTABLE = Set.of("id", "name", "category", "supplier", "location",
+            "price", "quantity", "status", "createdAt", "updatedAt");
+
+    // Dictionary-encoded columns sort by their text, not by the id stored in the product row
+    private static final Map<String, String> SORT_PATHS = Map.of("category", "categoryValue.name",
+            "supplier", "supplierValue.name", "location", "locationValue.name", "status", "statusValue.name");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    public Page<Product> query(SearchDto.ProductQuery query) {
+        if (!SORTABLE.contains(query.getSort())) {
+            throw new IllegalArgumentException("Unsupported sort field: " + query.getSort());
+        }
+        if (query.getPage() < 0 || query.getSize() < 1 || query.getSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Specification<Product> where = null;
+        for (Specification<Product> predicate : predicates(query)) {
+            where = where == null ? Specification.where(predicate) : where.and(predicate);
+        }
+
+        Sort.Direction direction = "desc".equalsIgnoreCase(query.getDirection()) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, SORT_PATHS.getOrDefault(query.getSort(), query.getSort()));
+        if (!"id".equals(query.getSort())) {
+            // Keep paging stable when the sort column has ties
+            sort = sort.and(Sort.by(Sort.Direction.ASC, "id"));
+        }
+        PageRequest pageRequest = PageRequest.of(query.getPage(), query.getSize(), sort);
+        return where == null ? productRepository.findAll(pageRequest) : productRepository.findAll(where, pageRequest);
+    }
+
+    // One predicate per supplied filter
+    private List<Specification<Product>> predicates(SearchDto.ProductQuery query) {
+        List<Specification<Product>> predicates = new ArrayList<>();
+        if (hasText(query.getCategory())) {
+            predicates.add(ProductSpecifications.categoryEquals(query.getCategory().trim()));
+        }
+        if (hasText(query.getSupplier())) {
+            predicates.add(ProductSpecifications.supplierEquals(query.getSupplier().trim()));
+        }
+        if (hasText(query.getLocation())) {
+            predicates.add(ProductSpecifications.locationEquals(query.getLocation().trim()));
+        }
+        if (query.getStatus() != null) {
+            predicates.add(ProductSpecifications.statusEquals(query.getStatus()));
+        }
+        if (query.getMinPrice() != null || query.getMaxPrice() != null) {
+            predicates.add(ProductSpecifications.priceBetween(query.getMinPrice(), query.getMaxPrice()));
+        }
+        if (query.getMinQuantity() != null || query.getMaxQuantity() != null) {
+            predicates.add(ProductSpecifications.quantityBetween(query.getMinQuantity(), query.getMaxQuantity()));
+        }
+        if (query.getUpdatedSince() != null) {
+            predicates.add(ProductSpecifications.updatedSince(query.getUpdatedSince()));
+        }
+        return predicates;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,841 @@
+package com.Inventory.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.Inventory.demo.dto.ProductDto;
+import com.Inventory.demo.dto.ReadModelDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.event.ProductChangedEvent;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.util.ProductAggregator;
+import com.Inventory.demo.util.SnapshotFile;
+import com.Inventory.demo.util.StringDictionary;
+import com.Inventory.demo.util.TopN;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Query side of the product catalog. The whole catalog is held in memory as columns: primitive
+// arrays for the numbers and timestamps, dictionary codes for category, supplier and location,
+// and a slot index by id. Committed product writes are applied as they happen, and ad-hoc
+// group-by reports (ProductAnalyticsService) aggregate over the columns. When enabled, list,
+// filter and by-id reads are answered from it too, without touching JDBC. Rows are kept in id
+// order, like the repository's findAll.
+//
+// Unless the snapshot path is blank, the columns are also saved to a binary snapshot file now and
+// then and on shutdown, whether or not reads are served from them. At startup the snapshot is
+// mapped and copied back in, and only products deleted or changed since it was taken are read from
+// the database, instead of the whole table. Changed ones
+// are found by their version column, which the database bumps on every write, so no clock is
+// involved and a transaction that committed late is not missed.
+@Service
+public class ProductReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductReadModel.class);
+
+    // Bump whenever the snapshot layout or the status enum changes
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int ID_PAGE_SIZE = 10000;
+    private static final int MIN_CAPACITY = 64;
+    private static final int MAX_REPORTED_IDS = 100;
+    // Status codes are the enum ordinals; read-only once built
+    private static final StringDictionary STATUS_DICTIONARY = new StringDictionary();
+
+    static {
+        for (Product.ProductStatus status : Product.ProductStatus.values()) {
+            STATUS_DICTIONARY.encode(status.name());
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Whether product reads are served from here; the columns are kept either way
+    @Value("${inventory.read-model.enabled:false}")
+    private boolean enabled;
+
+    // Blank to run without a snapshot
+    @Value("${inventory.read-model.snapshot.path:data/catalog.snapshot}")
+    private String snapshotPath;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    // False once an id arrives below the highest one seen; reads put the rows back in order
+    private volatile boolean ordered = true;
+
+    // One entry per slot; a slot whose id is 0 held a deleted product and awaits compaction
+    private int size;
+    private int deleted;
+    private long maxId;
+    private long[] ids;
+    private long[] versions;
+    private double[] prices;
+    private int[] quantities;
+    private int[] reorderPoints;
+    // Enum ordinal, -1 for none
+    private int[] statuses;
+    private int[] categories;
+    private int[] suppliers;
+    private int[] locations;
+    private String[] names;
+    private String[] descriptions;
+    private String[] skus;
+    // Epoch microseconds (UTC wall clock), the precision the database keeps
+    private long[] createdAt;
+    private long[] updatedAt;
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private StringDictionary categoryDictionary;
+    private StringDictionary supplierDictionary;
+    private StringDictionary locationDictionary;
+
+    public boolean isServing() {
+        return enabled && loaded;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Writes that commit meanwhile wait for the lock and are applied on top
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            if (!restoreSnapshot()) {
+                loadAll();
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Copies the columns under the read lock, then writes the copy with no lock held, so committed
+    // writes only wait for the copy and not for the disk
+    @Scheduled(fixedDelayString = "${inventory.read-model.snapshot.interval-ms:600000}",
+            initialDelayString = "${inventory.read-model.snapshot.interval-ms:600000}")
+    public synchronized void writeSnapshot() {
+        if (!loaded || snapshotPath.isBlank()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Columns columns;
+        lock.readLock().lock();
+        try {
+            columns = new Columns(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+        long copied = System.nanoTime();
+        try (SnapshotFile.Writer writer = SnapshotFile.create(Paths.get(snapshotPath), SNAPSHOT_FORMAT,
+                toMicros(LocalDateTime.now()))) {
+            columns.write(writer);
+            writer.commit();
+            log.info("Wrote read model snapshot of {} products to {} in {} ms ({} ms copying)", columns.live,
+                    snapshotPath, (System.nanoTime() - start) / 1_000_000, (copied - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Writing read model snapshot to {} failed: {}", snapshotPath, e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void writeSnapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (ids == null) {
+                return;
+            }
+            if (event.isDeleted()) {
+                remove(event.getProductId());
+            } else {
+                put(event.getProduct(), false);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductDto> findAll() {
+        ensureOrdered();
+        lock.readLock().lock();
+        try {
+            List<ProductDto> result = new ArrayList<>(size - deleted);
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0) {
+                    result.add(toDto(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<ProductDto> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            return slot == null ? Optional.empty() : Optional.of(toDto(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Case-insensitive, like the repository query: every spelling of the category matches
+    public List<ProductDto> findByCategory(String category) {
+        ensureOrdered();
+        lock.readLock().lock();
+        try {
+            boolean[] matching = new boolean[categoryDictionary.size()];
+            for (int code = 0; code < matching.length; code++) {
+                matching[code] = category.equalsIgnoreCase(categoryDictionary.decode(code));
+            }
+            List<ProductDto> result = new ArrayList<>();
+            for (int slot = 0; slot < size; slot++) {
+                int code = categories[slot];
+                if (ids[slot] != 0 && code != StringDictionary.NONE && matching[code]) {
+                    result.add(toDto(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // At or below each product's own reorder point, out-of-stock included
+    public List<ProductDto> findLowStock() {
+        ensureOrdered();
+        lock.readLock().lock();
+        try {
+            List<ProductDto> result = new ArrayList<>();
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0 && quantities[slot] <= reorderPoints[slot]) {
+                    result.add(toDto(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Literal match on name, description or category, ignoring case, as ProductService.searchProducts
+    public List<ProductDto> search(String query) {
+        ensureOrdered();
+        lock.readLock().lock();
+        try {
+            boolean[] matchingCategory = new boolean[categoryDictionary.size()];
+            for (int code = 0; code < matchingCategory.length; code++) {
+                matchingCategory[code] = containsIgnoreCase(categoryDictionary.decode(code), query);
+            }
+            List<ProductDto> result = new ArrayList<>();
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] == 0) {
+                    continue;
+                }
+                int code = categories[slot];
+                if (containsIgnoreCase(names[slot], query) || containsIgnoreCase(descriptions[slot], query)
+                        || (code != StringDictionary.NONE && matchingCategory[code])) {
+                    result.add(toDto(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Live products grouped and summed as ProductAggregator describes; reads the columns in place
+    // under the read lock, so writes wait for the query rather than a copy being taken
+    public List<ProductAggregator.Aggregate> aggregate(List<ProductAggregator.Dimension> groupBy,
+            Map<ProductAggregator.Dimension, ? extends Collection<String>> filters, double minPrice, double maxPrice,
+            int minQuantity, int maxQuantity) {
+        lock.readLock().lock();
+        try {
+            return new ProductAggregator(ids, prices, quantities, size)
+                    .column(ProductAggregator.Dimension.CATEGORY, categoryDictionary, categories)
+                    .column(ProductAggregator.Dimension.SUPPLIER, supplierDictionary, suppliers)
+                    .column(ProductAggregator.Dimension.LOCATION, locationDictionary, locations)
+                    .column(ProductAggregator.Dimension.STATUS, STATUS_DICTIONARY, statuses)
+                    .aggregate(groupBy, filters, minPrice, maxPrice, minQuantity, maxQuantity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of the n live products with the highest inventory value (price * quantity) or quantity,
+    // ties by lowest id, optionally within one category and location. Matches are exact, like the
+    // repository's ranking query; a value no product has matches nothing.
+    public List<Long> topIds(boolean byValue, int n, String category, String location) {
+        lock.readLock().lock();
+        try {
+            int categoryCode = category == null ? StringDictionary.NONE : categoryDictionary.lookup(category);
+            int locationCode = location == null ? StringDictionary.NONE : locationDictionary.lookup(location);
+            if ((category != null && categoryCode == StringDictionary.NONE)
+                    || (location != null && locationCode == StringDictionary.NONE)) {
+                return List.of();
+            }
+            TopN<Integer> top = new TopN<>(n, Comparator.<Integer>comparingDouble(slot -> byValue
+                    ? prices[slot] * quantities[slot] : quantities[slot])
+                    .thenComparing(slot -> -ids[slot]));
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0 && (category == null || categories[slot] == categoryCode)
+                        && (location == null || locations[slot] == locationCode)) {
+                    top.offer(slot);
+                }
+            }
+            List<Long> result = new ArrayList<>(n);
+            for (int slot : top.toList()) {
+                result.add(ids[slot]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return size - deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Compares every product in the database with its in-memory row. A write racing the check can
+    // show up as a one-off mismatch; repair reloads the model when anything differs.
+    public ReadModelDto.Verification verify(boolean repair) {
+        long start = System.nanoTime();
+        ReadModelDto.Verification verification = new ReadModelDto.Verification();
+        Set<Long> seen = new HashSet<>();
+        long after = 0;
+        List<Product> page;
+        do {
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Product product : page) {
+                after = product.getId();
+                seen.add(product.getId());
+                Optional<ProductDto> actual = findById(product.getId());
+                if (actual.isEmpty()) {
+                    report(verification.getMissing(), product.getId());
+                } else if (!sameRow(new ProductDto(product), actual.get())) {
+                    report(verification.getMismatched(), product.getId());
+                }
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0 && !seen.contains(ids[slot])) {
+                    report(verification.getUnexpected(), ids[slot]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        verification.setChecked(seen.size());
+        verification.setConsistent(verification.getMissing().isEmpty() && verification.getUnexpected().isEmpty()
+                && verification.getMismatched().isEmpty());
+        if (repair && !verification.isConsistent()) {
+            lock.writeLock().lock();
+            try {
+                loadAll();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            verification.setRepaired(true);
+        }
+        verification.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return verification;
+    }
+
+    // Reads the whole table in id-ordered pages, so it is never held as entities all at once.
+    // Caller holds the write lock.
+    private void loadAll() {
+        reset(MIN_CAPACITY);
+        long after = 0;
+        List<Product> page;
+        do {
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Product product : page) {
+                put(product, true);
+                after = product.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    // False when there is no usable snapshot; caller holds the write lock
+    private boolean restoreSnapshot() {
+        if (snapshotPath.isBlank() || !Files.exists(Paths.get(snapshotPath))) {
+            return false;
+        }
+        long start = System.nanoTime();
+        Path path = Paths.get(snapshotPath);
+        long token;
+        try {
+            SnapshotFile.Reader reader = SnapshotFile.open(path, SNAPSHOT_FORMAT);
+            readColumns(reader);
+            token = reader.getToken();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring read model snapshot {}: {}", path, e.toString());
+            return false;
+        }
+        long restored = size;
+        long mapped = System.nanoTime();
+        int[] caughtUp = catchUp();
+        log.info("Restored {} products from snapshot {} taken at {} in {} ms; caught up {} changed and {} deleted "
+                + "in {} ms", restored, path, fromMicros(token), (mapped - start) / 1_000_000, caughtUp[0], caughtUp[1],
+                (System.nanoTime() - mapped) / 1_000_000);
+        return true;
+    }
+
+    // Brings restored columns up to date: rows whose product is gone are dropped, products the
+    // snapshot lacks or holds at another version are read again. Returns {reloaded, dropped}.
+    private int[] catchUp() {
+        long[] live = new long[Math.max(MIN_CAPACITY, size)];
+        int count = 0;
+        List<Long> stale = new ArrayList<>();
+        List<Object[]> page;
+        long after = 0;
+        do {
+            page = productRepository.findVersionsAfter(after, PageRequest.of(0, ID_PAGE_SIZE));
+            for (Object[] row : page) {
+                long id = ((Number) row[0]).longValue();
+                long version = row[1] != null ? ((Number) row[1]).longValue() : 0;
+                if (count == live.length) {
+                    live = Arrays.copyOf(live, count * 2);
+                }
+                live[count++] = id;
+                Integer slot = slots.get(id);
+                if (slot == null || versions[slot] != version) {
+                    stale.add(id);
+                }
+                after = id;
+            }
+        } while (page.size() == ID_PAGE_SIZE);
+
+        List<Long> gone = new ArrayList<>();
+        for (int slot = 0; slot < size; slot++) {
+            if (ids[slot] != 0 && Arrays.binarySearch(live, 0, count, ids[slot]) < 0) {
+                gone.add(ids[slot]);
+            }
+        }
+        gone.forEach(this::remove);
+
+        int reloaded = 0;
+        for (int from = 0; from < stale.size(); from += LOAD_PAGE_SIZE) {
+            for (Product product : productRepository.findAllById(
+                    stale.subList(from, Math.min(stale.size(), from + LOAD_PAGE_SIZE)))) {
+                put(product, true);
+                reloaded++;
+            }
+        }
+        return new int[] { reloaded, gone.size() };
+    }
+
+    // A copy of the columns for the snapshot writer to work from after the lock is released.
+    // The arrays are copied whole; strings are immutable and shared.
+    private static final class Columns {
+        final List<String[]> dictionaries = new ArrayList<>();
+        final int size;
+        final int live;
+        final long[] ids;
+        final long[] versions;
+        final double[] prices;
+        final List<int[]> ints;
+        final int[] statuses;
+        final List<long[]> times;
+        final List<String[]> texts;
+
+        // Caller holds at least the read lock
+        Columns(ProductReadModel model) {
+            for (StringDictionary dictionary : List.of(model.categoryDictionary, model.supplierDictionary,
+                    model.locationDictionary)) {
+                String[] values = new String[dictionary.size()];
+                for (int code = 0; code < values.length; code++) {
+                    values[code] = dictionary.decode(code);
+                }
+                dictionaries.add(values);
+            }
+            size = model.size;
+            live = model.size - model.deleted;
+            ids = Arrays.copyOf(model.ids, size);
+            versions = Arrays.copyOf(model.versions, size);
+            prices = Arrays.copyOf(model.prices, size);
+            ints = new ArrayList<>();
+            for (int[] column : List.of(model.quantities, model.reorderPoints, model.categories, model.suppliers,
+                    model.locations)) {
+                ints.add(Arrays.copyOf(column, size));
+            }
+            statuses = Arrays.copyOf(model.statuses, size);
+            times = List.of(Arrays.copyOf(model.createdAt, size), Arrays.copyOf(model.updatedAt, size));
+            texts = List.of(Arrays.copyOf(model.names, size), Arrays.copyOf(model.descriptions, size),
+                    Arrays.copyOf(model.skus, size));
+        }
+
+        // Live rows only, each column in one run
+        void write(SnapshotFile.Writer writer) throws IOException {
+            for (String[] values : dictionaries) {
+                writer.putInt(values.length);
+                for (String value : values) {
+                    writer.putString(value);
+                }
+            }
+            writer.putInt(live);
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0) {
+                    writer.putLong(ids[slot]);
+                }
+            }
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0) {
+                    writer.putLong(versions[slot]);
+                }
+            }
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0) {
+                    writer.putDouble(prices[slot]);
+                }
+            }
+            for (int[] column : ints) {
+                for (int slot = 0; slot < size; slot++) {
+                    if (ids[slot] != 0) {
+                        writer.putInt(column[slot]);
+                    }
+                }
+            }
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0) {
+                    writer.putByte((byte) statuses[slot]);
+                }
+            }
+            for (long[] column : times) {
+                for (int slot = 0; slot < size; slot++) {
+                    if (ids[slot] != 0) {
+                        writer.putLong(column[slot]);
+                    }
+                }
+            }
+            for (String[] column : texts) {
+                for (int slot = 0; slot < size; slot++) {
+                    if (ids[slot] != 0) {
+                        writer.putString(column[slot]);
+                    }
+                }
+            }
+        }
+    }
+
+    // The mirror image of Columns.write; caller holds the write lock
+    private void readColumns(SnapshotFile.Reader reader) {
+        List<String[]> dictionaries = new ArrayList<>();
+        for (int d = 0; d < 3; d++) {
+            String[] values = new String[reader.getInt()];
+            for (int code = 0; code < values.length; code++) {
+                values[code] = reader.getString();
+            }
+            dictionaries.add(values);
+        }
+        int rows = reader.getInt();
+        reset(Math.max(MIN_CAPACITY, rows + rows / 4));
+        for (String value : dictionaries.get(0)) {
+            categoryDictionary.encode(value);
+        }
+        for (String value : dictionaries.get(1)) {
+            supplierDictionary.encode(value);
+        }
+        for (String value : dictionaries.get(2)) {
+            locationDictionary.encode(value);
+        }
+        reader.getLongs(ids, rows);
+        reader.getLongs(versions, rows);
+        reader.getDoubles(prices, rows);
+        for (int[] column : List.of(quantities, reorderPoints, categories, suppliers, locations)) {
+            reader.getInts(column, rows);
+        }
+        byte[] statusBytes = new byte[rows];
+        reader.getBytes(statusBytes, rows);
+        for (int slot = 0; slot < rows; slot++) {
+            statuses[slot] = statusBytes[slot];
+        }
+        reader.getLongs(createdAt, rows);
+        reader.getLongs(updatedAt, rows);
+        for (String[] column : List.of(names, descriptions, skus)) {
+            for (int slot = 0; slot < rows; slot++) {
+                column[slot] = reader.getString();
+            }
+        }
+        size = rows;
+        for (int slot = 0; slot < rows; slot++) {
+            slots.put(ids[slot], slot);
+            if (ids[slot] < maxId) {
+                ordered = false;
+            }
+            maxId = Math.max(maxId, ids[slot]);
+        }
+    }
+
+    private void reset(int capacity) {
+        size = 0;
+        deleted = 0;
+        maxId = 0;
+        ordered = true;
+        slots.clear();
+        ids = new long[capacity];
+        versions = new long[capacity];
+        prices = new double[capacity];
+        quantities = new int[capacity];
+        reorderPoints = new int[capacity];
+        statuses = new int[capacity];
+        categories = new int[capacity];
+        suppliers = new int[capacity];
+        locations = new int[capacity];
+        names = new String[capacity];
+        descriptions = new String[capacity];
+        skus = new String[capacity];
+        createdAt = new long[capacity];
+        updatedAt = new long[capacity];
+        categoryDictionary = new StringDictionary();
+        supplierDictionary = new StringDictionary();
+        locationDictionary = new StringDictionary();
+    }
+
+    // Caller holds the write lock. Only authoritative puts, straight from the database, may replace
+    // a row with a lower version.
+    private void put(Product product, boolean authoritative) {
+        if (product.getId() == null) {
+            return;
+        }
+        long version = product.getVersion() != null ? product.getVersion() : 0;
+        Integer slot = slots.get(product.getId());
+        if (slot == null) {
+            if (size == ids.length) {
+                grow(size * 2);
+            }
+            slot = size++;
+            slots.put(product.getId(), slot);
+            if (product.getId() < maxId) {
+                ordered = false;
+            }
+            maxId = Math.max(maxId, product.getId());
+        } else if (versions[slot] > version && !authoritative) {
+            // Commits of the same product can be announced out of order
+            return;
+        }
+        ids[slot] = product.getId();
+        versions[slot] = version;
+        prices[slot] = product.getPrice();
+        quantities[slot] = product.getQuantity();
+        reorderPoints[slot] = product.getReorderPoint();
+        statuses[slot] = product.getStatus() != null ? product.getStatus().ordinal() : StringDictionary.NONE;
+        categories[slot] = categoryDictionary.encode(product.getCategory());
+        suppliers[slot] = supplierDictionary.encode(product.getSupplier());
+        locations[slot] = locationDictionary.encode(product.getLocation());
+        names[slot] = product.getName();
+        descriptions[slot] = product.getDescription();
+        skus[slot] = product.getSku();
+        createdAt[slot] = toMicros(product.getCreatedAt());
+        updatedAt[slot] = toMicros(product.getUpdatedAt());
+    }
+
+    // Caller holds the write lock
+    private void remove(Long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        ids[slot] = 0;
+        names[slot] = null;
+        descriptions[slot] = null;
+        skus[slot] = null;
+        deleted++;
+        if (deleted > MIN_CAPACITY && deleted > size / 4) {
+            compact();
+        }
+    }
+
+    private void ensureOrdered() {
+        if (ordered) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ordered) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rewrites the live rows into fresh columns in id order; caller holds the write lock
+    private void compact() {
+        Integer[] live = new Integer[size - deleted];
+        int n = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (ids[slot] != 0) {
+                live[n++] = slot;
+            }
+        }
+        long[] sortIds = ids;
+        Arrays.sort(live, (a, b) -> Long.compare(sortIds[a], sortIds[b]));
+
+        long[] oldIds = ids, oldVersions = versions, oldCreatedAt = createdAt, oldUpdatedAt = updatedAt;
+        double[] oldPrices = prices;
+        int[] oldQuantities = quantities, oldReorderPoints = reorderPoints;
+        int[] oldCategories = categories, oldSuppliers = suppliers, oldLocations = locations;
+        int[] oldStatuses = statuses;
+        String[] oldNames = names, oldDescriptions = descriptions, oldSkus = skus;
+        StringDictionary oldCategoryDictionary = categoryDictionary;
+        StringDictionary oldSupplierDictionary = supplierDictionary;
+        StringDictionary oldLocationDictionary = locationDictionary;
+
+        // Fresh dictionaries also drop values no live product uses any more
+        reset(Math.max(MIN_CAPACITY, live.length * 2));
+        for (int slot : live) {
+            int target = size++;
+            ids[target] = oldIds[slot];
+            versions[target] = oldVersions[slot];
+            prices[target] = oldPrices[slot];
+            quantities[target] = oldQuantities[slot];
+            reorderPoints[target] = oldReorderPoints[slot];
+            statuses[target] = oldStatuses[slot];
+            categories[target] = categoryDictionary.encode(oldCategoryDictionary.decode(oldCategories[slot]));
+            suppliers[target] = supplierDictionary.encode(oldSupplierDictionary.decode(oldSuppliers[slot]));
+            locations[target] = locationDictionary.encode(oldLocationDictionary.decode(oldLocations[slot]));
+            names[target] = oldNames[slot];
+            descriptions[target] = oldDescriptions[slot];
+            skus[target] = oldSkus[slot];
+            createdAt[target] = oldCreatedAt[slot];
+            updatedAt[target] = oldUpdatedAt[slot];
+            slots.put(ids[target], target);
+            maxId = Math.max(maxId, ids[target]);
+        }
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        reorderPoints = Arrays.copyOf(reorderPoints, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        suppliers = Arrays.copyOf(suppliers, capacity);
+        locations = Arrays.copyOf(locations, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        skus = Arrays.copyOf(skus, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+    }
+
+    private ProductDto toDto(int slot) {
+        ProductDto dto = new ProductDto();
+        dto.setId(ids[slot]);
+        dto.setName(names[slot]);
+        dto.setDescription(descriptions[slot]);
+        dto.setCategory(categoryDictionary.decode(categories[slot]));
+        dto.setPrice(prices[slot]);
+        dto.setQuantity(quantities[slot]);
+        dto.setStatus(statuses[slot] >= 0 ? Product.ProductStatus.values()[statuses[slot]] : null);
+        dto.setSku(skus[slot]);
+        dto.setSupplier(supplierDictionary.decode(suppliers[slot]));
+        dto.setLocation(locationDictionary.decode(locations[slot]));
+        dto.setReorderPoint(reorderPoints[slot]);
+        dto.setCreatedAt(fromMicros(createdAt[slot]));
+        dto.setUpdatedAt(fromMicros(updatedAt[slot]));
+        dto.setVersion(versions[slot]);
+        return dto;
+    }
+
+    // Long.MIN_VALUE stands for null. Rounded half up, as the database stores fractional seconds.
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + (time.getNano() + 500) / 1000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    private static boolean sameRow(ProductDto expected, ProductDto actual) {
+        return Objects.equals(expected.getId(), actual.getId())
+                && Objects.equals(expected.getName(), actual.getName())
+                && Objects.equals(expected.getDescription(), actual.getDescription())
+                && Objects.equals(expected.getCategory(), actual.getCategory())
+                && expected.getPrice() == actual.getPrice()
+                && expected.getQuantity() == actual.getQuantity()
+                && expected.getStatus() == actual.getStatus()
+                && Objects.equals(expected.getSku(), actual.getSku())
+                && Objects.equals(expected.getSupplier(), actual.getSupplier())
+                && Objects.equals(expected.getLocation(), actual.getLocation())
+                && Objects.equals(expected.getReorderPoint(), actual.getReorderPoint())
+                && Objects.equals(expected.getCreatedAt(), actual.getCreatedAt())
+                && Objects.equals(expected.getUpdatedAt(), actual.getUpdatedAt())
+                && Objects.equals(expected.getVersion(), actual.getVersion());
+    }
+
+    private static boolean containsIgnoreCase(String text, String term) {
+        if (text == null) {
+            return false;
+        }
+        int last = text.length() - term.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, term, 0, term.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void report(List<Long> ids, Long id) {
+        if (ids.size() < MAX_REPORTED_IDS) {
+            ids.add(id);
+        }
+    }
+}
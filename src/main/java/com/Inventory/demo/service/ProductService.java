@@ -1,21 +1,81 @@
 package com.Inventory.demo.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.Inventory.demo.entity.AttributeValue;
 import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.entity.StockMovement;
+import com.Inventory.demo.event.ProductChangedEvent;
 import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.util.TrigramIndex;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 
 @Service
 public class ProductService {
 
+    private static final int FUZZY_FALLBACK_LIMIT = 50;
+
+    // Attempts at a stock delta before a version conflict is reported to the caller
+    private static final int MAX_STOCK_ATTEMPTS = 10;
+
+    public static class FuzzyMatch {
+        private final Product product;
+        private final double score;
+
+        public FuzzyMatch(Product product, double score) {
+            this.product = product;
+            this.score = score;
+        }
+
+        public Product getProduct() {
+            return product;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductFuzzySearchService fuzzySearchService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private AttributeDictionary attributeDictionary;
+
+    // A provider because the reservation engine writes its confirmations through this service
+    @Autowired
+    private ObjectProvider<StockReservationService> reservationService;
+
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
@@ -24,33 +84,166 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    // Quantity edits made directly on the entity are journaled as ADJUSTMENT movements
     public Product saveProduct(Product product) {
-        if (product.getId() == null) {
+        return saveProduct(product, StockMovement.Reason.ADJUSTMENT);
+    }
+
+    // New attribute values get their ids before the transaction starts, so the flush never has to
+    // open a second connection for them
+    public Product saveProduct(Product product, StockMovement.Reason reason) {
+        attributeDictionary.register(product);
+        return transactionTemplate.execute(status -> writeProduct(product, reason));
+    }
+
+    private Product writeProduct(Product product, StockMovement.Reason reason) {
+        boolean isNew = product.getId() == null;
+        int delta;
+        Product.ProductStatus previousStatus;
+        if (isNew) {
             product.setCreatedAt(LocalDateTime.now());
+            delta = product.getQuantity();
+            previousStatus = null;
+        } else {
+            delta = product.getQuantity() - persistedQuantity(product);
+            previousStatus = persistedStatus(product);
         }
         product.setUpdatedAt(LocalDateTime.now());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        if (isNew) {
+            stockLedgerService.record(saved.getId(), delta, StockMovement.Reason.INITIAL);
+        } else if (delta != 0) {
+            stockLedgerService.record(saved.getId(), delta, reason);
+        }
+        stockAlertService.recordTransition(saved, previousStatus);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
+    }
+
+    // Applies a relative stock change; fails rather than letting quantity go negative. No row lock
+    // is held: if another writer bumps the version first, the delta is re-applied to a fresh read.
+    public Product adjustStock(Long productId, int delta, StockMovement.Reason reason) {
+        // Inside a caller's transaction the conflict only surfaces at its commit, out of our reach
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return applyStockDelta(productId, delta, reason);
+        }
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyStockDelta(productId, delta, reason));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_STOCK_ATTEMPTS) {
+                    throw e;
+                }
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private Product applyStockDelta(Long productId, int delta, StockMovement.Reason reason) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+        if (product.getQuantity() + delta < 0) {
+            throw new IllegalStateException("Insufficient stock for product " + productId);
+        }
+        if (delta >= 0 || reason == StockMovement.Reason.RESERVATION) {
+            product.setQuantity(product.getQuantity() + delta);
+            return saveProduct(product, reason);
+        }
+        // Reserved and confirmed-but-unwritten stock is not for sale; the write-behind that
+        // settles confirmations (RESERVATION) is the one decrement allowed to take it
+        StockReservationService reservations = reservationService.getObject();
+        StockReservationService.Hold hold = reservations.holdForSale(productId, -delta, product.getQuantity());
+        if (hold.getQuantity() < -delta) {
+            reservations.releaseHold(hold);
+            throw new IllegalStateException("Insufficient stock for product " + productId);
+        }
+        Product saved;
+        try {
+            product.setQuantity(product.getQuantity() + delta);
+            saved = saveProduct(product, reason);
+        } catch (RuntimeException e) {
+            reservations.releaseHold(hold);
+            throw e;
+        }
+        reservations.releaseAfterCompletion(List.of(hold));
+        return saved;
+    }
+
+    // Randomized exponential back-off so colliding writers do not retry in lockstep
+    private static void backOff(int attempt, OptimisticLockingFailureException cause) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 4L << Math.min(attempt, 6)));
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
     }
 
+    private int persistedQuantity(Product product) {
+        if (product.getPersistedQuantity() != null) {
+            return product.getPersistedQuantity();
+        }
+        Integer stored = productRepository.findQuantityById(product.getId());
+        return stored != null ? stored : 0;
+    }
+
+    private Product.ProductStatus persistedStatus(Product product) {
+        if (product.getPersistedStatus() != null) {
+            return product.getPersistedStatus();
+        }
+        return productRepository.findStatusById(product.getId());
+    }
+
+    @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     public List<Product> searchProducts(String query) {
         if (query == null || query.trim().isEmpty()) {
             return getAllProducts();
         }
-        String searchQuery = "%" + query.toLowerCase() + "%";
-        return productRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrCategoryContainingIgnoreCase(
-            searchQuery, searchQuery, searchQuery);
+        // Containing already wraps the term in wildcards
+        String searchQuery = query.trim();
+        String lowerQuery = searchQuery.toLowerCase();
+        List<String> categories = attributeDictionary.matching(AttributeValue.Kind.CATEGORY,
+                category -> category.toLowerCase().contains(lowerQuery));
+        List<Product> products = productRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrCategoryIn(
+            searchQuery, searchQuery, categories);
+        if (!products.isEmpty()) {
+            return products;
+        }
+        // Nothing matched literally, so try the typo-tolerant index
+        List<Product> fuzzy = new ArrayList<>();
+        for (FuzzyMatch match : fuzzySearchProducts(searchQuery, FUZZY_FALLBACK_LIMIT)) {
+            fuzzy.add(match.getProduct());
+        }
+        return fuzzy;
+    }
+
+    public List<FuzzyMatch> fuzzySearchProducts(String query, int limit) {
+        List<TrigramIndex.Hit> hits = fuzzySearchService.search(query, limit);
+        Map<Long, Product> products = productRepository.findAllById(
+                hits.stream().map(TrigramIndex.Hit::getId).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<FuzzyMatch> matches = new ArrayList<>();
+        for (TrigramIndex.Hit hit : hits) {
+            Product product = products.get(hit.getId());
+            if (product != null) {
+                matches.add(new FuzzyMatch(product, hit.getScore()));
+            }
+        }
+        return matches;
     }
 
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategoryIgnoreCase(category);
+        return productRepository.findByCategoryIn(
+                attributeDictionary.matching(AttributeValue.Kind.CATEGORY, category::equalsIgnoreCase));
     }
 
-    public List<Product> getLowStockProducts(int threshold) {
-        return productRepository.findByQuantityLessThan(threshold);
+    public List<Product> getLowStockProducts() {
+        return productRepository.findAtOrBelowReorderPoint();
     }
 
     public long getTotalProducts() {
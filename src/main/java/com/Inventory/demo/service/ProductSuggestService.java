@@ -0,0 +1,100 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.Inventory.demo.dto.SearchDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.event.ProductChangedEvent;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.util.PrefixSuggestTrie;
+import com.Inventory.demo.util.SearchText;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Typeahead over product names and SKUs, ranked by stock on hand. The trie holds ids only; the
+// few suggested products are then read from the read model when it serves, else in one query.
+@Service
+public class ProductSuggestService {
+
+    private static final int MAX_NAME_WORDS = 6;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductReadModel readModel;
+
+    private final PrefixSuggestTrie trie = new PrefixSuggestTrie();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        trie.clear();
+        long after = 0;
+        List<Product> page;
+        do {
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Product product : page) {
+                index(product);
+                after = product.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            trie.remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    public List<SearchDto.Suggestion> suggest(String prefix, int limit) {
+        String normalized = SearchText.normalize(prefix);
+        List<SearchDto.Suggestion> result = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return result;
+        }
+        long[] ids = trie.suggest(normalized, limit);
+        if (readModel.isServing()) {
+            for (long id : ids) {
+                readModel.findById(id).ifPresent(product -> result.add(new SearchDto.Suggestion(product)));
+            }
+            return result;
+        }
+        List<Long> wanted = new ArrayList<>();
+        for (long id : ids) {
+            wanted.add(id);
+        }
+        Map<Long, Product> found = new HashMap<>();
+        for (Product product : productRepository.findAllById(wanted)) {
+            found.put(product.getId(), product);
+        }
+        // In the trie's order; a product deleted meanwhile is left out
+        for (Long id : wanted) {
+            Product product = found.get(id);
+            if (product != null) {
+                result.add(new SearchDto.Suggestion(product));
+            }
+        }
+        return result;
+    }
+
+    private void index(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        List<String> terms = SearchText.wordSuffixes(product.getName(), MAX_NAME_WORDS);
+        terms.add(SearchText.normalize(product.getSku()));
+        trie.put(product.getId(), terms, product.getQuantity());
+    }
+}
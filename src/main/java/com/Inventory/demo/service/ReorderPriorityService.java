@@ -0,0 +1,85 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.Inventory.demo.dto.ReportDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.event.ProductChangedEvent;
+import com.Inventory.demo.repository.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Products at or below their reorder point, kept ordered by urgency as quantities change,
+// so the most urgent N is a walk over the head of a sorted set
+@Service
+public class ReorderPriorityService {
+
+    private static final Comparator<ReportDto.ReorderItem> MOST_URGENT_FIRST = Comparator
+            .comparingDouble(ReportDto.ReorderItem::getUrgency).reversed()
+            .thenComparing(Comparator.comparingInt(ReportDto.ReorderItem::getShortfall).reversed())
+            .thenComparing(ReportDto.ReorderItem::getId);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final NavigableSet<ReportDto.ReorderItem> queue = new ConcurrentSkipListSet<>(MOST_URGENT_FIRST);
+    private final Map<Long, ReportDto.ReorderItem> current = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        queue.clear();
+        current.clear();
+        for (Product product : productRepository.findAtOrBelowReorderPoint()) {
+            update(product);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            update(event.getProduct());
+        }
+    }
+
+    public List<ReportDto.ReorderItem> mostUrgent(int limit) {
+        List<ReportDto.ReorderItem> items = new ArrayList<>();
+        for (ReportDto.ReorderItem item : queue) {
+            if (items.size() >= limit) {
+                break;
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private void update(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        remove(product.getId());
+        if (product.getQuantity() <= product.getReorderPoint()) {
+            ReportDto.ReorderItem item = new ReportDto.ReorderItem(product);
+            current.put(product.getId(), item);
+            queue.add(item);
+        }
+    }
+
+    private void remove(Long productId) {
+        ReportDto.ReorderItem previous = current.remove(productId);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.repository.ProductSpecifications;
+import com.Inventory.demo.util.TopN;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ReportService {
+
+    public enum RankBy {
+        VALUE, QUANTITY
+    }
+
+    public static final int MAX_TOP_N = 10000;
+
+    // Above this, rank in a bounded heap instead of asking the database to sort and materialize
+    // that many full rows
+    private static final int SQL_TOP_N_LIMIT = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductReadModel readModel;
+
+    @Transactional(readOnly = true)
+    public List<Product> getTopProducts(RankBy by, int n, String category, String location) {
+        if (n < 1 || n > MAX_TOP_N) {
+            throw new IllegalArgumentException("n must be between 1 and " + MAX_TOP_N);
+        }
+        String categoryFilter = blankToNull(category);
+        String locationFilter = blankToNull(location);
+        if (n <= SQL_TOP_N_LIMIT) {
+            return topFromIndex(by, n, categoryFilter, locationFilter);
+        }
+        return topFromHeap(by, n, categoryFilter, locationFilter);
+    }
+
+    // ORDER BY <indexed column> DESC LIMIT n, as a plain list: a Page would add a COUNT(*) over
+    // every matching row. With a category or location filter the (category_id, column) and
+    // (location_id, column) indexes give the rows already in order.
+    private List<Product> topFromIndex(RankBy by, int n, String category, String location) {
+        Specification<Product> where = Specification.where(null);
+        if (category != null) {
+            where = where.and(ProductSpecifications.categoryEquals(category));
+        }
+        if (location != null) {
+            where = where.and(ProductSpecifications.locationEquals(location));
+        }
+        String column = by == RankBy.VALUE ? "inventoryValue" : "quantity";
+        Sort sort = Sort.by(Sort.Direction.DESC, column).and(Sort.by("id"));
+        return productRepository.findBy(where, query -> query.sortBy(sort).limit(n).all());
+    }
+
+    // Ranked over the read model's columns once it has loaded, so only the winners are read from the
+    // database; until then over a streamed id, price, quantity projection
+    private List<Product> topFromHeap(RankBy by, int n, String category, String location) {
+        List<Long> ids = readModel.isLoaded()
+                ? readModel.topIds(by == RankBy.VALUE, n, category, location)
+                : topIdsFromDatabase(by, n, category, location);
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> result = new ArrayList<>();
+        for (Long id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    private List<Long> topIdsFromDatabase(RankBy by, int n, String category, String location) {
+        TopN<double[]> top = new TopN<>(n, Comparator.<double[]>comparingDouble(row -> row[1])
+                .thenComparing(row -> -row[0]));
+        try (Stream<Object[]> rows = productRepository.streamRankingRows(category, location)) {
+            rows.forEach(row -> {
+                long id = ((Number) row[0]).longValue();
+                double price = ((Number) row[1]).doubleValue();
+                int quantity = ((Number) row[2]).intValue();
+                top.offer(new double[] { id, by == RankBy.VALUE ? price * quantity : quantity });
+            });
+        }
+        List<Long> ids = new ArrayList<>();
+        for (double[] row : top.toList()) {
+            ids.add((long) row[0]);
+        }
+        return ids;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
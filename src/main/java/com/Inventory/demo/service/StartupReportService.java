@@ -0,0 +1,121 @@
+package com.Inventory.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Service;
+
+import com.Inventory.demo.dto.ReportDto;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Breaks the last startup down by phase and by bean. Steps are only recorded when the application
+// is started with a BufferingApplicationStartup, as main does; otherwise the report has the
+// totals alone.
+@Service
+public class StartupReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReportService.class);
+
+    private static final int SLOWEST_BEANS = 25;
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+
+    @Value("${spring.main.lazy-initialization:false}")
+    private boolean lazyInitialization;
+
+    private volatile ReportDto.StartupReport report;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void record(ApplicationReadyEvent event) {
+        ReportDto.StartupReport built = new ReportDto.StartupReport();
+        built.setReadyAt(LocalDateTime.now());
+        built.setJvmUptimeMs(ManagementFactory.getRuntimeMXBean().getUptime());
+        built.setApplicationStartMs(event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : 0);
+        built.setLazyInitialization(lazyInitialization);
+        built.setAotGenerated(AotDetector.useGeneratedArtifacts());
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup buffering) {
+            addSteps(built, buffering.getBufferedTimeline());
+        }
+        report = built;
+        log.info("Ready {} ms after JVM launch, {} ms after run (lazy: {}, AOT: {}); slowest phases: {}; "
+                + "slowest beans: {}", built.getJvmUptimeMs(), built.getApplicationStartMs(), lazyInitialization,
+                built.isAotGenerated(),
+                built.getPhases().stream().limit(5).map(p -> p.getName() + " " + p.getTotalMicros() / 1000 + " ms")
+                        .collect(Collectors.joining(", ")),
+                built.getSlowestBeans().stream().limit(5)
+                        .map(b -> b.getName() + " " + b.getSelfMicros() / 1000 + " ms")
+                        .collect(Collectors.joining(", ")));
+    }
+
+    // Null until the application has reported ready
+    public ReportDto.StartupReport getReport() {
+        return report;
+    }
+
+    private static void addSteps(ReportDto.StartupReport built, StartupTimeline timeline) {
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+        built.setStepsRecorded(events.size());
+
+        // A bean's own time excludes the beans created while it was being created
+        Map<Long, Long> selfMicros = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            selfMicros.merge(event.getStartupStep().getId(), micros(event), Long::sum);
+            Long parent = event.getStartupStep().getParentId();
+            if (parent != null) {
+                selfMicros.merge(parent, -micros(event), Long::sum);
+            }
+        }
+
+        Map<String, ReportDto.StartupPhase> phases = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            String name = event.getStartupStep().getName();
+            ReportDto.StartupPhase phase = phases.computeIfAbsent(name, n -> {
+                ReportDto.StartupPhase created = new ReportDto.StartupPhase();
+                created.setName(n);
+                return created;
+            });
+            phase.setCount(phase.getCount() + 1);
+            phase.setTotalMicros(phase.getTotalMicros() + micros(event));
+
+            if (BEAN_STEP.equals(name)) {
+                ReportDto.StartupBean bean = new ReportDto.StartupBean();
+                bean.setName(tag(event.getStartupStep(), "beanName"));
+                bean.setTotalMicros(micros(event));
+                bean.setSelfMicros(selfMicros.getOrDefault(event.getStartupStep().getId(), 0L));
+                built.getSlowestBeans().add(bean);
+            }
+        }
+        built.getPhases().addAll(phases.values());
+        built.getPhases().sort(Comparator.comparingLong(ReportDto.StartupPhase::getTotalMicros).reversed());
+        built.getSlowestBeans().sort(Comparator.comparingLong(ReportDto.StartupBean::getSelfMicros).reversed());
+        if (built.getSlowestBeans().size() > SLOWEST_BEANS) {
+            built.setSlowestBeans(List.copyOf(built.getSlowestBeans().subList(0, SLOWEST_BEANS)));
+        }
+    }
+
+    private static long micros(StartupTimeline.TimelineEvent event) {
+        return event.getDuration().toNanos() / 1000;
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals(key)) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+}
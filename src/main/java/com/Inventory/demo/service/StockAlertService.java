@@ -0,0 +1,133 @@
+package com.Inventory.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Inventory.demo.dto.AlertDto;
+import com.Inventory.demo.entity.OutboxEvent;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.event.StockAlertSink;
+import com.Inventory.demo.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Transactional outbox for low-stock and out-of-stock alerts. Writers record the status change
+// in their own transaction, so an alert exists exactly when the change committed; a background
+// dispatcher then hands due alerts to every enabled sink, backing off on failure.
+@Service
+public class StockAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockAlertService.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private List<StockAlertSink> sinks;
+
+    @Value("${inventory.alerts.backoff-initial-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${inventory.alerts.backoff-max-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${inventory.alerts.retention-days:7}")
+    private long retentionDays;
+
+    // Must run inside the writer's transaction; only moves into LOW_STOCK or OUT_OF_STOCK alert
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Product product, Product.ProductStatus previousStatus) {
+        Product.ProductStatus status = product.getStatus();
+        if (status == previousStatus || status == null || status == Product.ProductStatus.IN_STOCK) {
+            return;
+        }
+        outboxRepository.save(new OutboxEvent(product, previousStatus));
+    }
+
+    // Not transactional on purpose: no database transaction is held open across sink I/O. A crash
+    // between delivery and the bookkeeping write below only means the batch is delivered again.
+    @Scheduled(fixedDelayString = "${inventory.alerts.dispatch-interval-ms:1000}")
+    public void dispatch() {
+        List<StockAlertSink> active = sinks.stream().filter(StockAlertSink::isEnabled).collect(Collectors.toList());
+        if (active.isEmpty()) {
+            return;
+        }
+        boolean more;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> due = outboxRepository.findDue(now, PageRequest.of(0, BATCH_SIZE));
+            if (due.isEmpty()) {
+                return;
+            }
+            Map<String, String> failures = new HashMap<>();
+            for (StockAlertSink sink : active) {
+                List<OutboxEvent> pending = due.stream()
+                        .filter(event -> !event.isAckedBy(sink.name()))
+                        .collect(Collectors.toList());
+                if (pending.isEmpty()) {
+                    continue;
+                }
+                try {
+                    sink.deliver(pending.stream().map(AlertDto.StockAlert::new).collect(Collectors.toList()));
+                    pending.forEach(event -> event.ack(sink.name()));
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    failures.put(sink.name(), String.valueOf(e));
+                    log.warn("Delivering {} stock alert(s) to {} failed, will retry: {}", pending.size(), sink.name(),
+                            e.toString());
+                }
+            }
+            for (OutboxEvent event : due) {
+                String error = active.stream()
+                        .filter(sink -> !event.isAckedBy(sink.name()))
+                        .map(sink -> sink.name() + ": " + failures.get(sink.name()))
+                        .collect(Collectors.joining("; "));
+                if (error.isEmpty()) {
+                    event.markDelivered(now);
+                } else {
+                    event.retryAt(now.plusNanos(backoffMs(event.getAttempts()) * 1_000_000), error);
+                }
+            }
+            outboxRepository.saveAll(due);
+            more = failures.isEmpty() && due.size() == BATCH_SIZE;
+        } while (more && !Thread.currentThread().isInterrupted());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.alerts.purge-interval-ms:3600000}")
+    @Transactional
+    public int purgeDelivered() {
+        return outboxRepository.deleteDeliveredBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    public List<AlertDto.OutboxEntry> getRecent(int limit) {
+        return outboxRepository.findByOrderByIdDesc(PageRequest.of(0, limit)).stream()
+                .map(AlertDto.OutboxEntry::new)
+                .collect(Collectors.toList());
+    }
+
+    public long countUndelivered() {
+        return outboxRepository.countByDeliveredAtIsNull();
+    }
+
+    // Exponential with jitter, capped
+    private long backoffMs(int attempts) {
+        long base = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts, 20));
+        return base + ThreadLocalRandom.current().nextLong(base / 5 + 1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.Inventory.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Inventory.demo.dto.StockDto;
+import com.Inventory.demo.entity.StockMovement;
+import com.Inventory.demo.entity.StockSnapshot;
+import com.Inventory.demo.repository.StockMovementRepository;
+import com.Inventory.demo.repository.StockSnapshotRepository;
+import com.Inventory.demo.util.SecurityUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Append-only stock journal with periodic per-product snapshots. Stock at an instant is the
+// newest snapshot taken no later than that instant plus the movements after it.
+@Service
+public class StockLedgerService {
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    // Movements younger than this are left for the next snapshot run, so a transaction that
+    // took a lower id but has not committed yet cannot be skipped
+    @Value("${inventory.ledger.snapshot-grace-ms:60000}")
+    private long snapshotGraceMs;
+
+    // Products per previous-snapshot lookup, which binds each one as an IN list parameter
+    @Value("${inventory.ledger.max-batch:500}")
+    private int maxBatch;
+
+    // Appends a movement; callers run this in the same transaction as the quantity change
+    public StockMovement record(Long productId, int delta, StockMovement.Reason reason) {
+        return movementRepository.save(new StockMovement(productId, delta, reason, SecurityUtil.currentUsername()));
+    }
+
+    // Appends several movements at once, e.g. every line of an order
+    public List<StockMovement> recordAll(List<StockMovement> movements) {
+        return movementRepository.saveAll(movements);
+    }
+
+    public Page<StockMovement> getMovements(Long productId, int page, int size) {
+        return movementRepository.findByProductIdOrderByIdDesc(productId, PageRequest.of(page, size));
+    }
+
+    @Transactional(readOnly = true)
+    public StockDto.StockAsOf getStockAsOf(Long productId, LocalDateTime at) {
+        Optional<StockSnapshot> snapshot = snapshotRepository
+                .findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(productId, at);
+        int base = snapshot.map(StockSnapshot::getQuantity).orElse(0);
+        long afterId = snapshot.map(StockSnapshot::getLastMovementId).orElse(0L);
+        Object[] replay = movementRepository.sumDeltasAfter(productId, afterId, at).get(0);
+        int quantity = base + ((Number) replay[0]).intValue();
+        long replayed = ((Number) replay[1]).longValue();
+        return new StockDto.StockAsOf(productId, at, quantity, snapshot.map(StockSnapshot::getTakenAt).orElse(null),
+                replayed);
+    }
+
+    // Products that existed before the journal get one OPENING movement for their current stock
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recordOpeningBalances() {
+        List<StockMovement> openings = new ArrayList<>();
+        for (Object[] row : movementRepository.findProductsWithoutMovements()) {
+            int quantity = ((Number) row[1]).intValue();
+            openings.add(new StockMovement((Long) row[0], quantity, StockMovement.Reason.OPENING,
+                    SecurityUtil.SYSTEM_USER));
+        }
+        if (!openings.isEmpty()) {
+            movementRepository.saveAll(openings);
+        }
+    }
+
+    // Folds the movements since the previous run into a new snapshot for every product they touched
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval-ms:3600000}",
+            initialDelayString = "${inventory.ledger.snapshot-interval-ms:3600000}")
+    @Transactional
+    public int takeSnapshots() {
+        long from = Optional.ofNullable(snapshotRepository.findSnapshotWatermark()).orElse(0L);
+        Long to = movementRepository.findMaxIdBefore(LocalDateTime.now().minusNanos(snapshotGraceMs * 1_000_000));
+        if (to == null || to <= from) {
+            return 0;
+        }
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Object[] row : movementRepository.sumDeltasByProduct(from, to)) {
+            deltas.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        List<Long> productIds = new ArrayList<>(deltas.keySet());
+        Map<Long, Integer> previous = new HashMap<>();
+        for (int start = 0; start < productIds.size(); start += maxBatch) {
+            List<Long> ids = productIds.subList(start, Math.min(productIds.size(), start + maxBatch));
+            for (StockSnapshot snapshot : snapshotRepository.findLatestFor(ids)) {
+                previous.put(snapshot.getProductId(), snapshot.getQuantity());
+            }
+        }
+        LocalDateTime takenAt = LocalDateTime.now();
+        List<StockSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            int quantity = previous.getOrDefault(entry.getKey(), 0) + entry.getValue();
+            snapshots.add(new StockSnapshot(entry.getKey(), quantity, to, takenAt));
+        }
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+}
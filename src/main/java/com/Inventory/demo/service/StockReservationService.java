@@ -0,0 +1,613 @@
+package com.Inventory.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.entity.StockMovement;
+import com.Inventory.demo.event.ProductChangedEvent;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.repository.StockMovementRepository;
+import com.Inventory.demo.util.ReservationJournal;
+
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+// Holds stock for pending orders without touching the database on the hot path.
+// Each product has an immutable Counts value swapped by compare-and-set, so reserve/confirm/
+// release never block and can never take available stock below zero. Confirmed quantities are
+// written to the products table (as RESERVATION movements) by a periodic write-behind, and
+// every state change is appended to a local journal that is replayed after a crash.
+@Service
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    public enum State {
+        PENDING, CONFIRMED, RELEASED, EXPIRED
+    }
+
+    // base: products.quantity as last seen; pending: confirmed but not yet written;
+    // inFlight: being written by the current write-behind pass
+    public static final class Counts {
+        final int base;
+        final int reserved;
+        final int pending;
+        final int inFlight;
+        final LocalDateTime baseVersion;
+
+        Counts(int base, int reserved, int pending, int inFlight, LocalDateTime baseVersion) {
+            this.base = base;
+            this.reserved = reserved;
+            this.pending = pending;
+            this.inFlight = inFlight;
+            this.baseVersion = baseVersion;
+        }
+
+        public int getOnHand() {
+            return base;
+        }
+
+        public int getReserved() {
+            return reserved;
+        }
+
+        public int getPendingCommit() {
+            return pending + inFlight;
+        }
+
+        public int getAvailable() {
+            return base - reserved - pending - inFlight;
+        }
+    }
+
+    public static final class Reservation {
+        private final String id;
+        private final Long productId;
+        private final int quantity;
+        private final Instant createdAt;
+        private final Instant expiresAt;
+        private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+
+        Reservation(String id, Long productId, int quantity, Instant createdAt, Instant expiresAt) {
+            this.id = id;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.createdAt = createdAt;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+
+        public State getState() {
+            return state.get();
+        }
+    }
+
+    // Stock set aside for a sale while it is written, counted as reserved so reservations cannot
+    // take it meanwhile; untracked for a product the engine holds nothing for
+    public static final class Hold {
+        private final AtomicReference<Counts> counter;
+        private final int quantity;
+
+        Hold(AtomicReference<Counts> counter, int quantity) {
+            this.counter = counter;
+            this.quantity = quantity;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+
+    private static final class Expiry implements Delayed {
+        final Reservation reservation;
+
+        Expiry(Reservation reservation) {
+            this.reservation = reservation;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), reservation.expiresAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return reservation.expiresAt.compareTo(((Expiry) other).reservation.expiresAt);
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Value("${inventory.reservations.journal-path:data/reservations.log}")
+    private String journalPath;
+
+    @Value("${inventory.reservations.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Value("${inventory.reservations.max-ttl-seconds:86400}")
+    private long maxTtlSeconds;
+
+    @Value("${inventory.reservations.journal-compact-bytes:4194304}")
+    private long compactBytes;
+
+    private final Map<Long, AtomicReference<Counts>> counters = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    // Products whose confirmed stock is short on hand, so the warning is logged once per shortage
+    private final Set<Long> shortProducts = ConcurrentHashMap.newKeySet();
+    private ReservationJournal journal;
+    // Journal size past which the write-behind compacts it: twice what the last compaction left,
+    // and never less than compactBytes
+    private long compactAt;
+    private volatile boolean ready;
+
+    public Reservation reserve(Long productId, int quantity, Long ttlSeconds) {
+        checkReady();
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        long ttl = ttlSeconds == null ? defaultTtlSeconds : ttlSeconds;
+        if (ttl <= 0 || ttl > maxTtlSeconds) {
+            throw new IllegalArgumentException("ttlSeconds must be between 1 and " + maxTtlSeconds);
+        }
+        AtomicReference<Counts> counter = counter(productId);
+        while (true) {
+            Counts c = counter.get();
+            if (c.getAvailable() < quantity) {
+                throw new IllegalStateException("Insufficient stock for product " + productId);
+            }
+            Counts next = new Counts(c.base, c.reserved + quantity, c.pending, c.inFlight, c.baseVersion);
+            if (counter.compareAndSet(c, next)) {
+                break;
+            }
+        }
+        Instant now = Instant.now();
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), productId, quantity, now,
+                now.plusSeconds(ttl));
+        reservations.put(reservation.id, reservation);
+        journal.append(ReservationJournal.RESERVE, reservation.id, productId, quantity,
+                reservation.expiresAt.toEpochMilli());
+        expiries.offer(new Expiry(reservation));
+        return reservation;
+    }
+
+    // Refused while confirmed quantities would exceed stock on hand, e.g. after other sales took
+    // it since the reservation was made; the reservation then stays pending
+    public Reservation confirm(String reservationId) {
+        checkReady();
+        Reservation reservation = find(reservationId);
+        if (reservation.state.get() == State.PENDING && Instant.now().isAfter(reservation.expiresAt)) {
+            expire(reservation);
+        }
+        if (reservation.state.get() != State.PENDING) {
+            return confirmedOrConflict(reservation);
+        }
+        AtomicReference<Counts> counter = counters.get(reservation.productId);
+        if (counter != null) {
+            // Counts first, then the state; a release or expiry in between returns the quantity to
+            // reserved, and undoing the move below settles the counts either way
+            int quantity = reservation.quantity;
+            Counts before = update(counter, c -> c.base - c.pending - c.inFlight < quantity ? c
+                    : new Counts(c.base, c.reserved - quantity, c.pending + quantity, c.inFlight, c.baseVersion));
+            if (before.base - before.pending - before.inFlight < quantity) {
+                if (reservation.state.get() != State.PENDING) {
+                    return confirmedOrConflict(reservation);
+                }
+                throw new IllegalStateException("Only " + Math.max(0, before.base - before.pending - before.inFlight)
+                        + " of product " + reservation.productId + " on hand to confirm " + quantity);
+            }
+            if (!reservation.state.compareAndSet(State.PENDING, State.CONFIRMED)) {
+                update(counter, c -> new Counts(c.base, c.reserved + quantity, c.pending - quantity, c.inFlight,
+                        c.baseVersion));
+                return confirmedOrConflict(reservation);
+            }
+        } else if (!reservation.state.compareAndSet(State.PENDING, State.CONFIRMED)) {
+            return confirmedOrConflict(reservation);
+        }
+        journal.append(ReservationJournal.CONFIRM, reservation.id);
+        return reservation;
+    }
+
+    private static Reservation confirmedOrConflict(Reservation reservation) {
+        if (reservation.state.get() == State.CONFIRMED) {
+            return reservation;
+        }
+        throw new IllegalStateException("Reservation " + reservation.id + " is " + reservation.state.get());
+    }
+
+    public Reservation release(String reservationId) {
+        checkReady();
+        Reservation reservation = find(reservationId);
+        if (reservation.state.compareAndSet(State.PENDING, State.RELEASED)) {
+            returnToStock(reservation);
+            return reservation;
+        }
+        if (reservation.state.get() == State.RELEASED || reservation.state.get() == State.EXPIRED) {
+            return reservation;
+        }
+        throw new IllegalStateException("Reservation " + reservationId + " is " + reservation.state.get());
+    }
+
+    // Sets aside up to wanted of what the caller read on hand, less what reservations and unwritten
+    // confirmations hold, and returns how much it got. The caller releases it once the sale is
+    // written, or at once if it is abandoned.
+    public Hold holdForSale(Long productId, int wanted, int onHand) {
+        AtomicReference<Counts> counter = counters.get(productId);
+        if (counter == null) {
+            return new Hold(null, Math.max(0, Math.min(wanted, onHand)));
+        }
+        Counts before = update(counter, c -> {
+            int taken = Math.max(0, Math.min(wanted, onHand - c.reserved - c.pending - c.inFlight));
+            return taken == 0 ? c
+                    : new Counts(c.base, c.reserved + taken, c.pending, c.inFlight, c.baseVersion);
+        });
+        return new Hold(counter,
+                Math.max(0, Math.min(wanted, onHand - before.reserved - before.pending - before.inFlight)));
+    }
+
+    public void releaseHold(Hold hold) {
+        if (hold.counter != null && hold.quantity > 0) {
+            update(hold.counter, c -> new Counts(c.base, c.reserved - hold.quantity, c.pending, c.inFlight,
+                    c.baseVersion));
+        }
+    }
+
+    // Releases the holds once the caller's transaction completes. Registered after the sale's
+    // ProductChangedEvent is published, so it runs after onProductChanged has lowered on-hand and
+    // the stock is never counted as free in between.
+    public void releaseAfterCompletion(List<Hold> holds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            holds.forEach(this::releaseHold);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                holds.forEach(StockReservationService.this::releaseHold);
+            }
+        });
+    }
+
+    public Optional<Reservation> getReservation(String reservationId) {
+        return Optional.ofNullable(reservations.get(reservationId));
+    }
+
+    public Counts getStockLevel(Long productId) {
+        checkReady();
+        return counter(productId).get();
+    }
+
+    // Pending reservations past their deadline go back to stock; finished ones are forgotten
+    @Scheduled(fixedDelayString = "${inventory.reservations.expiry-sweep-ms:1000}")
+    public void expireReservations() {
+        Expiry expiry;
+        while ((expiry = expiries.poll()) != null) {
+            expire(expiry.reservation);
+            reservations.remove(expiry.reservation.id);
+        }
+    }
+
+    // Write confirmed quantities to the products table, one movement per product per pass. Stock
+    // taken by other writers after a confirmation can leave less on hand than was confirmed; the
+    // difference is written as far as it goes and the rest stays pending, shown in pendingCommit
+    // and held against availability, until stock is received.
+    @Scheduled(fixedDelayString = "${inventory.reservations.write-behind-ms:1000}")
+    public void writeBehind() {
+        if (!ready) {
+            return;
+        }
+        for (Map.Entry<Long, AtomicReference<Counts>> entry : counters.entrySet()) {
+            Long productId = entry.getKey();
+            AtomicReference<Counts> counter = entry.getValue();
+            Counts taken = update(counter, c -> c.pending == 0 ? c
+                    : new Counts(c.base, c.reserved, 0, c.inFlight + c.pending, c.baseVersion));
+            int quantity = taken.pending;
+            if (quantity == 0) {
+                continue;
+            }
+            try {
+                int onHand = Optional.ofNullable(productRepository.findQuantityById(productId)).orElse(0);
+                int written = Math.min(quantity, onHand);
+                if (written < quantity && shortProducts.add(productId)) {
+                    log.warn("Product {} has {} on hand but {} confirmed; {} stays pending until restocked",
+                            productId, onHand, quantity, quantity - written);
+                } else if (written == quantity) {
+                    shortProducts.remove(productId);
+                }
+                if (written > 0) {
+                    productService.adjustStock(productId, -written, StockMovement.Reason.RESERVATION);
+                    journal.append(ReservationJournal.FLUSHED, productId, written, reservationWatermark(productId));
+                }
+                update(counter, c -> new Counts(c.base, c.reserved, c.pending + quantity - written,
+                        c.inFlight - quantity, c.baseVersion));
+            } catch (Exception e) {
+                log.warn("Write-behind for product {} failed, will retry", productId, e);
+                update(counter, c -> new Counts(c.base, c.reserved, c.pending + quantity, c.inFlight - quantity,
+                        c.baseVersion));
+            }
+        }
+        journal.force();
+        // Only recovery used to compact, so a long-running engine grew its journal without bound
+        if (journal.size() > compactAt) {
+            journal.compact(records -> Replay.of(records).records());
+            compactAt = Math.max(compactBytes, 2 * journal.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        AtomicReference<Counts> counter = counters.get(event.getProductId());
+        if (counter == null) {
+            return;
+        }
+        if (event.isDeleted()) {
+            counters.remove(event.getProductId());
+            return;
+        }
+        Product product = event.getProduct();
+        // Ignore notifications that arrive out of order
+        update(counter, c -> c.baseVersion != null && product.getUpdatedAt() != null
+                && product.getUpdatedAt().isBefore(c.baseVersion) ? c
+                        : new Counts(product.getQuantity(), c.reserved, c.pending, c.inFlight, product.getUpdatedAt()));
+    }
+
+    // Rebuild reservations and unwritten confirmations from the journal. Confirmations whose
+    // write-behind committed just before the crash are found in the ledger, after the last
+    // movement id the journal knew about, and are not applied twice.
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        journal = new ReservationJournal(Paths.get(journalPath));
+        Replay replay = Replay.of(journal.open());
+        Map<String, String[]> live = replay.live;
+        Map<Long, Integer> pending = replay.pending;
+        Map<Long, Long> watermarks = replay.watermarks;
+
+        for (Map.Entry<Long, Integer> entry : pending.entrySet()) {
+            Long productId = entry.getKey();
+            long watermark = watermarks.getOrDefault(productId, 0L);
+            Integer committed = movementRepository.sumDeltasByProductIdAndReasonAfter(productId,
+                    StockMovement.Reason.RESERVATION, watermark);
+            int outstanding = entry.getValue() + (committed == null ? 0 : committed);
+            if (outstanding > 0 && productRepository.existsById(productId)) {
+                update(counter(productId), c -> new Counts(c.base, c.reserved, c.pending + outstanding, c.inFlight,
+                        c.baseVersion));
+            }
+        }
+        Instant now = Instant.now();
+        for (String[] record : live.values()) {
+            Long productId = Long.valueOf(record[2]);
+            int quantity = Integer.parseInt(record[3]);
+            Instant expiresAt = Instant.ofEpochMilli(Long.parseLong(record[4]));
+            if (expiresAt.isBefore(now) || !productRepository.existsById(productId)) {
+                continue;
+            }
+            Reservation reservation = new Reservation(record[1], productId, quantity, now, expiresAt);
+            update(counter(productId), c -> new Counts(c.base, c.reserved + quantity, c.pending, c.inFlight,
+                    c.baseVersion));
+            reservations.put(reservation.id, reservation);
+            expiries.offer(new Expiry(reservation));
+        }
+        compact();
+        compactAt = Math.max(compactBytes, 2 * journal.size());
+        ready = true;
+    }
+
+    // What a journal replays to: live reservations by id, and per product the confirmed quantity
+    // not yet flushed and the ledger position it was last written up to
+    private static final class Replay {
+        final Map<String, String[]> live = new HashMap<>();
+        final Map<Long, Integer> pending = new HashMap<>();
+        final Map<Long, Long> watermarks = new HashMap<>();
+
+        static Replay of(List<String[]> records) {
+            Replay replay = new Replay();
+            for (String[] record : records) {
+                switch (record[0]) {
+                    case ReservationJournal.RESERVE -> replay.live.put(record[1], record);
+                    case ReservationJournal.CONFIRM -> {
+                        String[] reserved = replay.live.remove(record[1]);
+                        if (reserved != null) {
+                            replay.pending.merge(Long.valueOf(reserved[2]), Integer.parseInt(reserved[3]),
+                                    Integer::sum);
+                        }
+                    }
+                    case ReservationJournal.RELEASE -> replay.live.remove(record[1]);
+                    case ReservationJournal.WATERMARK -> replay.watermarks.merge(Long.valueOf(record[1]),
+                            Long.valueOf(record[2]), Math::max);
+                    case ReservationJournal.FLUSHED -> {
+                        Long productId = Long.valueOf(record[1]);
+                        replay.pending.merge(productId, -Integer.parseInt(record[2]), Integer::sum);
+                        replay.watermarks.merge(productId, Long.valueOf(record[3]), Math::max);
+                    }
+                    case ReservationJournal.PENDING -> {
+                        Long productId = Long.valueOf(record[1]);
+                        replay.pending.merge(productId, Integer.parseInt(record[2]), Integer::sum);
+                        replay.watermarks.merge(productId, Long.valueOf(record[3]), Math::max);
+                    }
+                    default -> log.warn("Skipping unknown reservation journal record {}", record[0]);
+                }
+            }
+            return replay;
+        }
+
+        // The same state in as few records as replay back to it; reservations already past their
+        // deadline are dropped, as recovery would drop them
+        List<Object[]> records() {
+            List<Object[]> records = new ArrayList<>();
+            for (Map.Entry<Long, Long> entry : watermarks.entrySet()) {
+                records.add(new Object[] { ReservationJournal.WATERMARK, entry.getKey(), entry.getValue() });
+            }
+            for (Map.Entry<Long, Integer> entry : pending.entrySet()) {
+                if (entry.getValue() != 0) {
+                    records.add(new Object[] { ReservationJournal.PENDING, entry.getKey(), entry.getValue(),
+                            watermarks.getOrDefault(entry.getKey(), 0L) });
+                }
+            }
+            long now = System.currentTimeMillis();
+            for (String[] record : live.values()) {
+                if (Long.parseLong(record[4]) >= now) {
+                    records.add(record);
+                }
+            }
+            return records;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void compact() {
+        List<Object[]> records = new ArrayList<>();
+        for (Map.Entry<Long, AtomicReference<Counts>> entry : counters.entrySet()) {
+            Counts c = entry.getValue().get();
+            long watermark = reservationWatermark(entry.getKey());
+            records.add(new Object[] { ReservationJournal.WATERMARK, entry.getKey(), watermark });
+            if (c.pending + c.inFlight > 0) {
+                records.add(new Object[] { ReservationJournal.PENDING, entry.getKey(), c.pending + c.inFlight,
+                        watermark });
+            }
+        }
+        for (Reservation reservation : reservations.values()) {
+            if (reservation.state.get() == State.PENDING) {
+                records.add(new Object[] { ReservationJournal.RESERVE, reservation.id, reservation.productId,
+                        reservation.quantity, reservation.expiresAt.toEpochMilli() });
+            }
+        }
+        journal.rewrite(records);
+    }
+
+    private void expire(Reservation reservation) {
+        if (reservation.state.compareAndSet(State.PENDING, State.EXPIRED)) {
+            returnToStock(reservation);
+        }
+    }
+
+    private void returnToStock(Reservation reservation) {
+        AtomicReference<Counts> counter = counters.get(reservation.productId);
+        if (counter != null) {
+            update(counter, c -> new Counts(c.base, c.reserved - reservation.quantity, c.pending, c.inFlight,
+                    c.baseVersion));
+        }
+        journal.append(ReservationJournal.RELEASE, reservation.id);
+    }
+
+    private Reservation find(String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new NoSuchElementException("Reservation not found: " + reservationId);
+        }
+        return reservation;
+    }
+
+    // First use of a product seeds its counter from the database and journals the ledger position
+    // from which its confirmations will be written. The queries run outside the map, so other
+    // products are never held up behind them; a racing first use may query too, and loses.
+    private AtomicReference<Counts> counter(Long productId) {
+        AtomicReference<Counts> counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new NoSuchElementException("Product not found: " + productId));
+        long watermark = reservationWatermark(productId);
+        AtomicReference<Counts> created = new AtomicReference<>(
+                new Counts(product.getQuantity(), 0, 0, 0, product.getUpdatedAt()));
+        AtomicReference<Counts> existing = counters.putIfAbsent(productId, created);
+        if (existing != null) {
+            return existing;
+        }
+        journal.append(ReservationJournal.WATERMARK, productId, watermark);
+        return created;
+    }
+
+    private long reservationWatermark(Long productId) {
+        Long movementId = movementRepository.findMaxIdByProductIdAndReason(productId,
+                StockMovement.Reason.RESERVATION);
+        return movementId == null ? 0 : movementId;
+    }
+
+    private void update(Long productId, UnaryOperator<Counts> change) {
+        AtomicReference<Counts> counter = counters.get(productId);
+        if (counter != null) {
+            update(counter, change);
+        }
+    }
+
+    // Returns the value that was replaced
+    private static Counts update(AtomicReference<Counts> counter, UnaryOperator<Counts> change) {
+        while (true) {
+            Counts current = counter.get();
+            Counts next = change.apply(current);
+            if (next == current || counter.compareAndSet(current, next)) {
+                return current;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void checkReady() {
+        if (!ready) {
+            throw new IllegalStateException("Reservation engine is still recovering");
+        }
+    }
+}
@@ -1,21 +1,70 @@
 package com.Inventory.demo.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.Inventory.demo.entity.User;
+import com.Inventory.demo.event.UserChangedEvent;
 import com.Inventory.demo.repository.UserRepository;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.time.LocalDateTime;
 
+// Lookups by username and email, as used on every login and token validation, are answered from
+// a bounded cache of recently used users that expire after a TTL. Writes through this service
+// refresh or drop the cached copy; users are handed out as copies, so changing one returned here
+// changes nothing until it is saved. Unknown names are not cached, so a new user is found at once.
+// Changes made elsewhere (another instance without the invalidation bus, or SQL) are caught by
+// re-reading a cached user's password, role and active flag once it has been trusted for the
+// revalidation interval, so a disabled account or a changed password takes effect within seconds.
 @Service
 public class UserService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventory.users.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${inventory.users.cache-max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${inventory.users.revalidate-ms:2000}")
+    private long revalidateMs;
+
+    private static final class CachedUser {
+        final User user;
+        final long expiresAt;
+        // When the credentials were last compared with the database; guarded by the cache lock
+        long checkedAt;
+
+        CachedUser(User user, long expiresAt, long checkedAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    // Access order, so the least recently used entry is the first to go when the cache is full.
+    // The other two maps index into it and are guarded by the same lock.
+    private final LinkedHashMap<String, CachedUser> usersByUsername = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> usernamesByEmail = new HashMap<>();
+    private final Map<Long, String> usernamesById = new HashMap<>();
+    // Bumped by every write, so a lookup that raced a write does not cache what it read before it
+    private long writes;
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -25,26 +74,93 @@ public class UserService {
     }
 
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return Optional.ofNullable(findByUsername(username));
     }
 
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username).orElse(null);
+        if (username == null) {
+            return null;
+        }
+        CachedUser cached;
+        synchronized (usersByUsername) {
+            cached = usersByUsername.get(username);
+        }
+        User user = cachedCopy(cached);
+        if (user != null) {
+            return user;
+        }
+        long seen;
+        synchronized (usersByUsername) {
+            seen = writes;
+        }
+        user = userRepository.findByUsername(username).orElse(null);
+        if (user != null) {
+            remember(user, seen);
+        }
+        return user;
     }
 
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email).orElse(null);
+        if (email == null) {
+            return null;
+        }
+        CachedUser cached;
+        synchronized (usersByUsername) {
+            String username = usernamesByEmail.get(email);
+            cached = username != null ? usersByUsername.get(username) : null;
+        }
+        User user = cachedCopy(cached);
+        if (user != null) {
+            return user;
+        }
+        long seen;
+        synchronized (usersByUsername) {
+            seen = writes;
+        }
+        user = userRepository.findByEmail(email).orElse(null);
+        if (user != null) {
+            remember(user, seen);
+        }
+        return user;
     }
 
+    // A duplicate username or email fails here with DataIntegrityViolationException from the
+    // unique constraints, so callers need not look either up first
     public User saveUser(User user) {
         if (user.getId() == null) {
             user.setCreatedAt(LocalDateTime.now());
         }
-        return userRepository.save(user);
+        try {
+            User saved = userRepository.save(user);
+            forget(saved.getId());
+            eventPublisher.publishEvent(new UserChangedEvent(saved.getId()));
+            return saved;
+        } finally {
+            if (user.getId() != null) {
+                forget(user.getId());
+            }
+        }
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        forget(id);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
+    }
+
+    // One UPDATE, without reading the user back first. Not announced to other instances: a login
+    // time a little out of date in their caches is not worth a bus entry per login.
+    @Transactional
+    public void recordLogin(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.updateLastLogin(user.getId(), now);
+        user.setLastLogin(now);
+        synchronized (usersByUsername) {
+            CachedUser cached = usersByUsername.get(user.getUsername());
+            if (cached != null && user.getId().equals(cached.user.getId())) {
+                cached.user.setLastLogin(now);
+            }
+        }
     }
 
     public User authenticate(String username, String password) {
@@ -59,21 +175,36 @@ public class UserService {
         return null;
     }
 
+    // Transactional itself, since the call to recordLogin below does not go through the proxy
+    @Transactional
     public void updateLastLogin(Long userId) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+            recordLogin(userOpt.get());
         }
     }
 
     public boolean isUsernameExists(String username) {
-        return userRepository.findByUsername(username).isPresent();
+        return findByUsername(username) != null;
     }
 
     public boolean isEmailExists(String email) {
-        return userRepository.findByEmail(email).isPresent();
+        return findByEmail(email) != null;
+    }
+
+    // Drops every cached user, for changes made behind this service's back
+    public void clearCache() {
+        synchronized (usersByUsername) {
+            writes++;
+            usersByUsername.clear();
+            usernamesByEmail.clear();
+            usernamesById.clear();
+        }
+    }
+
+    // Drops the cached copy of a user, e.g. when another instance changed it
+    public void evict(Long id) {
+        forget(id);
     }
 
     public List<User> getUsersByRole(User.UserRole role) {
@@ -100,4 +231,98 @@ public class UserService {
             userRepository.save(user);
         }
     }
-}
\ No newline at end of file
+
+    // Caches a copy unless a write happened since the caller read the user
+    private void remember(User user, long seen) {
+        User cached = copy(user);
+        synchronized (usersByUsername) {
+            if (writes != seen) {
+                return;
+            }
+            removeLocked(cached.getUsername());
+            long now = System.currentTimeMillis();
+            usersByUsername.put(cached.getUsername(), new CachedUser(cached, now + cacheTtlSeconds * 1000, now));
+            if (cached.getEmail() != null) {
+                usernamesByEmail.put(cached.getEmail(), cached.getUsername());
+            }
+            usernamesById.put(cached.getId(), cached.getUsername());
+            Iterator<CachedUser> eldest = usersByUsername.values().iterator();
+            while (usersByUsername.size() > cacheMaxEntries && eldest.hasNext()) {
+                User evicted = eldest.next().user;
+                eldest.remove();
+                removeIndexesLocked(evicted);
+            }
+        }
+    }
+
+    // A copy of a cached user that is still current, or null when the caller has to load it. One
+    // that has been trusted for the revalidation interval is checked against the database first
+    // and dropped when it no longer matches.
+    private User cachedCopy(CachedUser cached) {
+        if (cached == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (usersByUsername) {
+            if (cached.expiresAt <= now) {
+                return null;
+            }
+            if (now - cached.checkedAt < revalidateMs) {
+                return copy(cached.user);
+            }
+        }
+        List<Object[]> stored = userRepository.findCredentialsById(cached.user.getId());
+        synchronized (usersByUsername) {
+            if (!stored.isEmpty() && sameCredentials(cached.user, stored.get(0))) {
+                cached.checkedAt = now;
+                return copy(cached.user);
+            }
+        }
+        forget(cached.user.getId());
+        return null;
+    }
+
+    private static boolean sameCredentials(User user, Object[] stored) {
+        return Objects.equals(user.getPassword(), stored[0]) && user.getRole() == stored[1]
+                && Boolean.valueOf(user.isActive()).equals(stored[2]);
+    }
+
+    private void forget(Long id) {
+        synchronized (usersByUsername) {
+            writes++;
+            String username = usernamesById.get(id);
+            if (username != null) {
+                removeLocked(username);
+            }
+        }
+    }
+
+    private void removeLocked(String username) {
+        CachedUser removed = usersByUsername.remove(username);
+        if (removed != null) {
+            removeIndexesLocked(removed.user);
+        }
+    }
+
+    // Only where the indexes still point at this user's entry
+    private void removeIndexesLocked(User user) {
+        if (user.getEmail() != null) {
+            usernamesByEmail.remove(user.getEmail(), user.getUsername());
+        }
+        usernamesById.remove(user.getId(), user.getUsername());
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setPassword(user.getPassword());
+        copy.setEmail(user.getEmail());
+        copy.setRole(user.getRole());
+        copy.setFullName(user.getFullName());
+        copy.setActive(user.isActive());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setLastLogin(user.getLastLogin());
+        return copy;
+    }
+}
@@ -0,0 +1,182 @@
+package com.Inventory.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.entity.User;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.repository.UserRepository;
+import com.Inventory.demo.util.JwtUtil;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Replays a mix of product list, search, by-id and token validation calls against the local
+// server before the instance reports ready, until the median latency of a round stops improving.
+// By then the JIT has compiled the request path, the security filter chain and Jackson's ProductDto
+// serializers exist, and Hibernate has cached the query plans. The requests go through the real
+// connector as the first active USER account (token validation looks the account up), or as a
+// synthetic principal without token checks when there is none. The readiness probe stays
+// OUT_OF_SERVICE meanwhile, for at most max-duration-ms. Any answer other than 2xx stops the
+// warm-up, since timing rejected requests would only warm the error path.
+@Service
+public class WarmupService {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+
+    private static final String PRINCIPAL = "warmup";
+    private static final long SEED = 42;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${inventory.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.warmup.round-size:200}")
+    private int roundSize;
+
+    @Value("${inventory.warmup.min-rounds:3}")
+    private int minRounds;
+
+    @Value("${inventory.warmup.max-duration-ms:15000}")
+    private long maxDurationMs;
+
+    // Settled once a round's median is within this fraction of the previous round's, twice running
+    @Value("${inventory.warmup.settle-tolerance:0.1}")
+    private double settleTolerance;
+
+    @Value("${inventory.warmup.threads:4}")
+    private int threads;
+
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    // Boot reports ACCEPTING_TRAFFIC only after every ApplicationReadyEvent listener has run, so the
+    // indexes are loaded by now. Running first among the listeners of that change holds it back
+    // from the readiness probe until the warm-up is over.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || !done.compareAndSet(false, true)) {
+            return;
+        }
+        // Only when a real server is listening; mock web environments have nothing to warm
+        String port = environment.getProperty("local.server.port");
+        if (!enabled || port == null) {
+            return;
+        }
+        try {
+            warmUp("http://localhost:" + port);
+        } catch (Exception e) {
+            // A failed warm-up only costs the speed of the first real requests
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.warn("Warm-up stopped early: {}", cause.toString());
+        }
+    }
+
+    private void warmUp(String base) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMs * 1_000_000;
+        Optional<User> account = userRepository.findFirstByActiveTrueAndRoleOrderByIdAsc(User.UserRole.USER);
+        List<URI> requests = requestMix(base, account.isPresent());
+        String authorization = "Bearer " + jwtUtil.generateToken(account.map(User::getUsername).orElse(PRINCIPAL),
+                "USER");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        Random random = new Random(SEED);
+        List<Long> medians = new ArrayList<>();
+        int settledRounds = 0;
+        try {
+            while (System.nanoTime() < deadline && (medians.size() < minRounds || settledRounds < 2)) {
+                List<Future<Long>> round = new ArrayList<>();
+                for (int i = 0; i < roundSize; i++) {
+                    URI uri = requests.get(random.nextInt(requests.size()));
+                    round.add(executor.submit(() -> timedCall(client, uri, authorization)));
+                }
+                long[] latencies = new long[round.size()];
+                for (int i = 0; i < latencies.length; i++) {
+                    latencies[i] = round.get(i).get();
+                }
+                Arrays.sort(latencies);
+                long median = latencies[latencies.length / 2];
+                if (!medians.isEmpty()) {
+                    long previous = medians.get(medians.size() - 1);
+                    settledRounds = Math.abs(median - previous) <= previous * settleTolerance ? settledRounds + 1 : 0;
+                }
+                medians.add(median);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Warm-up {} after {} rounds of {} requests in {} ms; median latency {} us at first, {} us at last",
+                settledRounds >= 2 ? "settled" : "stopped unsettled", medians.size(), roundSize,
+                (System.nanoTime() - start) / 1_000_000, medians.isEmpty() ? 0 : medians.get(0) / 1000,
+                medians.isEmpty() ? 0 : medians.get(medians.size() - 1) / 1000);
+    }
+
+    // Weighted like ordinary traffic: by-id reads most, then searches, lists and token checks
+    private List<URI> requestMix(String base, boolean validate) {
+        List<URI> requests = new ArrayList<>();
+        List<Product> sample = productRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 50));
+        for (Product product : sample) {
+            requests.add(URI.create(base + "/api/products/" + product.getId()));
+            String word = product.getName().split("\\s+")[0];
+            requests.add(URI.create(base + "/api/products/search?query="
+                    + URLEncoder.encode(word, StandardCharsets.UTF_8)));
+        }
+        int others = Math.max(2, requests.size() / 4);
+        for (int i = 0; i < others; i++) {
+            requests.add(URI.create(base + "/api/products"));
+            if (validate) {
+                requests.add(URI.create(base + "/api/auth/validate"));
+            }
+        }
+        return requests;
+    }
+
+    private static long timedCall(HttpClient client, URI uri, String authorization) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).header("Authorization", authorization)
+                .GET().build(), HttpResponse.BodyHandlers.discarding());
+        long elapsed = System.nanoTime() - start;
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("GET " + uri.getRawPath() + " answered " + response.statusCode());
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,24 @@
+package com.Inventory.demo.util;
+
+// Strong entity tags derived from an entity's version column
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version != null ? version : 0) + "\"";
+    }
+
+    // If-Match uses strong comparison: weak tags never match and "*" matches any existing resource
+    public static boolean matches(String ifMatch, Long version) {
+        String current = of(version);
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,200 @@
+package com.Inventory.demo.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// KLL quantile sketch (Karnin, Lang, Liberty). Values enter the bottom compactor; a full compactor
+// is sorted and every other item, picked from a random offset, moves up a level with twice the
+// weight. Capacities shrink geometrically towards the bottom, so memory stays around 3k values
+// however many are added, with a rank error of roughly 1/k. Sketches of the same k can be merged.
+// Not thread-safe.
+public class KllSketch {
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private final SplittableRandom random = new SplittableRandom();
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private int retained;
+    private int maxRetained;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    // Sorted values and cumulative weights, rebuilt lazily after updates
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+    public KllSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8: " + k);
+        }
+        this.k = k;
+        grow();
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        append(0, value);
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+        retained++;
+        sortedValues = null;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    public void merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with different k");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        while (levels.size() < other.levels.size()) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            double[] items = other.levels.get(h);
+            for (int i = 0; i < other.sizes.get(h); i++) {
+                append(h, items[i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        retained += other.retained;
+        sortedValues = null;
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    // Smallest retained value whose estimated rank reaches q of all values; NaN when empty
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+        ensureSorted();
+        long total = cumulativeWeights[cumulativeWeights.length - 1];
+        long target = (long) Math.ceil(q * total);
+        int index = Arrays.binarySearch(cumulativeWeights, target);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return sortedValues[Math.min(index, sortedValues.length - 1)];
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public int getRetained() {
+        return retained;
+    }
+
+    private void grow() {
+        levels.add(new double[capacity(levels.size(), levels.size() + 1)]);
+        sizes.add(0);
+        maxRetained = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            maxRetained += capacity(h, levels.size());
+        }
+    }
+
+    // The top level holds k values and each level below two thirds of the one above it
+    private int capacity(int level, int height) {
+        int depth = height - level - 1;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(Math.pow(CAPACITY_DECAY, depth) * k)) + 1;
+    }
+
+    private void append(int level, double value) {
+        double[] items = levels.get(level);
+        int size = sizes.get(level);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, Math.max(4, items.length * 2));
+            levels.set(level, items);
+        }
+        items[size] = value;
+        sizes.set(level, size + 1);
+    }
+
+    // Compacts the lowest full level into the one above it
+    private void compress() {
+        for (int h = 0; h < levels.size(); h++) {
+            int size = sizes.get(h);
+            if (size < capacity(h, levels.size())) {
+                continue;
+            }
+            if (h + 1 == levels.size()) {
+                grow();
+            }
+            double[] items = levels.get(h);
+            Arrays.sort(items, 0, size);
+            // With an odd count the smallest item stays behind at this level
+            int keep = size % 2;
+            int offset = random.nextBoolean() ? 1 : 0;
+            for (int i = keep + offset; i < size; i += 2) {
+                append(h + 1, items[i]);
+            }
+            sizes.set(h, keep);
+            retained -= (size - keep) / 2;
+            return;
+        }
+    }
+
+    private void ensureSorted() {
+        if (sortedValues != null) {
+            return;
+        }
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            double[] items = levels.get(h);
+            for (int i = 0; i < sizes.get(h); i++) {
+                values[n] = items[i];
+                weights[n] = 1L << h;
+                n++;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        sortedValues = new double[n];
+        cumulativeWeights = new long[n];
+        long cumulative = 0;
+        for (int i = 0; i < n; i++) {
+            sortedValues[i] = values[order[i]];
+            cumulative += weights[order[i]];
+            cumulativeWeights[i] = cumulative;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.Inventory.demo.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Compressed (radix) trie mapping normalized terms to ids. Nodes whose subtree holds more than
+// CACHE_MIN_SUBTREE ids cache its best TOP_K ids, so a prefix lookup is a walk down the edges plus
+// an array copy however many terms share the prefix; below that a lookup ranks the few ids of the
+// subtree itself. Only those large nodes, at most about 2 * size / CACHE_MIN_SUBTREE of them, pay
+// for an array, and a node with one child and no ids of its own shares the child's. Writes
+// recompute counts and caches only along the touched path, from the deepest node back to the root.
+public class PrefixSuggestTrie {
+
+    public static final int TOP_K = 20;
+
+    // Subtrees this small are ranked on lookup instead of cached; at least TOP_K
+    static final int CACHE_MIN_SUBTREE = 64;
+
+    private static final long[] NO_IDS = new long[0];
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final Node root = new Node(NO_CHARS);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Node {
+        char[] label;
+        char[] childKeys = NO_CHARS;
+        Node[] children = NO_NODES;
+        long[] terminals = NO_IDS;
+        // Ids held by the subtree, counting an id once per term
+        int count;
+        // Null unless count > CACHE_MIN_SUBTREE
+        long[] top;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Entry {
+        final String[] terms;
+        final long score;
+
+        Entry(String[] terms, long score) {
+            this.terms = terms;
+            this.score = score;
+        }
+    }
+
+    // Insert or replace the terms and score for an id
+    public void put(long id, List<String> terms, long score) {
+        String[] distinct = terms.stream().filter(t -> t != null && !t.isEmpty()).distinct().toArray(String[]::new);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(id);
+            entries.put(id, new Entry(distinct, score));
+            if (previous != null) {
+                for (String term : previous.terms) {
+                    if (!contains(distinct, term)) {
+                        remove(root, term, id, new ArrayList<>());
+                    }
+                }
+            }
+            for (String term : distinct) {
+                insert(term, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                for (String term : previous.terms) {
+                    remove(root, term, id, new ArrayList<>());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            root.childKeys = NO_CHARS;
+            root.children = NO_NODES;
+            root.terminals = NO_IDS;
+            root.count = 0;
+            root.top = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best ids whose terms start with the prefix, highest score first
+    public long[] suggest(String prefix, int limit) {
+        int k = Math.max(0, Math.min(limit, TOP_K));
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int pos = 0;
+            while (pos < prefix.length()) {
+                Node child = child(node, prefix.charAt(pos));
+                if (child == null) {
+                    return NO_IDS;
+                }
+                int matched = commonPrefix(child.label, prefix, pos);
+                if (pos + matched == prefix.length()) {
+                    node = child;
+                    break;
+                }
+                if (matched < child.label.length) {
+                    return NO_IDS;
+                }
+                pos += matched;
+                node = child;
+            }
+            if (node.top != null) {
+                return Arrays.copyOf(node.top, Math.min(k, node.top.length));
+            }
+            long[] pool = new long[node.count];
+            return best(Arrays.copyOf(pool, collect(node, pool, 0)), k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String term, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < term.length()) {
+            Node child = child(node, term.charAt(pos));
+            if (child == null) {
+                child = new Node(term.substring(pos).toCharArray());
+                addChild(node, child);
+                node = child;
+                path.add(node);
+                pos = term.length();
+                break;
+            }
+            int matched = commonPrefix(child.label, term, pos);
+            if (matched < child.label.length) {
+                // Split the edge so the shared part becomes its own node
+                Node split = new Node(Arrays.copyOf(child.label, matched));
+                child.label = Arrays.copyOfRange(child.label, matched, child.label.length);
+                replaceChild(node, split);
+                addChild(split, child);
+                split.count = child.count;
+                split.top = child.top;
+                child = split;
+            }
+            node = child;
+            path.add(node);
+            pos += matched;
+        }
+        if (!contains(node.terminals, id)) {
+            node.terminals = append(node.terminals, id);
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeTop(path.get(i));
+        }
+    }
+
+    private boolean remove(Node node, String term, long id, List<Node> path) {
+        path.add(node);
+        Node current = node;
+        int pos = 0;
+        while (pos < term.length()) {
+            Node child = child(current, term.charAt(pos));
+            if (child == null) {
+                return false;
+            }
+            int matched = commonPrefix(child.label, term, pos);
+            if (matched < child.label.length) {
+                return false;
+            }
+            pos += matched;
+            current = child;
+            path.add(current);
+        }
+        current.terminals = without(current.terminals, id);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node n = path.get(i);
+            if (i > 0 && n.terminals.length == 0 && n.children.length == 0) {
+                removeChild(path.get(i - 1), n.label[0]);
+                continue;
+            }
+            recomputeTop(n);
+        }
+        return true;
+    }
+
+    // Recount the subtree and, when it is large enough, merge the node's own ids with the best
+    // ids of its children into its cache
+    private void recomputeTop(Node node) {
+        int count = node.terminals.length;
+        for (Node child : node.children) {
+            count += child.count;
+        }
+        node.count = count;
+        if (count <= CACHE_MIN_SUBTREE) {
+            node.top = null;
+            return;
+        }
+        if (node.terminals.length == 0 && node.children.length == 1) {
+            node.top = node.children[0].top;
+            return;
+        }
+        // Room for the node's own ids plus each child's cache, or its whole subtree when uncached
+        int size = node.terminals.length;
+        for (Node child : node.children) {
+            size += child.top != null ? child.top.length : child.count;
+        }
+        long[] pool = new long[size];
+        int n = 0;
+        for (long id : node.terminals) {
+            pool[n++] = id;
+        }
+        for (Node child : node.children) {
+            if (child.top != null) {
+                System.arraycopy(child.top, 0, pool, n, child.top.length);
+                n += child.top.length;
+            } else {
+                n = collect(child, pool, n);
+            }
+        }
+        node.top = best(Arrays.copyOf(pool, n), TOP_K);
+    }
+
+    // Appends every id in the subtree of an uncached node, which holds at most CACHE_MIN_SUBTREE
+    private static int collect(Node node, long[] into, int n) {
+        for (long id : node.terminals) {
+            into[n++] = id;
+        }
+        for (Node child : node.children) {
+            n = collect(child, into, n);
+        }
+        return n;
+    }
+
+    // The k best distinct ids of the pool, best first
+    private long[] best(long[] pool, int k) {
+        long[] best = new long[Math.min(k, pool.length)];
+        int size = 0;
+        for (long id : pool) {
+            if (contains(best, size, id)) {
+                continue;
+            }
+            if (size < best.length) {
+                best[size++] = id;
+            } else if (size > 0 && better(id, best[size - 1])) {
+                best[size - 1] = id;
+            } else {
+                continue;
+            }
+            // Keep best[] sorted by bubbling the new id into place
+            for (int j = size - 1; j > 0 && better(best[j], best[j - 1]); j--) {
+                long tmp = best[j];
+                best[j] = best[j - 1];
+                best[j - 1] = tmp;
+            }
+        }
+        return size == best.length ? best : Arrays.copyOf(best, size);
+    }
+
+    private boolean better(long a, long b) {
+        long scoreA = entries.containsKey(a) ? entries.get(a).score : Long.MIN_VALUE;
+        long scoreB = entries.containsKey(b) ? entries.get(b).score : Long.MIN_VALUE;
+        if (scoreA != scoreB) {
+            return scoreA > scoreB;
+        }
+        return a < b;
+    }
+
+    private static Node child(Node node, char c) {
+        int idx = Arrays.binarySearch(node.childKeys, c);
+        return idx >= 0 ? node.children[idx] : null;
+    }
+
+    private static void addChild(Node parent, Node child) {
+        int idx = -Arrays.binarySearch(parent.childKeys, child.label[0]) - 1;
+        char[] keys = new char[parent.childKeys.length + 1];
+        Node[] nodes = new Node[parent.children.length + 1];
+        System.arraycopy(parent.childKeys, 0, keys, 0, idx);
+        System.arraycopy(parent.children, 0, nodes, 0, idx);
+        keys[idx] = child.label[0];
+        nodes[idx] = child;
+        System.arraycopy(parent.childKeys, idx, keys, idx + 1, parent.childKeys.length - idx);
+        System.arraycopy(parent.children, idx, nodes, idx + 1, parent.children.length - idx);
+        parent.childKeys = keys;
+        parent.children = nodes;
+    }
+
+    private static void replaceChild(Node parent, Node child) {
+        int idx = Arrays.binarySearch(parent.childKeys, child.label[0]);
+        parent.children[idx] = child;
+    }
+
+    private static void removeChild(Node parent, char c) {
+        int idx = Arrays.binarySearch(parent.childKeys, c);
+        if (idx < 0) {
+            return;
+        }
+        char[] keys = new char[parent.childKeys.length - 1];
+        Node[] nodes = new Node[parent.children.length - 1];
+        System.arraycopy(parent.childKeys, 0, keys, 0, idx);
+        System.arraycopy(parent.children, 0, nodes, 0, idx);
+        System.arraycopy(parent.childKeys, idx + 1, keys, idx, keys.length - idx);
+        System.arraycopy(parent.children, idx + 1, nodes, idx, nodes.length - idx);
+        parent.childKeys = keys;
+        parent.children = nodes;
+    }
+
+    private static int commonPrefix(char[] label, String s, int offset) {
+        int max = Math.min(label.length, s.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == s.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean contains(String[] values, String value) {
+        for (String v : values) {
+            if (v.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        return contains(ids, ids.length, id);
+    }
+
+    private static boolean contains(long[] ids, int length, long id) {
+        for (int i = 0; i < length; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] append(long[] ids, long id) {
+        long[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                long[] result = new long[ids.length - 1];
+                System.arraycopy(ids, 0, result, 0, i);
+                System.arraycopy(ids, i + 1, result, i, result.length - i);
+                return result;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,364 @@
+package com.Inventory.demo.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Group-by aggregation over product attributes laid out as columns: price and quantity as
+// primitive arrays, category, supplier, location and status as dictionary codes. A query filters
+// rows, groups them by any of the coded columns and sums them up, scanning slices of the rows in
+// parallel on the common fork/join pool and merging the partial results. The columns belong to
+// the caller (ProductReadModel), which keeps them unchanged until the query returns; slots whose
+// id is 0 are skipped.
+public class ProductAggregator {
+
+    public enum Dimension {
+        CATEGORY, SUPPLIER, LOCATION, STATUS
+    }
+
+    // Slices smaller than this are not worth handing to another thread
+    private static final int MIN_SLICE = 1 << 15;
+    // Slices aggregate into flat arrays indexed by group key while all of them together need no
+    // more than this many entries; larger key spaces go into a map of the groups actually seen
+    private static final long MAX_DENSE_ENTRIES = 1 << 21;
+
+    private final StringDictionary[] dictionaries = new StringDictionary[Dimension.values().length];
+    private final int[][] codes = new int[Dimension.values().length][];
+    private final long[] ids;
+    private final double[] prices;
+    private final int[] quantities;
+    private final int size;
+
+    public ProductAggregator(long[] ids, double[] prices, int[] quantities, int size) {
+        this.ids = ids;
+        this.prices = prices;
+        this.quantities = quantities;
+        this.size = size;
+    }
+
+    // Every dimension needs its column before a query
+    public ProductAggregator column(Dimension dimension, StringDictionary dictionary, int[] column) {
+        dictionaries[dimension.ordinal()] = dictionary;
+        codes[dimension.ordinal()] = column;
+        return this;
+    }
+
+    // Rows matching every filter, grouped by the given columns in order. A filter keeps rows whose
+    // value is one of those listed; the null entry stands for a missing value. Groups come back
+    // in no particular order, one aggregate each; without grouping there is a single one.
+    public List<Aggregate> aggregate(List<Dimension> groupBy, Map<Dimension, ? extends Collection<String>> filters,
+            double minPrice, double maxPrice, int minQuantity, int maxQuantity) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        // A few slices per worker evens out the load without multiplying partial results
+        int slice = Math.max(MIN_SLICE, size / Math.max(1, parallelism * 4) + 1);
+        // Halving splits can leave up to twice as many slices as the division suggests
+        long slices = 2L * (size / slice + 1);
+        Scan scan = new Scan(groupBy, filters, minPrice, maxPrice, minQuantity, maxQuantity,
+                MAX_DENSE_ENTRIES / slices);
+        Partial result = size <= slice ? scan.run(0, size)
+                : ForkJoinPool.commonPool().invoke(new Slice(scan, 0, size, slice));
+        return result.toAggregates(scan);
+    }
+
+    // Sums for one group; keys follow the groupBy order, null for a missing value
+    public static class Aggregate {
+        private final String[] keys;
+        private long count;
+        private long quantity;
+        private double value;
+        private double priceSum;
+        private double minPrice = Double.POSITIVE_INFINITY;
+        private double maxPrice = Double.NEGATIVE_INFINITY;
+
+        Aggregate(String[] keys) {
+            this.keys = keys;
+        }
+
+        public String[] getKeys() {
+            return keys;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        // Sum of price * quantity
+        public double getValue() {
+            return value;
+        }
+
+        public double getAveragePrice() {
+            return count > 0 ? priceSum / count : 0;
+        }
+
+        public double getMinPrice() {
+            return count > 0 ? minPrice : 0;
+        }
+
+        public double getMaxPrice() {
+            return count > 0 ? maxPrice : 0;
+        }
+    }
+
+    // A query resolved against the dictionaries: filters become per-code lookup tables and the
+    // grouping columns a mixed-radix key, code + 1 per column so that missing values get digit 0
+    private final class Scan {
+        final int[][] groupCodes;
+        final long[] strides;
+        final int[][] filterCodes;
+        final boolean[][] allowed;
+        final long groups;
+        final boolean dense;
+        final boolean empty;
+        final boolean ranged;
+        final double minPrice;
+        final double maxPrice;
+        final int minQuantity;
+        final int maxQuantity;
+        final List<Dimension> groupBy;
+
+        Scan(List<Dimension> groupBy, Map<Dimension, ? extends Collection<String>> filters, double minPrice,
+                double maxPrice, int minQuantity, int maxQuantity, long maxDenseGroups) {
+            this.groupBy = groupBy;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.minQuantity = minQuantity;
+            this.maxQuantity = maxQuantity;
+            groupCodes = new int[groupBy.size()][];
+            strides = new long[groupBy.size()];
+            long radix = 1;
+            for (int g = 0; g < groupBy.size(); g++) {
+                StringDictionary dictionary = dictionaries[groupBy.get(g).ordinal()];
+                groupCodes[g] = codes[groupBy.get(g).ordinal()];
+                strides[g] = radix;
+                radix = Math.multiplyExact(radix, dictionary.size() + 1L);
+            }
+            groups = radix;
+            dense = groups <= maxDenseGroups;
+
+            filterCodes = new int[filters.size()][];
+            allowed = new boolean[filters.size()][];
+            boolean none = false;
+            int f = 0;
+            for (Map.Entry<Dimension, ? extends Collection<String>> filter : filters.entrySet()) {
+                StringDictionary dictionary = dictionaries[filter.getKey().ordinal()];
+                filterCodes[f] = codes[filter.getKey().ordinal()];
+                allowed[f] = new boolean[dictionary.size() + 1];
+                boolean any = false;
+                for (String value : filter.getValue()) {
+                    int code = value == null ? StringDictionary.NONE : dictionary.lookup(value);
+                    if (value == null || code != StringDictionary.NONE) {
+                        allowed[f][code + 1] = true;
+                        any = true;
+                    }
+                }
+                none |= !any;
+                f++;
+            }
+            empty = none || minPrice > maxPrice || minQuantity > maxQuantity;
+            ranged = minPrice > Double.NEGATIVE_INFINITY || maxPrice < Double.POSITIVE_INFINITY
+                    || minQuantity > Integer.MIN_VALUE || maxQuantity < Integer.MAX_VALUE;
+        }
+
+        Partial run(int from, int to) {
+            Partial partial = dense ? new DensePartial((int) groups) : new SparsePartial();
+            if (empty) {
+                return partial;
+            }
+            rows:
+            for (int row = from; row < to; row++) {
+                if (ids[row] == 0) {
+                    continue;
+                }
+                double price = prices[row];
+                int quantity = quantities[row];
+                if (ranged && (price < minPrice || price > maxPrice || quantity < minQuantity || quantity > maxQuantity)) {
+                    continue;
+                }
+                for (int f = 0; f < filterCodes.length; f++) {
+                    if (!allowed[f][filterCodes[f][row] + 1]) {
+                        continue rows;
+                    }
+                }
+                long key = 0;
+                for (int g = 0; g < groupCodes.length; g++) {
+                    key += (groupCodes[g][row] + 1) * strides[g];
+                }
+                partial.add(key, price, quantity);
+            }
+            return partial;
+        }
+
+        String[] decode(long key) {
+            String[] keys = new String[groupBy.size()];
+            for (int g = groupBy.size() - 1; g >= 0; g--) {
+                int digit = (int) (key / strides[g]);
+                key -= digit * strides[g];
+                keys[g] = dictionaries[groupBy.get(g).ordinal()].decode(digit - 1);
+            }
+            return keys;
+        }
+    }
+
+    private static final class Slice extends RecursiveTask<Partial> {
+        private final Scan scan;
+        private final int from;
+        private final int to;
+        private final int slice;
+
+        Slice(Scan scan, int from, int to, int slice) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= slice) {
+                return scan.run(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            Slice left = new Slice(scan, from, middle, slice);
+            left.fork();
+            Partial right = new Slice(scan, middle, to, slice).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private interface Partial {
+        void add(long key, double price, int quantity);
+
+        Partial merge(Partial other);
+
+        List<Aggregate> toAggregates(Scan scan);
+    }
+
+    // Flat arrays indexed by group key, for a small number of possible groups
+    private static final class DensePartial implements Partial {
+        final long[] counts;
+        final long[] quantities;
+        final double[] values;
+        final double[] priceSums;
+        final double[] minPrices;
+        final double[] maxPrices;
+
+        DensePartial(int groups) {
+            counts = new long[groups];
+            quantities = new long[groups];
+            values = new double[groups];
+            priceSums = new double[groups];
+            minPrices = new double[groups];
+            maxPrices = new double[groups];
+            Arrays.fill(minPrices, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxPrices, Double.NEGATIVE_INFINITY);
+        }
+
+        @Override
+        public void add(long key, double price, int quantity) {
+            int group = (int) key;
+            counts[group]++;
+            quantities[group] += quantity;
+            values[group] += price * quantity;
+            priceSums[group] += price;
+            // Plain comparisons: prices are never NaN, and Math.min pays for handling it
+            if (price < minPrices[group]) {
+                minPrices[group] = price;
+            }
+            if (price > maxPrices[group]) {
+                maxPrices[group] = price;
+            }
+        }
+
+        @Override
+        public Partial merge(Partial other) {
+            DensePartial dense = (DensePartial) other;
+            for (int group = 0; group < counts.length; group++) {
+                counts[group] += dense.counts[group];
+                quantities[group] += dense.quantities[group];
+                values[group] += dense.values[group];
+                priceSums[group] += dense.priceSums[group];
+                minPrices[group] = Math.min(minPrices[group], dense.minPrices[group]);
+                maxPrices[group] = Math.max(maxPrices[group], dense.maxPrices[group]);
+            }
+            return this;
+        }
+
+        @Override
+        public List<Aggregate> toAggregates(Scan scan) {
+            List<Aggregate> result = new ArrayList<>();
+            for (int group = 0; group < counts.length; group++) {
+                // Without grouping the single total is reported even when nothing matched
+                if (counts[group] == 0 && !scan.groupBy.isEmpty()) {
+                    continue;
+                }
+                Aggregate aggregate = new Aggregate(scan.decode(group));
+                aggregate.count = counts[group];
+                aggregate.quantity = quantities[group];
+                aggregate.value = values[group];
+                aggregate.priceSum = priceSums[group];
+                aggregate.minPrice = minPrices[group];
+                aggregate.maxPrice = maxPrices[group];
+                result.add(aggregate);
+            }
+            return result;
+        }
+    }
+
+    // Only the groups actually seen, for groupings whose key space is too large to lay out
+    private static final class SparsePartial implements Partial {
+        final Map<Long, Aggregate> groups = new HashMap<>();
+
+        @Override
+        public void add(long key, double price, int quantity) {
+            Aggregate aggregate = groups.computeIfAbsent(key, k -> new Aggregate(null));
+            aggregate.count++;
+            aggregate.quantity += quantity;
+            aggregate.value += price * quantity;
+            aggregate.priceSum += price;
+            aggregate.minPrice = Math.min(aggregate.minPrice, price);
+            aggregate.maxPrice = Math.max(aggregate.maxPrice, price);
+        }
+
+        @Override
+        public Partial merge(Partial other) {
+            ((SparsePartial) other).groups.forEach((key, theirs) -> {
+                Aggregate ours = groups.putIfAbsent(key, theirs);
+                if (ours != null) {
+                    ours.count += theirs.count;
+                    ours.quantity += theirs.quantity;
+                    ours.value += theirs.value;
+                    ours.priceSum += theirs.priceSum;
+                    ours.minPrice = Math.min(ours.minPrice, theirs.minPrice);
+                    ours.maxPrice = Math.max(ours.maxPrice, theirs.maxPrice);
+                }
+            });
+            return this;
+        }
+
+        @Override
+        public List<Aggregate> toAggregates(Scan scan) {
+            List<Aggregate> result = new ArrayList<>(groups.size());
+            groups.forEach((key, sums) -> {
+                Aggregate aggregate = new Aggregate(scan.decode(key));
+                aggregate.count = sums.count;
+                aggregate.quantity = sums.quantity;
+                aggregate.value = sums.value;
+                aggregate.priceSum = sums.priceSum;
+                aggregate.minPrice = sums.minPrice;
+                aggregate.maxPrice = sums.maxPrice;
+                result.add(aggregate);
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.Inventory.demo.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Line-oriented append log for the reservation engine. Each record is one line of
+// space-separated fields; the first field is the record type. Appends are group-committed:
+// each is queued, and whichever appender gets the write lock first hands everything queued so
+// far to the OS in one write, so appenders that were waiting for the lock usually find their
+// line already written and return at once. append() returns once its line is with the OS,
+// force() makes it durable, and rewrite() and compact() atomically replace the file with a
+// compacted one.
+public class ReservationJournal implements AutoCloseable {
+
+    public static final String RESERVE = "R";
+    public static final String CONFIRM = "C";
+    public static final String RELEASE = "X";
+    public static final String FLUSHED = "F";
+    public static final String PENDING = "P";
+    public static final String WATERMARK = "W";
+
+    private final Path path;
+    private volatile FileChannel channel;
+    private final ConcurrentLinkedQueue<Entry> queued = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private static final class Entry {
+        final byte[] line;
+        // Set by the writer before it releases the lock
+        boolean written;
+        IOException failure;
+
+        Entry(byte[] line) {
+            this.line = line;
+        }
+    }
+
+    public ReservationJournal(Path path) {
+        this.path = path;
+    }
+
+    public List<String[]> open() {
+        writeLock.lock();
+        try {
+            return read();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private List<String[]> read() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            List<String[]> records = records();
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open reservation journal " + path, e);
+        }
+    }
+
+    private List<String[]> records() throws IOException {
+        List<String[]> records = new ArrayList<>();
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // A torn last line from a crash is simply ignored
+                    if (!line.isBlank() && line.endsWith(";")) {
+                        records.add(line.substring(0, line.length() - 1).split(" "));
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    // Bytes written so far, including anything appended since the last force()
+    public long size() {
+        try {
+            FileChannel current = channel;
+            return current != null && current.isOpen() ? current.size() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public void append(Object... fields) {
+        Entry entry = new Entry(line(fields).getBytes(StandardCharsets.UTF_8));
+        queued.add(entry);
+        writeLock.lock();
+        try {
+            if (!entry.written) {
+                writeQueued();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (entry.failure != null) {
+            throw new UncheckedIOException("Cannot append to reservation journal " + path, entry.failure);
+        }
+    }
+
+    // Not under the write lock, so appends carry on while the disk syncs
+    public void force() {
+        try {
+            FileChannel current = channel;
+            if (current != null && current.isOpen()) {
+                current.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot sync reservation journal " + path, e);
+        }
+    }
+
+    // Caller holds the write lock
+    private void writeQueued() {
+        List<Entry> batch = new ArrayList<>();
+        int size = 0;
+        Entry next;
+        while ((next = queued.poll()) != null) {
+            batch.add(next);
+            size += next.line.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (Entry entry : batch) {
+            buffer.put(entry.line);
+        }
+        buffer.flip();
+        IOException failure = null;
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        for (Entry entry : batch) {
+            entry.failure = failure;
+            entry.written = true;
+        }
+    }
+
+    // Replace the journal with the given records, e.g. the live state after a replay
+    public void rewrite(List<Object[]> records) {
+        writeLock.lock();
+        try {
+            replace(records);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Replace the journal with what fold makes of its records while it is open. Appends wait for
+    // the lock meanwhile and land in the new file, after the folded records, so fold only has to
+    // turn a log into a shorter one that replays the same.
+    public void compact(Function<List<String[]>, List<Object[]>> fold) {
+        writeLock.lock();
+        try {
+            if (!queued.isEmpty()) {
+                writeQueued();
+            }
+            replace(fold.apply(records()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact reservation journal " + path, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void replace(List<Object[]> records) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (Object[] fields : records) {
+                sb.append(line(fields));
+            }
+            Files.writeString(tmp, sb.toString(), StandardCharsets.UTF_8);
+            try (FileChannel tmpChannel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                tmpChannel.force(true);
+            }
+            if (channel != null) {
+                channel.close();
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact reservation journal " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close reservation journal " + path, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static String line(Object[] fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(fields[i]);
+        }
+        return sb.append(";\n").toString();
+    }
+}
@@ -0,0 +1,68 @@
+package com.Inventory.demo.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Text normalization shared by the in-memory search indexes
+public final class SearchText {
+
+    private SearchText() {
+    }
+
+    // Lower-case, strip accents and collapse punctuation/whitespace runs to a single space
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    public static List<String> tokens(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split(" ")) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    // The normalized text plus every suffix starting at a word boundary, so "mechanical keyboard"
+    // is also reachable by typing "keyb"
+    public static List<String> wordSuffixes(String text, int maxWords) {
+        String normalized = normalize(text);
+        List<String> suffixes = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return suffixes;
+        }
+        suffixes.add(normalized);
+        int start = normalized.indexOf(' ');
+        while (start >= 0 && suffixes.size() < maxWords) {
+            suffixes.add(normalized.substring(start + 1));
+            start = normalized.indexOf(' ', start + 1);
+        }
+        return suffixes;
+    }
+}
@@ -0,0 +1,21 @@
+package com.Inventory.demo.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public final class SecurityUtil {
+
+    public static final String SYSTEM_USER = "system";
+
+    private SecurityUtil() {
+    }
+
+    // Username set by JwtAuthenticationFilter, or "system" for scheduled and startup work
+    public static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication.getName() == null) {
+            return SYSTEM_USER;
+        }
+        return authentication.getName();
+    }
+}
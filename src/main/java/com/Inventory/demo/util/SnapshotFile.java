@@ -0,0 +1,237 @@
+package com.Inventory.demo.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Binary snapshot file: a fixed header (magic, format version, change token, payload length and a
+// CRC32C of token and payload) followed by whatever the owner writes. Writing streams through a direct
+// buffer into a temporary file that replaces the old snapshot only once complete and synced;
+// reading maps the file and checks the checksum before any of it is trusted. A snapshot must fit
+// in one mapping, just under 2 GB.
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x494E5653; // "INVS"
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private SnapshotFile() {
+    }
+
+    public static Writer create(Path path, int format, long token) throws IOException {
+        return new Writer(path, format, token);
+    }
+
+    // Rejects a file of another format, a truncated one or one whose checksum does not match
+    public static Reader open(Path path, int format) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + path + " has an unusable size of " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(path + " is not a snapshot");
+            }
+            int actualFormat = buffer.getInt();
+            if (actualFormat != format) {
+                throw new IOException("Snapshot " + path + " has format " + actualFormat + ", expected " + format);
+            }
+            long token = buffer.getLong();
+            long length = buffer.getLong();
+            int checksum = buffer.getInt();
+            if (length != size - HEADER_SIZE) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            CRC32C crc = checksum(token);
+            crc.update(buffer.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Snapshot " + path + " fails its checksum");
+            }
+            return new Reader(buffer, token);
+        }
+    }
+
+    private static CRC32C checksum(long token) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(0, token));
+        return crc;
+    }
+
+    public static final class Writer implements AutoCloseable {
+        private final Path path;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CRC32C crc;
+        private final int format;
+        private final long token;
+        private long length;
+        private boolean committed;
+
+        private Writer(Path path, int format, long token) throws IOException {
+            this.path = path;
+            this.format = format;
+            this.token = token;
+            this.crc = checksum(token);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE);
+        }
+
+        public void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        public void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        public void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        public void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        // Length-prefixed UTF-8; null is written as length -1
+        public void putString(String value) throws IOException {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        // Completes the header, syncs and moves the file into place
+        public void commit() throws IOException {
+            drain();
+            if (HEADER_SIZE + length > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot of " + length + " bytes is too large to map");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(format).putLong(token).putLong(length).putInt((int) crc.getValue());
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            length += buffer.remaining();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // Reads straight from the mapping; the file may be replaced meanwhile without affecting it
+    public static final class Reader {
+        private final ByteBuffer buffer;
+        private final long token;
+        private byte[] scratch = new byte[256];
+
+        private Reader(ByteBuffer buffer, long token) {
+            this.buffer = buffer;
+            this.token = token;
+        }
+
+        public long getToken() {
+            return token;
+        }
+
+        public byte getByte() {
+            return buffer.get();
+        }
+
+        public int getInt() {
+            return buffer.getInt();
+        }
+
+        public long getLong() {
+            return buffer.getLong();
+        }
+
+        public double getDouble() {
+            return buffer.getDouble();
+        }
+
+        public String getString() {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // Bulk reads of a whole column, copied out of the mapping in one go
+        public void getBytes(byte[] target, int count) {
+            buffer.get(target, 0, count);
+        }
+
+        public void getInts(int[] target, int count) {
+            buffer.asIntBuffer().get(target, 0, count);
+            buffer.position(buffer.position() + count * 4);
+        }
+
+        public void getLongs(long[] target, int count) {
+            buffer.asLongBuffer().get(target, 0, count);
+            buffer.position(buffer.position() + count * 8);
+        }
+
+        public void getDoubles(double[] target, int count) {
+            buffer.asDoubleBuffer().get(target, 0, count);
+            buffer.position(buffer.position() + count * 8);
+        }
+    }
+}
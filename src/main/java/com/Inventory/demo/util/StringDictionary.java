@@ -0,0 +1,45 @@
+package com.Inventory.demo.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Maps repeated strings to dense int codes so a column can store one int per row and share a single
+// copy of each distinct value. Codes are never reused; null encodes as NONE. Not thread-safe.
+public class StringDictionary {
+
+    public static final int NONE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public int encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    // NONE when the value has never been encoded, so no row can hold it
+    public int lookup(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        return codes.getOrDefault(value, NONE);
+    }
+
+    public String decode(int code) {
+        return code == NONE ? null : values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
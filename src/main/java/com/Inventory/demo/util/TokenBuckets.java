@@ -0,0 +1,68 @@
+package com.Inventory.demo.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets keyed by client, one long per key. Each bucket is kept as the time at which it
+// would be full again (the generic cell rate algorithm): taking n tokens pushes that time n refill
+// intervals later, and is refused if it would end up more than a full bucket ahead of now. That
+// is one CAS per request with no lock, and a bucket whose time has passed is indistinguishable
+// from a new one, so idle keys can be dropped at any moment without losing anything.
+public class TokenBuckets {
+
+    private final ConcurrentHashMap<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+    private final long nanosPerToken;
+    private final long capacityNanos;
+
+    public TokenBuckets(double tokensPerSecond, int capacity) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
+        }
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = capacity * nanosPerToken;
+    }
+
+    // Zero when the tokens were taken; otherwise nothing is taken and the result is how many
+    // nanoseconds until they would be
+    public long tryTake(String key, int tokens) {
+        long cost = tokens * nanosPerToken;
+        AtomicLong bucket = fullAt.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long current = bucket.get();
+            long next = (current - now > 0 ? current : now) + cost;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back tokens taken for a request that was refused further on. A bucket pushed before now
+    // is simply full, so giving back more than it holds is harmless.
+    public void refund(String key, int tokens) {
+        AtomicLong bucket = fullAt.get(key);
+        if (bucket != null) {
+            bucket.addAndGet(-tokens * nanosPerToken);
+        }
+    }
+
+    // Drops buckets that have refilled; returns how many remain. A take racing with the removal
+    // may land on the dropped bucket and go uncounted, which only errs in the client's favour.
+    public int evictFull() {
+        long now = System.nanoTime();
+        fullAt.forEach((key, bucket) -> {
+            if (bucket.get() - now <= 0) {
+                fullAt.remove(key, bucket);
+            }
+        });
+        return fullAt.size();
+    }
+
+    public int size() {
+        return fullAt.size();
+    }
+}
@@ -0,0 +1,40 @@
+package com.Inventory.demo.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Keeps the n largest items seen so far in a min-heap of size n: O(total * log n) time and
+// O(n) memory, instead of sorting everything and taking a prefix
+public class TopN<T> {
+
+    private final int n;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+
+    public TopN(int n, Comparator<? super T> order) {
+        this.n = n;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.max(1, n), order);
+    }
+
+    public void offer(T item) {
+        if (n <= 0) {
+            return;
+        }
+        if (heap.size() < n) {
+            heap.offer(item);
+        } else if (order.compare(item, heap.peek()) > 0) {
+            heap.poll();
+            heap.offer(item);
+        }
+    }
+
+    // Largest first
+    public List<T> toList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order.reversed());
+        return result;
+    }
+}
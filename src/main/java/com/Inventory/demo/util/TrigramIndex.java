@@ -0,0 +1,322 @@
+package com.Inventory.demo.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Typo-tolerant token index. Tokens are broken into padded trigrams ("$$k", "$ke", "key", ...)
+// with one posting list per trigram. A query gathers candidates from the rarest trigrams first;
+// once MAX_COUNTED are held, longer lists are no longer walked but probed for those candidates by
+// binary search, so a common trigram costs a few thousand lookups however long its list grows.
+// The best-overlapping few are then verified with a bounded edit distance.
+public class TrigramIndex {
+
+    // Cap on candidates that reach edit-distance verification
+    public static final int MAX_VERIFIED = 256;
+
+    // Stop admitting new candidates, and walking whole posting lists, once this many are counted
+    private static final int MAX_COUNTED = MAX_VERIFIED * 8;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Field[]> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // A weighted group of tokens belonging to one document, e.g. the product name
+    public static final class Field {
+        final String[] tokens;
+        final double weight;
+
+        public Field(List<String> tokens, double weight) {
+            this.tokens = tokens.toArray(new String[0]);
+            this.weight = weight;
+        }
+    }
+
+    public static final class Hit {
+        private final long id;
+        private final double score;
+
+        Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    public void put(long id, List<Field> fields) {
+        Field[] newFields = fields.toArray(new Field[0]);
+        lock.writeLock().lock();
+        try {
+            Field[] previous = documents.put(id, newFields);
+            Set<Long> oldGrams = previous != null ? grams(previous) : new HashSet<>();
+            Set<Long> newGrams = grams(newFields);
+            for (long gram : oldGrams) {
+                if (!newGrams.contains(gram)) {
+                    Postings list = postings.get(gram);
+                    if (list != null && list.remove(id) && list.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            for (long gram : newGrams) {
+                if (!oldGrams.contains(gram)) {
+                    postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Field[] previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (long gram : grams(previous)) {
+                Postings list = postings.get(gram);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> search(List<String> queryTokens, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return hits;
+        }
+        lock.readLock().lock();
+        try {
+            // Rarest trigrams first so the candidate set is seeded by the most selective grams
+            List<Postings> lists = new ArrayList<>();
+            Set<Long> queryGrams = new HashSet<>();
+            for (String token : queryTokens) {
+                addGrams(token, queryGrams);
+            }
+            for (long gram : queryGrams) {
+                Postings list = postings.get(gram);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            lists.sort(Comparator.comparingInt(p -> p.size));
+
+            Map<Long, int[]> overlap = new HashMap<>();
+            for (Postings list : lists) {
+                int from = 0;
+                for (; from < list.size && overlap.size() < MAX_COUNTED; from++) {
+                    overlap.computeIfAbsent(list.ids[from], id -> new int[1])[0]++;
+                }
+                if (from == list.size) {
+                    continue;
+                }
+                // Full: the rest of the list can only add to candidates already held. Ids below
+                // list.ids[from] were met in the part walked, so only the ones above are looked up.
+                if (list.size - from <= overlap.size()) {
+                    for (int i = from; i < list.size; i++) {
+                        int[] count = overlap.get(list.ids[i]);
+                        if (count != null) {
+                            count[0]++;
+                        }
+                    }
+                } else {
+                    long floor = list.ids[from];
+                    for (Map.Entry<Long, int[]> entry : overlap.entrySet()) {
+                        if (entry.getKey() >= floor
+                                && Arrays.binarySearch(list.ids, from, list.size, entry.getKey()) >= 0) {
+                            entry.getValue()[0]++;
+                        }
+                    }
+                }
+            }
+
+            PriorityQueue<Map.Entry<Long, int[]>> best = new PriorityQueue<>(
+                    Comparator.comparingInt((Map.Entry<Long, int[]> e) -> e.getValue()[0]));
+            for (Map.Entry<Long, int[]> entry : overlap.entrySet()) {
+                best.offer(entry);
+                if (best.size() > MAX_VERIFIED) {
+                    best.poll();
+                }
+            }
+
+            for (Map.Entry<Long, int[]> entry : best) {
+                double score = verify(queryTokens, documents.get(entry.getKey()));
+                if (score > 0) {
+                    hits.add(new Hit(entry.getKey(), score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(Hit::getScore).reversed().thenComparingLong(Hit::getId));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    // Each query token contributes its best field match; tokens with no match within the
+    // allowed distance contribute nothing, and a document needs at least one match
+    private double verify(List<String> queryTokens, Field[] fields) {
+        if (fields == null) {
+            return 0;
+        }
+        double score = 0;
+        int matched = 0;
+        for (String query : queryTokens) {
+            int maxDistance = maxDistance(query.length());
+            double bestToken = 0;
+            for (Field field : fields) {
+                for (String token : field.tokens) {
+                    double s;
+                    if (token.equals(query)) {
+                        s = 1.0;
+                    } else if (token.startsWith(query) && query.length() >= 3) {
+                        s = 0.9;
+                    } else {
+                        int d = boundedDistance(query, token, maxDistance);
+                        if (d > maxDistance) {
+                            continue;
+                        }
+                        s = 1.0 - (double) d / (Math.max(query.length(), token.length()) + 1);
+                    }
+                    bestToken = Math.max(bestToken, s * field.weight);
+                }
+            }
+            if (bestToken > 0) {
+                matched++;
+                score += bestToken;
+            }
+        }
+        if (matched == 0) {
+            return 0;
+        }
+        // Favour documents that match every query token
+        return score * matched / queryTokens.size();
+    }
+
+    static int maxDistance(int length) {
+        if (length <= 3) {
+            return 0;
+        }
+        if (length <= 5) {
+            return 1;
+        }
+        return length <= 9 ? 2 : 3;
+    }
+
+    // Optimal string alignment distance restricted to a diagonal band; returns max + 1 as soon
+    // as every cell in a row exceeds the bound
+    static int boundedDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int big = max + 1;
+        int[] prevPrev = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] curr = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            Arrays.fill(curr, big);
+            curr[0] = i;
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            int rowMin = curr[0];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    v = Math.min(v, prevPrev[j - 2] + 1);
+                }
+                curr[j] = Math.min(v, big);
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+            if (rowMin > max) {
+                return big;
+            }
+            int[] tmp = prevPrev;
+            prevPrev = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return Math.min(prev[m], big);
+    }
+
+    private static Set<Long> grams(Field[] fields) {
+        Set<Long> grams = new HashSet<>();
+        for (Field field : fields) {
+            for (String token : field.tokens) {
+                addGrams(token, grams);
+            }
+        }
+        return grams;
+    }
+
+    private static void addGrams(String token, Set<Long> grams) {
+        String padded = "$$" + token + "$";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+    }
+
+    // Sorted, growable id list; ids mostly arrive in ascending order so appends are the common case
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            int idx = Arrays.binarySearch(ids, 0, size, id);
+            if (idx >= 0) {
+                return;
+            }
+            idx = -idx - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, idx, ids, idx + 1, size - idx);
+            ids[idx] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int idx = Arrays.binarySearch(ids, 0, size, id);
+            if (idx < 0) {
+                return false;
+            }
+            System.arraycopy(ids, idx + 1, ids, idx, size - idx - 1);
+            size--;
+            return true;
+        }
+    }
+}
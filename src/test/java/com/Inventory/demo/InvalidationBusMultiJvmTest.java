@@ -0,0 +1,218 @@
+package com.Inventory.demo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs two instances of the application in their own JVMs against one shared H2 database, with
+// the read model serving product reads from memory and the invalidation bus on the database
+// transport. A write through either instance has to show up in the other's cached reads. Try the
+// multicast transport with -Dinventory.invalidation.test-transport=multicast where loopback
+// routes it.
+class InvalidationBusMultiJvmTest {
+
+    private static final String TRANSPORT = System.getProperty("inventory.invalidation.test-transport", "database");
+
+    private static final Path DIRECTORY = Paths.get("target", "invalidation-bus-test").toAbsolutePath();
+    private static final Duration CONVERGENCE_TIMEOUT = Duration.ofSeconds(15);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private static final List<Process> processes = new ArrayList<>();
+    private static Node first;
+    private static Node second;
+
+    private static final class Node {
+        final String base;
+        String token;
+
+        Node(int port) {
+            this.base = "http://localhost:" + port;
+        }
+    }
+
+    @BeforeAll
+    static void startInstances() throws Exception {
+        deleteRecursively(DIRECTORY);
+        Files.createDirectories(DIRECTORY);
+        // One after the other, so only the first creates the schema and the seed data
+        first = start("a");
+        second = start("b");
+        first.token = login(first);
+        second.token = login(second);
+    }
+
+    @AfterAll
+    static void stopInstances() throws Exception {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    @Test
+    void writesOnOneInstanceReachTheOthersCaches() throws Exception {
+        JsonNode products = MAPPER.readTree(send(second, "GET", "/api/products", null).body());
+        long id = products.get(0).get("id").asLong();
+        // Both instances now hold the product in their read models
+        assertEquals(200, send(first, "GET", "/api/products/" + id, null).statusCode());
+
+        ObjectNode product = (ObjectNode) MAPPER.readTree(send(first, "GET", "/api/products/" + id, null).body());
+        product.put("name", "Converged Widget");
+        product.put("quantity", 4321);
+        assertEquals(200, send(first, "PUT", "/api/products/" + id, product.toString()).statusCode());
+        awaitOn(second, "/api/products/" + id, response -> response.statusCode() == 200
+                && response.body().contains("Converged Widget") && response.body().contains("4321"));
+        awaitOn(second, "/api/products/suggest?prefix=Converged", response -> response.body().contains("Converged"));
+
+        // And back the other way
+        product = (ObjectNode) MAPPER.readTree(send(second, "GET", "/api/products/" + id, null).body());
+        product.put("name", "Returned Widget");
+        assertEquals(200, send(second, "PUT", "/api/products/" + id, product.toString()).statusCode());
+        awaitOn(first, "/api/products/" + id, response -> response.body().contains("Returned Widget"));
+
+        product.remove("id");
+        product.remove("version");
+        product.put("name", "Fresh Gadget");
+        product.put("sku", "BUS-TEST-1");
+        HttpResponse<String> created = send(first, "POST", "/api/products", product.toString());
+        assertEquals(201, created.statusCode(), created.body());
+        long createdId = MAPPER.readTree(created.body()).get("id").asLong();
+        awaitOn(second, "/api/products/" + createdId, response -> response.statusCode() == 200);
+        awaitOn(second, "/api/products/search?query=" + URLEncoder.encode("Fresh Gadget", StandardCharsets.UTF_8),
+                response -> response.body().contains("BUS-TEST-1"));
+
+        assertEquals(204, send(first, "DELETE", "/api/products/" + createdId, null).statusCode());
+        awaitOn(second, "/api/products/" + createdId, response -> response.statusCode() == 404);
+    }
+
+    private static Node start(String name) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path home = DIRECTORY.resolve(name);
+        Files.createDirectories(home);
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx384m",
+                "-cp", System.getProperty("java.class.path"),
+                InventoryManagmentSystemApplication.class.getName(),
+                "--server.port=" + port,
+                // The first process to open the file serves it to the other over TCP
+                "--spring.datasource.url=jdbc:h2:file:" + DIRECTORY.resolve("shared") + ";AUTO_SERVER=TRUE;LOCK_TIMEOUT=10000",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.Inventory.demo=INFO",
+                "--logging.level.org.springframework.security=INFO",
+                "--inventory.invalidation.transport=" + TRANSPORT,
+                "--inventory.invalidation.multicast.interface="
+                        + NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress()).getName(),
+                "--inventory.read-model.enabled=true",
+                "--inventory.read-model.snapshot.path=",
+                "--inventory.reservations.journal-path=" + home.resolve("reservations.log"),
+                "--inventory.audit.spill-path=" + home.resolve("audit-spill.jsonl"),
+                "--inventory.alerts.file.path=",
+                "--inventory.warmup.enabled=false",
+                "--inventory.rate-limit.enabled=false"));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(home.resolve("console.log").toFile())
+                .start();
+        processes.add(process);
+
+        Node node = new Node(port);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(3);
+        while (System.nanoTime() < deadline) {
+            assertTrue(process.isAlive(), "Instance " + name + " exited; see " + home.resolve("console.log"));
+            try {
+                if (send(node, "GET", "/actuator/health/readiness", null).statusCode() == 200) {
+                    return node;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new AssertionError("Instance " + name + " not ready in time; see " + home.resolve("console.log"));
+    }
+
+    private static String login(Node node) throws Exception {
+        HttpResponse<String> response = send(node, "POST", "/api/auth/login",
+                "{\"username\":\"admin\",\"password\":\"admin123\"}");
+        assertEquals(200, response.statusCode(), response.body());
+        return MAPPER.readTree(response.body()).get("token").asText();
+    }
+
+    private static void awaitOn(Node node, String path, Predicate<HttpResponse<String>> converged) throws Exception {
+        long deadline = System.nanoTime() + CONVERGENCE_TIMEOUT.toNanos();
+        HttpResponse<String> response;
+        do {
+            response = send(node, "GET", path, null);
+            if (converged.test(response)) {
+                return;
+            }
+            Thread.sleep(100);
+        } while (System.nanoTime() < deadline);
+        throw new AssertionError("No convergence on " + node.base + path + " within " + CONVERGENCE_TIMEOUT
+                + "; last answer " + response.statusCode() + " " + response.body());
+    }
+
+    private static HttpResponse<String> send(Node node, String method, String path, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(node.base + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, json == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json));
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (node.token != null) {
+            request.header("Authorization", "Bearer " + node.token);
+        }
+        return CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        File[] children = path.toFile().listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child.toPath());
+            }
+        }
+        Files.delete(path);
+    }
+}
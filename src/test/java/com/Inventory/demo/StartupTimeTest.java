@@ -0,0 +1,73 @@
+package com.Inventory.demo;
+
+import com.Inventory.demo.dto.ReportDto;
+import com.Inventory.demo.service.StartupReportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Starts the application the way main does, with the startup profile, and times it up to the first
+// answered product list: login plus an authenticated GET /api/products. How long that takes depends
+// on the machine and on what else the build runs, so the time is only held to a budget on request,
+// with -Dinventory.startup.budget-ms on known hardware; otherwise the test checks that the startup
+// profile comes up and answers.
+class StartupTimeTest {
+
+    // 0 leaves the time unchecked
+    private static final long BUDGET_MS = Long.getLong("inventory.startup.budget-ms", 0);
+
+    @Test
+    void firstRequestIsAnsweredWithinBudget() throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                InventoryManagmentSystemApplication.class)
+                .applicationStartup(new BufferingApplicationStartup(10000))
+                .profiles("startup")
+                // Its own database and files, apart from the contexts other tests share. Passed as
+                // arguments because default properties lose to application.properties.
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:startup_time_test",
+                        "--inventory.reservations.journal-path=target/startup-time-test/reservations.log",
+                        "--inventory.audit.spill-path=target/startup-time-test/audit-spill.jsonl",
+                        "--inventory.alerts.file.path=",
+                        "--inventory.read-model.snapshot.path=",
+                        // run() would wait for it; the time to ready is not what is measured here
+                        "--inventory.warmup.enabled=false")) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+
+            HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, login.statusCode(), login.body());
+            JsonNode body = new ObjectMapper().readTree(login.body());
+
+            HttpResponse<String> products = client.send(HttpRequest.newBuilder(URI.create(base + "/api/products"))
+                    .header("Authorization", "Bearer " + body.get("token").asText())
+                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, products.statusCode());
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            ReportDto.StartupReport report = context.getBean(StartupReportService.class).getReport();
+            assertTrue(report.isLazyInitialization());
+            assertFalse(report.getPhases().isEmpty());
+            assertFalse(report.getSlowestBeans().isEmpty());
+            assertTrue(BUDGET_MS <= 0 || elapsedMs < BUDGET_MS, "First request answered " + elapsedMs + " ms after start, budget "
+                    + BUDGET_MS + " ms; slowest beans: " + report.getSlowestBeans().stream()
+                            .limit(5).map(ReportDto.StartupBean::getName).toList());
+        }
+    }
+}
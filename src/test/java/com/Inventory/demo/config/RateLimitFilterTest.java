@@ -0,0 +1,159 @@
+package com.Inventory.demo.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private final ApplicationAvailability availability = mock(ApplicationAvailability.class);
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(availability.getReadinessState()).thenReturn(ReadinessState.ACCEPTING_TRAFFIC);
+        // Buckets that take far longer than a test to refill
+        filter = filter(0.001, 5, 0.001, 8, 4);
+    }
+
+    @AfterEach
+    void clearPrincipal() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void emptyBucketAnswers429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            assertEquals(200, get("/api/products/1", "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse refused = get("/api/products/1", "10.0.0.1");
+        assertEquals(429, refused.getStatus());
+        assertTrue(Long.parseLong(refused.getHeader("Retry-After")) >= 1);
+        assertTrue(refused.getContentAsString().contains("retryAfterSeconds"));
+
+        // A list costs 4 tokens, so the next address affords two
+        assertEquals(200, get("/api/products", "10.0.0.2").getStatus());
+        assertEquals(200, get("/api/products", "10.0.0.2").getStatus());
+        assertEquals(429, get("/api/products", "10.0.0.2").getStatus());
+    }
+
+    // A user out of tokens must not use up the address it shares with others
+    @Test
+    void userRefusalLeavesTheAddressBucketAlone() throws Exception {
+        signIn("greedy");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, get("/api/products/1", "10.0.0.3").getStatus());
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(429, get("/api/products/1", "10.0.0.3").getStatus());
+        }
+        signIn("neighbour");
+        assertEquals(200, get("/api/products/1", "10.0.0.3").getStatus());
+        assertEquals(200, get("/api/products/1", "10.0.0.3").getStatus());
+        assertEquals(200, get("/api/products/1", "10.0.0.3").getStatus());
+        assertEquals(429, get("/api/products/1", "10.0.0.3").getStatus());
+    }
+
+    @Test
+    void requestsBeyondTheConcurrencyLimitAreShed() throws Exception {
+        filter = filter(1000, 1000, 1000, 1000, 1);
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 1);
+        filter.init();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(request("/api/products/1", "10.0.0.4"), new MockHttpServletResponse(), blocking);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            MockHttpServletResponse shed = get("/api/products/1", "10.0.0.5");
+            assertEquals(503, shed.getStatus());
+            assertEquals("1", shed.getHeader("Retry-After"));
+        } finally {
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(200, get("/api/products/1", "10.0.0.5").getStatus());
+    }
+
+    // The warm-up runs before the instance is ready and must not be throttled
+    @Test
+    void nothingIsLimitedBeforeReady() throws Exception {
+        when(availability.getReadinessState()).thenReturn(ReadinessState.REFUSING_TRAFFIC);
+        for (int i = 0; i < 50; i++) {
+            MockHttpServletResponse response = get("/api/products", "10.0.0.6");
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader("Retry-After"));
+        }
+        when(availability.getReadinessState()).thenReturn(ReadinessState.ACCEPTING_TRAFFIC);
+        assertEquals(200, get("/api/products", "10.0.0.6").getStatus());
+    }
+
+    private RateLimitFilter filter(double userRate, int userCapacity, double ipRate, int ipCapacity, int listCost) {
+        RateLimitFilter limiter = new RateLimitFilter();
+        ReflectionTestUtils.setField(limiter, "availability", availability);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "userRate", userRate);
+        ReflectionTestUtils.setField(limiter, "userCapacity", userCapacity);
+        ReflectionTestUtils.setField(limiter, "ipRate", ipRate);
+        ReflectionTestUtils.setField(limiter, "ipCapacity", ipCapacity);
+        ReflectionTestUtils.setField(limiter, "listCost", listCost);
+        ReflectionTestUtils.setField(limiter, "searchCost", 1);
+        ReflectionTestUtils.setField(limiter, "authCost", 1);
+        ReflectionTestUtils.setField(limiter, "defaultCost", 1);
+        ReflectionTestUtils.setField(limiter, "maxConcurrent", 64);
+        ReflectionTestUtils.setField(limiter, "queueTimeoutMs", 50L);
+        limiter.init();
+        return limiter;
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private MockHttpServletResponse get(String path, String address) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, address), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
@@ -0,0 +1,49 @@
+package com.Inventory.demo.event;
+
+import com.Inventory.demo.dto.AuditDto;
+import com.Inventory.demo.entity.AuditRecord;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.service.AuditService;
+import com.Inventory.demo.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Under the startup profile beans are lazy and nothing injects the listener, so this checks it is
+// still created and registered with Hibernate
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:audit_listener_test",
+        "inventory.reservations.journal-path=target/audit-listener-test/reservations.log",
+        "inventory.audit.spill-path=target/audit-listener-test/audit-spill.jsonl",
+        "inventory.read-model.snapshot.path=",
+        "inventory.warmup.enabled=false" })
+@ActiveProfiles("startup")
+class AuditEntityListenerTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Test
+    void writesAreAuditedUnderTheStartupProfile() throws Exception {
+        Product saved = productService.saveProduct(new Product("Audited at startup", null, "Audit", 3.0, 4));
+
+        List<AuditDto.Entry> records = List.of();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (records.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            records = auditService.getRecords("PRODUCT", saved.getId(), 0, 10).getContent();
+        }
+        assertFalse(records.isEmpty(), "No audit record for product " + saved.getId());
+        assertEquals(AuditRecord.Action.CREATE, records.get(0).getAction());
+    }
+}
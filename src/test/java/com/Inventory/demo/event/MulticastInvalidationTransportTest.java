@@ -0,0 +1,122 @@
+package com.Inventory.demo.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two transports in one JVM over the loopback interface. Lost datagrams are simulated by numbering
+// one without sending it.
+class MulticastInvalidationTransportTest {
+
+    private MulticastInvalidationTransport sender;
+    private MulticastInvalidationTransport receiver;
+
+    @BeforeEach
+    void start() throws Exception {
+        int port;
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String loopback = NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress()).getName();
+        sender = transport(port, loopback);
+        receiver = transport(port, loopback);
+        sender.start("sender");
+        receiver.start("receiver");
+    }
+
+    @AfterEach
+    void stop() {
+        sender.stop();
+        receiver.stop();
+    }
+
+    // What a sender published before the receiver first heard from it is not a gap
+    @Test
+    void firstContactMidSequenceIsAccepted() throws Exception {
+        sequence(sender).set(41);
+        sender.publish(List.of(Invalidation.product(1L)));
+        List<Invalidation> received = await(1);
+        assertEquals(List.of(Invalidation.product(1L)), received);
+    }
+
+    @Test
+    void missedDatagramsAreResent() throws Exception {
+        sender.publish(List.of(Invalidation.product(1L)));
+        await(1);
+
+        lose(Invalidation.product(2L));
+        sender.publish(List.of(Invalidation.product(3L)));
+        List<Invalidation> received = await(2);
+        assertTrue(received.contains(Invalidation.product(2L)));
+        assertTrue(received.contains(Invalidation.product(3L)));
+        assertFalse(received.contains(Invalidation.all()));
+
+        // Nothing more turns up once the resend timeout has passed
+        Thread.sleep(600);
+        assertTrue(receiver.poll().isEmpty());
+    }
+
+    @Test
+    void datagramsTheSenderNoLongerHasReloadEverything() throws Exception {
+        sender.publish(List.of(Invalidation.product(1L)));
+        await(1);
+
+        sequence(sender).incrementAndGet();
+        sender.publish(List.of(Invalidation.product(3L)));
+        List<Invalidation> received = await(2);
+        assertTrue(received.contains(Invalidation.product(3L)));
+        assertTrue(received.contains(Invalidation.all()));
+    }
+
+    private static MulticastInvalidationTransport transport(int port, String loopback) {
+        MulticastInvalidationTransport transport = new MulticastInvalidationTransport();
+        ReflectionTestUtils.setField(transport, "group", "239.255.42.99");
+        ReflectionTestUtils.setField(transport, "port", port);
+        ReflectionTestUtils.setField(transport, "interfaceName", loopback);
+        ReflectionTestUtils.setField(transport, "ttl", 0);
+        ReflectionTestUtils.setField(transport, "resendBuffer", 16);
+        ReflectionTestUtils.setField(transport, "resendTimeoutMs", 300L);
+        return transport;
+    }
+
+    // Numbered and kept for resending, as publish() does, but never sent
+    @SuppressWarnings("unchecked")
+    private void lose(Invalidation invalidation) {
+        long number = sequence(sender).incrementAndGet();
+        String payload = Invalidation.encode(List.of(invalidation), 1000).get(0);
+        Map<Long, byte[]> sent = (Map<Long, byte[]>) ReflectionTestUtils.getField(sender, "sent");
+        synchronized (sent) {
+            sent.put(number, ("sender " + number + "\n" + payload).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static AtomicLong sequence(MulticastInvalidationTransport transport) {
+        return (AtomicLong) ReflectionTestUtils.getField(transport, "sequence");
+    }
+
+    private List<Invalidation> await(int count) throws Exception {
+        List<Invalidation> received = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.size() < count && System.nanoTime() < deadline) {
+            received.addAll(receiver.poll());
+            Thread.sleep(20);
+        }
+        assertEquals(count, received.size(), "Received " + received);
+        return received;
+    }
+}
@@ -0,0 +1,152 @@
+package com.Inventory.demo.service;
+
+import com.Inventory.demo.dto.AuditDto;
+import com.Inventory.demo.entity.AuditRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Each test runs its own writer, mostly over a tiny buffer so overflow is the normal case. Records are
+// told apart by an entity id no other test uses.
+@SpringBootTest
+class AuditServiceTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int PER_PRODUCER = 100;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @TempDir
+    private Path directory;
+
+    // Producers wait for room instead of dropping anything
+    @Test
+    void blockPolicyHoldsProducersBack() throws Exception {
+        AuditService audit = audit(AuditService.OverflowPolicy.BLOCK, 8, 10);
+        long entityId = entityId();
+        try {
+            produce(audit, entityId);
+            awaitRecords(audit, entityId, PRODUCERS * PER_PRODUCER);
+            AuditDto.Stats stats = audit.getStats();
+            assertTrue(stats.getBlocked() > 0, "Nobody was held back");
+            assertEquals(0, stats.getSpilled());
+        } finally {
+            audit.stop();
+        }
+        assertDistinct(audit, entityId);
+    }
+
+    // Overflow goes to the spill file and is replayed once the writer is idle
+    @Test
+    void spillPolicyReplaysTheOverflow() throws Exception {
+        AuditService audit = audit(AuditService.OverflowPolicy.SPILL, 8, 10);
+        long entityId = entityId();
+        try {
+            produce(audit, entityId);
+            awaitRecords(audit, entityId, PRODUCERS * PER_PRODUCER);
+            AuditDto.Stats stats = audit.getStats();
+            assertTrue(stats.getSpilled() > 0, "Nothing overflowed");
+            assertEquals(0, stats.getBlocked());
+            assertFalse(Files.exists(directory.resolve("spill.jsonl.replay")));
+        } finally {
+            audit.stop();
+        }
+        assertDistinct(audit, entityId);
+    }
+
+    // The writer sleeps between flushes and too little is buffered to wake it early; stopping it
+    // writes what is still buffered
+    @Test
+    void shutdownDrainsTheBuffer() throws Exception {
+        AuditService audit = audit(AuditService.OverflowPolicy.BLOCK, 64, 60_000);
+        long entityId = entityId();
+        // Let the writer reach its long sleep first
+        Thread.sleep(200);
+        for (int i = 0; i < 20; i++) {
+            audit.record(change(entityId, 0, i));
+        }
+        assertEquals(0, total(audit, entityId));
+        audit.stop();
+        assertEquals(20, total(audit, entityId));
+        assertEquals(20, audit.getStats().getWritten());
+    }
+
+    private AuditService audit(AuditService.OverflowPolicy policy, int bufferSize, long flushIntervalMs) {
+        AuditService audit = new AuditService();
+        beanFactory.autowireBean(audit);
+        ReflectionTestUtils.setField(audit, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(audit, "batchSize", 4);
+        ReflectionTestUtils.setField(audit, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(audit, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(audit, "spillPath", directory.resolve("spill.jsonl").toString());
+        audit.start();
+        return audit;
+    }
+
+    private static void produce(AuditService audit, long entityId) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PRODUCERS);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                int producer = p;
+                running.add(pool.submit(() -> {
+                    for (int i = 0; i < PER_PRODUCER; i++) {
+                        audit.record(change(entityId, producer, i));
+                    }
+                }));
+            }
+            for (Future<?> producer : running) {
+                producer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static AuditDto.Change change(long entityId, int producer, int sequence) {
+        return new AuditDto.Change("PRODUCT", entityId, AuditRecord.Action.UPDATE, "audit-test",
+                Map.of("note", new String[] { null, producer + "-" + sequence }));
+    }
+
+    private static void awaitRecords(AuditService audit, long entityId, int expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (total(audit, entityId) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, total(audit, entityId));
+    }
+
+    private static long total(AuditService audit, long entityId) {
+        return audit.getRecords("PRODUCT", entityId, 0, 1).getTotalElements();
+    }
+
+    // Every record was written exactly once
+    private static void assertDistinct(AuditService audit, long entityId) {
+        List<AuditDto.Entry> entries = audit.getRecords("PRODUCT", entityId, 0, PRODUCERS * PER_PRODUCER)
+                .getContent();
+        assertEquals(PRODUCERS * PER_PRODUCER, entries.stream().map(AuditDto.Entry::getChanges).distinct().count());
+    }
+
+    private static long entityId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L);
+    }
+}
@@ -0,0 +1,204 @@
+package com.Inventory.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyServiceTest {
+
+    private IdempotencyService idempotency;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotency = service(86400, 100, 10_000);
+    }
+
+    @Test
+    void retryIsAnsweredWithTheStoredResponse() {
+        ResponseEntity<String> first = idempotency.execute("key-1", "op", Map.of("delta", 5), () -> created("one"));
+        ResponseEntity<String> retry = idempotency.execute("key-1", "op", Map.of("delta", 5), () -> created("two"));
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("one", retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+
+        // Another operation, or no key at all, runs again
+        idempotency.execute("key-1", "other-op", Map.of("delta", 5), () -> created("three"));
+        idempotency.execute(null, "op", Map.of("delta", 5), () -> created("four"));
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void reusingAKeyForAnotherPayloadIs422() {
+        idempotency.execute("key-2", "op", Map.of("delta", 5), () -> created("one"));
+        ResponseEntity<String> other = idempotency.execute("key-2", "op", Map.of("delta", 6), () -> created("two"));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, other.getStatusCode());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void badKeysAreRejected() {
+        assertEquals(HttpStatus.BAD_REQUEST, idempotency.execute(" ", "op", "x", () -> created("one"))
+                .getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, idempotency.execute("k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1),
+                "op", "x", () -> created("one")).getStatusCode());
+        assertEquals(0, runs.get());
+    }
+
+    // Duplicates that arrive while the original runs wait for its response instead of running too
+    @Test
+    void concurrentDuplicatesWaitForTheOriginal() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> original = CompletableFuture.supplyAsync(() ->
+                idempotency.execute("key-3", "op", "payload", () -> {
+                    running.countDown();
+                    await(finish);
+                    return created("original");
+                }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        List<CompletableFuture<ResponseEntity<String>>> duplicates = List.of(
+                CompletableFuture.supplyAsync(() -> idempotency.execute("key-3", "op", "payload", () -> created("dup"))),
+                CompletableFuture.supplyAsync(() -> idempotency.execute("key-3", "op", "payload", () -> created("dup"))));
+        Thread.sleep(200);
+        for (CompletableFuture<ResponseEntity<String>> duplicate : duplicates) {
+            assertFalse(duplicate.isDone(), "A duplicate did not wait");
+        }
+        finish.countDown();
+
+        assertEquals("original", original.get(10, TimeUnit.SECONDS).getBody());
+        for (CompletableFuture<ResponseEntity<String>> duplicate : duplicates) {
+            ResponseEntity<String> response = duplicate.get(10, TimeUnit.SECONDS);
+            assertEquals("original", response.getBody());
+            assertEquals("true", response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        }
+        assertEquals(1, runs.get());
+    }
+
+    // A duplicate gives up with 409 once the original has run longer than the wait timeout
+    @Test
+    void duplicateGivesUpAfterTheWaitTimeout() throws Exception {
+        idempotency = service(86400, 100, 100);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> original = CompletableFuture.supplyAsync(() ->
+                idempotency.execute("key-4", "op", "payload", () -> {
+                    running.countDown();
+                    await(finish);
+                    return created("original");
+                }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        try {
+            assertEquals(HttpStatus.CONFLICT, idempotency.execute("key-4", "op", "payload", () -> created("dup"))
+                    .getStatusCode());
+        } finally {
+            finish.countDown();
+        }
+        original.get(10, TimeUnit.SECONDS);
+        assertEquals(1, runs.get());
+    }
+
+    // Server errors and exceptions are not remembered, so the retry runs again
+    @Test
+    void failuresAreNotRemembered() {
+        ResponseEntity<String> failed = idempotency.execute("key-5", "op", "payload", () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        });
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, failed.getStatusCode());
+        assertThrows(IllegalStateException.class, () -> idempotency.execute("key-5", "op", "payload", () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", idempotency.execute("key-5", "op", "payload", () -> created("ok")).getBody());
+        assertEquals(3, runs.get());
+        assertEquals(1, idempotency.size());
+    }
+
+    @Test
+    void expiredKeysRunAgain() throws Exception {
+        idempotency = service(0, 100, 10_000);
+        idempotency.execute("key-6", "op", "payload", () -> created("one"));
+        Thread.sleep(5);
+        assertEquals("two", idempotency.execute("key-6", "op", "payload", () -> created("two")).getBody());
+        assertEquals(2, runs.get());
+
+        Thread.sleep(5);
+        idempotency.evictExpired();
+        assertEquals(0, idempotency.size());
+    }
+
+    // The oldest finished keys go first; one still running is never evicted
+    @Test
+    void oldestKeysAreEvictedBeyondMaxEntries() throws Exception {
+        idempotency = service(86400, 3, 10_000);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> inFlight = CompletableFuture.supplyAsync(() ->
+                idempotency.execute("oldest", "op", "payload", () -> {
+                    running.countDown();
+                    await(finish);
+                    return created("kept");
+                }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            String key = "key-" + i;
+            idempotency.execute(key, "op", "payload", () -> created(key));
+        }
+        assertEquals(3, idempotency.size());
+        finish.countDown();
+        inFlight.get(10, TimeUnit.SECONDS);
+
+        // Still remembered: the in-flight one and the two newest
+        int before = runs.get();
+        assertEquals("kept", idempotency.execute("oldest", "op", "payload", () -> created("again")).getBody());
+        assertEquals("key-4", idempotency.execute("key-4", "op", "payload", () -> created("again")).getBody());
+        assertEquals("key-3", idempotency.execute("key-3", "op", "payload", () -> created("again")).getBody());
+        assertEquals(before, runs.get());
+        // Evicted, so it runs again
+        assertEquals("again", idempotency.execute("key-0", "op", "payload", () -> created("again")).getBody());
+        assertEquals(before + 1, runs.get());
+    }
+
+    private static IdempotencyService service(long ttlSeconds, int maxEntries, long waitTimeoutMs) {
+        IdempotencyService service = new IdempotencyService();
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(service, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", waitTimeoutMs);
+        return service;
+    }
+
+    private ResponseEntity<String> created(String body) {
+        runs.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.Inventory.demo.service;
+
+import com.Inventory.demo.dto.OrderDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class OrderFulfilmentServiceTest {
+
+    private static final int ORDERS = 64;
+
+    @Autowired
+    private OrderFulfilmentService fulfilmentService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // 64 concurrent orders of 50-200 lines drawn from a pool of 300 products, so almost every
+    // pair of orders overlaps. Every order must commit and no decrement may be lost.
+    @Test
+    void concurrentOverlappingOrdersNeitherDeadlockNorLoseUpdates() throws Exception {
+        List<Product> pool = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            pool.add(new Product("Stress item " + i, null, "Stress", 1.0, 100_000));
+        }
+        pool = productRepository.saveAll(pool);
+
+        Random random = new Random(42);
+        List<OrderDto.FulfilmentRequest> orders = new ArrayList<>();
+        for (int o = 0; o < ORDERS; o++) {
+            List<OrderDto.Line> lines = new ArrayList<>();
+            int size = 50 + random.nextInt(151);
+            for (int l = 0; l < size; l++) {
+                lines.add(new OrderDto.Line(pool.get(random.nextInt(pool.size())).getId(), 1 + random.nextInt(5)));
+            }
+            OrderDto.FulfilmentRequest request = new OrderDto.FulfilmentRequest();
+            request.setReference("stress-" + o);
+            request.setPolicy(o % 2 == 0 ? OrderFulfilmentService.Policy.FAIL : OrderFulfilmentService.Policy.PARTIAL);
+            request.setLines(lines);
+            orders.add(request);
+        }
+
+        List<OrderDto.FulfilmentResult> results = runConcurrently(orders);
+
+        Map<Long, Integer> shipped = new HashMap<>();
+        for (OrderDto.FulfilmentResult result : results) {
+            assertEquals(OrderFulfilmentService.Outcome.FULFILLED, result.getOutcome());
+            for (OrderDto.LineResult line : result.getLines()) {
+                shipped.merge(line.getProductId(), line.getFulfilled(), Integer::sum);
+            }
+        }
+        for (Product product : pool) {
+            int quantity = productRepository.findQuantityById(product.getId());
+            assertEquals(100_000 - shipped.getOrDefault(product.getId(), 0), quantity);
+        }
+    }
+
+    // Every order wants 3 of a product that only has 100. Exactly 33 orders can be filled
+    // under FAIL, and the rest must roll back without touching their other lines.
+    @Test
+    void contendedProductIsNeverOversold() throws Exception {
+        Product scarce = productRepository.save(new Product("Scarce item", null, "Stress", 1.0, 100));
+        List<Product> others = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            others.add(new Product("Plentiful item " + i, null, "Stress", 1.0, 10_000));
+        }
+        others = productRepository.saveAll(others);
+
+        List<OrderDto.FulfilmentRequest> orders = new ArrayList<>();
+        for (int o = 0; o < ORDERS; o++) {
+            List<OrderDto.Line> lines = new ArrayList<>();
+            for (Product other : others) {
+                lines.add(new OrderDto.Line(other.getId(), 1));
+            }
+            lines.add(new OrderDto.Line(scarce.getId(), 3));
+            OrderDto.FulfilmentRequest request = new OrderDto.FulfilmentRequest();
+            request.setPolicy(OrderFulfilmentService.Policy.FAIL);
+            request.setLines(lines);
+            orders.add(request);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(ORDERS);
+        int filled = 0;
+        int rejected = 0;
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (OrderDto.FulfilmentRequest order : orders) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        fulfilmentService.fulfil(order);
+                        return true;
+                    } catch (OrderFulfilmentService.InsufficientStockException e) {
+                        return false;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                if (future.get(60, TimeUnit.SECONDS)) {
+                    filled++;
+                } else {
+                    rejected++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(33, filled);
+        assertEquals(ORDERS - 33, rejected);
+        assertEquals(1, productRepository.findQuantityById(scarce.getId()));
+        for (Product other : others) {
+            assertEquals(10_000 - filled, productRepository.findQuantityById(other.getId()));
+        }
+    }
+
+    private List<OrderDto.FulfilmentResult> runConcurrently(List<OrderDto.FulfilmentRequest> orders)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(orders.size());
+        try {
+            List<Future<OrderDto.FulfilmentResult>> futures = new ArrayList<>();
+            for (OrderDto.FulfilmentRequest order : orders) {
+                Callable<OrderDto.FulfilmentResult> task = () -> fulfilmentService.fulfil(order);
+                futures.add(executor.submit(task));
+            }
+            List<OrderDto.FulfilmentResult> results = new ArrayList<>();
+            for (Future<OrderDto.FulfilmentResult> future : futures) {
+                // A deadlock would surface here as a lock timeout or a hung future
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            assertEquals(orders.size(), results.size());
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
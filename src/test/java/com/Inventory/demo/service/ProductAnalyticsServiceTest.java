@@ -0,0 +1,92 @@
+package com.Inventory.demo.service;
+
+import com.Inventory.demo.dto.ReportDto;
+import com.Inventory.demo.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ProductAnalyticsServiceTest {
+
+    @Autowired
+    private ProductAnalyticsService analyticsService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void groupsAndFilters() {
+        save("Analytics A", 10.0, 5, "North");
+        save("Analytics A", 30.0, 1, "North");
+        save("Analytics A", 20.0, 2, "South");
+        save("Analytics B", 5.0, 4, "North");
+
+        Map<String, ReportDto.GroupRow> byLocation = byKey("location",
+                query(List.of("location"), List.of("Analytics A")));
+        assertEquals(2, byLocation.size());
+        ReportDto.GroupRow north = byLocation.get("North");
+        assertEquals(2, north.getCount());
+        assertEquals(6, north.getTotalQuantity());
+        assertEquals(80.0, north.getTotalValue(), 1e-9);
+        assertEquals(10.0, north.getMinPrice(), 1e-9);
+        assertEquals(30.0, north.getMaxPrice(), 1e-9);
+        assertEquals(20.0, north.getAveragePrice(), 1e-9);
+
+        ReportDto.GroupQuery cheap = query(List.of("category"), List.of("Analytics A", "Analytics B"));
+        cheap.setMaxPrice(15.0);
+        Map<String, ReportDto.GroupRow> byCategory = byKey("category", cheap);
+        assertEquals(1, byCategory.get("Analytics A").getCount());
+        assertEquals(1, byCategory.get("Analytics B").getCount());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.query(query(List.of("category", "category"), null)));
+    }
+
+    // Results follow committed writes at once, without waiting for a refresh
+    @Test
+    void writesShowUpInTheNextQuery() {
+        Product moved = save("Analytics C", 10.0, 3, "East");
+        Product deleted = save("Analytics C", 10.0, 7, "East");
+        assertEquals(10, byKey("category", query(List.of("category"), List.of("Analytics C")))
+                .get("Analytics C").getTotalQuantity());
+
+        moved.setQuantity(4);
+        moved.setCategory("Analytics D");
+        productService.saveProduct(moved);
+        Map<String, ReportDto.GroupRow> groups = byKey("category",
+                query(List.of("category"), List.of("Analytics C", "Analytics D")));
+        assertEquals(7, groups.get("Analytics C").getTotalQuantity());
+        assertEquals(4, groups.get("Analytics D").getTotalQuantity());
+
+        productService.deleteProduct(deleted.getId());
+        groups = byKey("category", query(List.of("category"), List.of("Analytics C", "Analytics D")));
+        assertFalse(groups.containsKey("Analytics C"));
+        assertEquals(1, groups.get("Analytics D").getCount());
+    }
+
+    private Product save(String category, double price, int quantity, String location) {
+        return productService.saveProduct(new Product("Analytics item", null, category, price, quantity, null,
+                "Analytics Supplier", location));
+    }
+
+    private static ReportDto.GroupQuery query(List<String> groupBy, List<String> categories) {
+        ReportDto.GroupQuery query = new ReportDto.GroupQuery();
+        query.setGroupBy(groupBy);
+        query.setCategory(categories);
+        return query;
+    }
+
+    private Map<String, ReportDto.GroupRow> byKey(String column, ReportDto.GroupQuery query) {
+        return analyticsService.query(query).getGroups().stream()
+                .collect(Collectors.toMap(row -> row.getKey().get(column), row -> row));
+    }
+}
@@ -0,0 +1,152 @@
+package com.Inventory.demo.service;
+
+import com.Inventory.demo.dto.ProductDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ProductReadModelTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void snapshotRestoresTheSameRows() {
+        Path snapshot = directory.resolve("round-trip.snapshot");
+        Product saved = productService.saveProduct(new Product("Snapshot item", "Kept", "Snapshots", 12.5, 7, null,
+                "Snapshot Supplier", "Shelf 1"));
+
+        ProductReadModel written = model(snapshot);
+        written.load();
+        written.writeSnapshot();
+        assertTrue(Files.exists(snapshot));
+
+        ProductReadModel restored = model(snapshot);
+        restored.load();
+        assertEquals(written.count(), restored.count());
+        assertEquals(written.findAll().size(), restored.findAll().size());
+        ProductDto row = restored.findById(saved.getId()).orElseThrow();
+        assertEquals("Snapshot item", row.getName());
+        assertEquals("Snapshots", row.getCategory());
+        assertEquals("Snapshot Supplier", row.getSupplier());
+        assertEquals("Shelf 1", row.getLocation());
+        assertEquals(7, row.getQuantity());
+        assertTrue(restored.verify(false).isConsistent());
+    }
+
+    // Changes are found by version, so one stamped with an old time is caught up too
+    @Test
+    void restoreCatchesUpOnChangesAfterTheSnapshot() {
+        Path snapshot = directory.resolve("catch-up.snapshot");
+        Product changed = productService.saveProduct(new Product("Catch-up changed", null, "Catch-up", 1.0, 1));
+        Product backdated = productService.saveProduct(new Product("Catch-up backdated", null, "Catch-up", 1.0, 1));
+        Product deleted = productService.saveProduct(new Product("Catch-up deleted", null, "Catch-up", 1.0, 1));
+
+        ProductReadModel written = model(snapshot);
+        written.load();
+        written.writeSnapshot();
+
+        changed.setQuantity(2);
+        productService.saveProduct(changed);
+        Product stale = productRepository.findById(backdated.getId()).orElseThrow();
+        stale.setName("Catch-up backdated, renamed");
+        stale.setUpdatedAt(LocalDateTime.of(2000, 1, 1, 0, 0));
+        productRepository.save(stale);
+        productService.deleteProduct(deleted.getId());
+        Product added = productService.saveProduct(new Product("Catch-up added", null, "Catch-up", 1.0, 1));
+
+        ProductReadModel restored = model(snapshot);
+        restored.load();
+        assertEquals(2, restored.findById(changed.getId()).orElseThrow().getQuantity());
+        assertEquals("Catch-up backdated, renamed", restored.findById(backdated.getId()).orElseThrow().getName());
+        assertTrue(restored.findById(deleted.getId()).isEmpty());
+        assertTrue(restored.findById(added.getId()).isPresent());
+        assertTrue(restored.verify(false).isConsistent());
+    }
+
+    // The columns behind the reports are kept when reads are not served from them, and the
+    // snapshot saves reading the whole table for them too
+    @Test
+    void snapshotIsUsedWhenReadsAreNotServed() {
+        Path snapshot = directory.resolve("disabled.snapshot");
+        Product saved = productService.saveProduct(new Product("Unserved item", null, "Unserved", 2.0, 3));
+
+        ProductReadModel written = model(snapshot, false);
+        written.load();
+        assertFalse(written.isServing());
+        written.writeSnapshot();
+        assertTrue(Files.exists(snapshot));
+
+        ProductReadModel restored = model(snapshot, false);
+        ProductRepository repository = mock(ProductRepository.class, delegatesTo(productRepository));
+        ReflectionTestUtils.setField(restored, "productRepository", repository);
+        restored.load();
+        assertTrue(restored.isLoaded());
+        verify(repository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+        assertEquals(written.count(), restored.count());
+        assertEquals("Unserved", restored.findById(saved.getId()).orElseThrow().getCategory());
+        assertTrue(restored.verify(false).isConsistent());
+    }
+
+    // The report's heap ranking: value or quantity descending, ties by id, within the filters
+    @Test
+    void topIdsRankWithinTheFilters() {
+        Product cheap = productService.saveProduct(new Product("Top-N cheap", null, "Top-N", 1.0, 50, null, null,
+                "Top-N shelf"));
+        Product dear = productService.saveProduct(new Product("Top-N dear", null, "Top-N", 100.0, 2, null, null,
+                "Top-N shelf"));
+        Product tied = productService.saveProduct(new Product("Top-N tied", null, "Top-N", 2.0, 25, null, null,
+                "Elsewhere"));
+        productService.saveProduct(new Product("Top-N other", null, "Not Top-N", 1000.0, 1000));
+
+        ProductReadModel model = model(directory.resolve("unused.snapshot"));
+        model.load();
+        assertEquals(List.of(dear.getId(), cheap.getId(), tied.getId()),
+                model.topIds(true, 10, "Top-N", null));
+        assertEquals(List.of(cheap.getId(), tied.getId()), model.topIds(false, 2, "Top-N", null));
+        assertEquals(List.of(cheap.getId(), dear.getId()), model.topIds(false, 10, "Top-N", "Top-N shelf"));
+        assertTrue(model.topIds(true, 10, "No such category", null).isEmpty());
+    }
+
+    private ProductReadModel model(Path snapshot) {
+        return model(snapshot, true);
+    }
+
+    // Outside the context, so only what load() reads reaches it
+    private ProductReadModel model(Path snapshot, boolean enabled) {
+        ProductReadModel model = new ProductReadModel();
+        beanFactory.autowireBean(model);
+        ReflectionTestUtils.setField(model, "enabled", enabled);
+        ReflectionTestUtils.setField(model, "snapshotPath", snapshot.toString());
+        return model;
+    }
+}
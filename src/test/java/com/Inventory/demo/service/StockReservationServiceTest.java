@@ -0,0 +1,262 @@
+package com.Inventory.demo.service;
+
+import com.Inventory.demo.dto.OrderDto;
+import com.Inventory.demo.entity.Product;
+import com.Inventory.demo.entity.StockMovement;
+import com.Inventory.demo.repository.ProductRepository;
+import com.Inventory.demo.util.ReservationJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderFulfilmentService fulfilmentService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void reservationsHoldStockUntilReleased() {
+        Long productId = product(10);
+
+        StockReservationService.Reservation first = reservationService.reserve(productId, 6, null);
+        assertEquals(4, reservationService.getStockLevel(productId).getAvailable());
+        assertThrows(IllegalStateException.class, () -> reservationService.reserve(productId, 5, null));
+
+        reservationService.release(first.getId());
+        assertEquals(StockReservationService.State.RELEASED, first.getState());
+        assertEquals(10, reservationService.getStockLevel(productId).getAvailable());
+        assertThrows(IllegalStateException.class, () -> reservationService.confirm(first.getId()));
+    }
+
+    @Test
+    void confirmedQuantitiesAreWrittenBehind() throws Exception {
+        Long productId = product(10);
+
+        StockReservationService.Reservation reservation = reservationService.reserve(productId, 4, null);
+        reservationService.confirm(reservation.getId());
+        // Confirming twice is harmless
+        reservationService.confirm(reservation.getId());
+        assertEquals(StockReservationService.State.CONFIRMED, reservation.getState());
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        // The counts settle just after the write commits
+        while ((quantity(productId) != 6 || reservationService.getStockLevel(productId).getPendingCommit() != 0)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(6, quantity(productId));
+        assertEquals(0, reservationService.getStockLevel(productId).getPendingCommit());
+        assertEquals(6, reservationService.getStockLevel(productId).getAvailable());
+    }
+
+    // Sales and orders only get what reservations leave
+    @Test
+    void reservedStockIsNotForSale() {
+        Long productId = product(10);
+
+        StockReservationService.Reservation reservation = reservationService.reserve(productId, 8, null);
+        assertThrows(IllegalStateException.class,
+                () -> productService.adjustStock(productId, -5, StockMovement.Reason.SALE));
+        assertThrows(OrderFulfilmentService.InsufficientStockException.class,
+                () -> fulfilmentService.fulfil(order(productId, 3, OrderFulfilmentService.Policy.FAIL)));
+        OrderDto.FulfilmentResult partial = fulfilmentService.fulfil(order(productId, 3,
+                OrderFulfilmentService.Policy.PARTIAL));
+        assertEquals(OrderFulfilmentService.Outcome.PARTIAL, partial.getOutcome());
+        assertEquals(2, partial.getLines().get(0).getFulfilled());
+        assertEquals(8, quantity(productId));
+        assertThrows(IllegalStateException.class,
+                () -> productService.adjustStock(productId, -1, StockMovement.Reason.SALE));
+        assertEquals(0, reservationService.getStockLevel(productId).getAvailable());
+        assertEquals(8, reservationService.getStockLevel(productId).getReserved());
+
+        reservationService.confirm(reservation.getId());
+        assertEquals(StockReservationService.State.CONFIRMED, reservation.getState());
+        assertThrows(IllegalStateException.class,
+                () -> productService.adjustStock(productId, -1, StockMovement.Reason.SALE));
+    }
+
+    // A stock count saved over the product is a correction, not a sale, and may leave less than
+    // is reserved
+    @Test
+    void confirmationIsRefusedWhenStockWasTakenMeanwhile() {
+        Long productId = product(10);
+
+        StockReservationService.Reservation reservation = reservationService.reserve(productId, 8, null);
+        Product counted = productRepository.findById(productId).orElseThrow();
+        counted.setQuantity(5);
+        productService.saveProduct(counted);
+
+        assertThrows(IllegalStateException.class, () -> reservationService.confirm(reservation.getId()));
+        assertEquals(StockReservationService.State.PENDING, reservation.getState());
+        assertEquals(0, reservationService.getStockLevel(productId).getPendingCommit());
+        assertEquals(5, quantity(productId));
+    }
+
+    // Confirmations recovered from the journal can exceed what is on hand by then; what is missing
+    // stays pending and is written once stock comes in
+    @Test
+    void writeBehindKeepsTheShortfallPending() {
+        Long productId = product(3);
+        long expiry = Instant.now().plusSeconds(600).toEpochMilli();
+        StockReservationService engine = recovered("short.log", List.of(
+                new Object[] { ReservationJournal.WATERMARK, productId, 0 },
+                new Object[] { ReservationJournal.RESERVE, "a", productId, 8, expiry },
+                new Object[] { ReservationJournal.CONFIRM, "a" }));
+        try {
+            engine.writeBehind();
+            assertEquals(0, quantity(productId));
+            assertEquals(5, engine.getStockLevel(productId).getPendingCommit());
+
+            productService.adjustStock(productId, 10, StockMovement.Reason.RECEIPT);
+            engine.writeBehind();
+            assertEquals(5, quantity(productId));
+            assertEquals(0, engine.getStockLevel(productId).getPendingCommit());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    // The write-behind committed the confirmation, then the process died before journaling it
+    @Test
+    void recoveryDoesNotApplyCommittedConfirmationsTwice() {
+        Long productId = product(20);
+        long expiry = Instant.now().plusSeconds(600).toEpochMilli();
+        List<Object[]> records = List.of(
+                new Object[] { ReservationJournal.WATERMARK, productId, 0 },
+                new Object[] { ReservationJournal.RESERVE, "confirmed", productId, 5, expiry },
+                new Object[] { ReservationJournal.CONFIRM, "confirmed" },
+                new Object[] { ReservationJournal.RESERVE, "live", productId, 3, expiry },
+                new Object[] { ReservationJournal.RESERVE, "expired", productId, 2,
+                        Instant.now().minusSeconds(1).toEpochMilli() });
+        productService.adjustStock(productId, -5, StockMovement.Reason.RESERVATION);
+
+        StockReservationService engine = recovered("crash.log", records);
+        try {
+            StockReservationService.Counts counts = engine.getStockLevel(productId);
+            assertEquals(15, counts.getOnHand());
+            assertEquals(0, counts.getPendingCommit());
+            assertEquals(3, counts.getReserved());
+            assertTrue(engine.getReservation("live").isPresent());
+            assertTrue(engine.getReservation("expired").isEmpty());
+
+            engine.writeBehind();
+            assertEquals(15, quantity(productId));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void recoveryRestoresUnwrittenConfirmations() {
+        Long productId = product(20);
+        long expiry = Instant.now().plusSeconds(600).toEpochMilli();
+        StockReservationService engine = recovered("unwritten.log", List.of(
+                new Object[] { ReservationJournal.WATERMARK, productId, 0 },
+                new Object[] { ReservationJournal.RESERVE, "confirmed", productId, 5, expiry },
+                new Object[] { ReservationJournal.CONFIRM, "confirmed" }));
+        try {
+            assertEquals(5, engine.getStockLevel(productId).getPendingCommit());
+            engine.writeBehind();
+            assertEquals(15, quantity(productId));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    // Compaction runs while the engine is live, and what it leaves recovers to the same state
+    @Test
+    void writeBehindCompactsTheJournal() throws Exception {
+        Long productId = product(1000);
+        Path path = directory.resolve("compact.log");
+        StockReservationService engine = recovered("compact.log", List.of());
+        ReflectionTestUtils.setField(engine, "compactBytes", 1024L);
+        ReflectionTestUtils.setField(engine, "compactAt", 1024L);
+        StockReservationService.Reservation live;
+        try {
+            for (int i = 0; i < 100; i++) {
+                engine.confirm(engine.reserve(productId, 1, null).getId());
+                engine.release(engine.reserve(productId, 1, null).getId());
+                engine.writeBehind();
+            }
+            live = engine.reserve(productId, 2, null);
+            engine.confirm(engine.reserve(productId, 3, null).getId());
+            assertTrue(Files.size(path) < 2048, "Journal is " + Files.size(path) + " bytes");
+        } finally {
+            engine.shutdown();
+        }
+        assertEquals(900, quantity(productId));
+
+        StockReservationService restarted = new StockReservationService();
+        beanFactory.autowireBean(restarted);
+        ReflectionTestUtils.setField(restarted, "journalPath", path.toString());
+        restarted.recover();
+        try {
+            StockReservationService.Counts counts = restarted.getStockLevel(productId);
+            assertEquals(2, counts.getReserved());
+            assertEquals(3, counts.getPendingCommit());
+            assertTrue(restarted.getReservation(live.getId()).isPresent());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    // A second engine outside the context, so it is not scheduled and replays its own journal
+    private StockReservationService recovered(String journal, List<Object[]> records) {
+        Path path = directory.resolve(journal);
+        ReservationJournal writer = new ReservationJournal(path);
+        writer.open();
+        writer.rewrite(records);
+        writer.close();
+
+        StockReservationService engine = new StockReservationService();
+        beanFactory.autowireBean(engine);
+        ReflectionTestUtils.setField(engine, "journalPath", path.toString());
+        engine.recover();
+        return engine;
+    }
+
+    private static OrderDto.FulfilmentRequest order(Long productId, int quantity,
+            OrderFulfilmentService.Policy policy) {
+        OrderDto.FulfilmentRequest request = new OrderDto.FulfilmentRequest();
+        request.setReference("reserved-" + productId);
+        request.setPolicy(policy);
+        request.setLines(List.of(new OrderDto.Line(productId, quantity)));
+        return request;
+    }
+
+    private Long product(int quantity) {
+        return productRepository.save(new Product("Reserved item", null, "Reservations", 1.0, quantity)).getId();
+    }
+
+    private int quantity(Long productId) {
+        return productRepository.findQuantityById(productId);
+    }
+}
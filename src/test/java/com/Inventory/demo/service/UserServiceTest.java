@@ -0,0 +1,141 @@
+package com.Inventory.demo.service;
+
+import com.Inventory.demo.controller.AuthController;
+import com.Inventory.demo.dto.AuthDto;
+import com.Inventory.demo.entity.User;
+import com.Inventory.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthController authController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    // A change the service never saw stays invisible until the cached copy is revalidated
+    @Test
+    void lookupsAreAnsweredFromTheCache() {
+        UserService users = users(60_000);
+        User user = users.saveUser(newUser());
+
+        User first = users.findByUsername(user.getUsername());
+        jdbcTemplate.update("UPDATE users SET full_name = 'Changed behind its back' WHERE id = ?", user.getId());
+        User second = users.findByUsername(user.getUsername());
+        assertEquals("Cache Test", second.getFullName());
+        assertEquals("Cache Test", users.findByEmail(user.getEmail()).getFullName());
+        assertNotSame(first, second);
+
+        // Copies: changing one does not change the cache
+        second.setFullName("Not saved");
+        assertEquals("Cache Test", users.findByUsername(user.getUsername()).getFullName());
+    }
+
+    @Test
+    void writesThroughTheServiceReplaceTheCachedCopy() {
+        User user = userService.saveUser(newUser());
+        assertEquals(User.UserRole.USER, userService.findByUsername(user.getUsername()).getRole());
+
+        User changed = userService.findByUsername(user.getUsername());
+        changed.setRole(User.UserRole.ADMIN);
+        changed.setActive(false);
+        userService.saveUser(changed);
+        User found = userService.findByUsername(user.getUsername());
+        assertEquals(User.UserRole.ADMIN, found.getRole());
+        assertFalse(found.isActive());
+
+        userService.deleteUser(user.getId());
+        assertNull(userService.findByUsername(user.getUsername()));
+    }
+
+    // Password, role and active changes made elsewhere show up once the copy is revalidated
+    @Test
+    void credentialChangesMadeElsewhereAreNoticed() {
+        UserService users = users(0);
+        User user = users.saveUser(newUser());
+        assertTrue(users.findByUsername(user.getUsername()).isActive());
+
+        jdbcTemplate.update("UPDATE users SET active = FALSE, password = 'rotated' WHERE id = ?", user.getId());
+        User found = users.findByUsername(user.getUsername());
+        assertFalse(found.isActive());
+        assertEquals("rotated", found.getPassword());
+        assertEquals("rotated", users.findByEmail(user.getEmail()).getPassword());
+    }
+
+    // The UPDATE needs a transaction, which the call from updateLastLogin to recordLogin cannot open
+    @Test
+    void lastLoginIsRecordedById() {
+        User user = userService.saveUser(newUser());
+        userService.updateLastLogin(user.getId());
+        assertNotNull(userRepository.findById(user.getId()).orElseThrow().getLastLogin());
+    }
+
+    @Test
+    void registrationIsOneInsertAndConflictsAreReported() {
+        String name = "reg-" + UUID.randomUUID().toString().substring(0, 8);
+        ResponseEntity<AuthDto.LoginResponse> created = authController.register(register(name, name + "@example.com"));
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertNotNull(created.getBody().getToken());
+        assertTrue(userRepository.findByUsername(name).isPresent());
+
+        ResponseEntity<AuthDto.LoginResponse> sameName = authController.register(register(name, "other-"
+                + name + "@example.com"));
+        assertEquals(HttpStatus.CONFLICT, sameName.getStatusCode());
+        assertEquals("Username already exists", sameName.getBody().getMessage());
+
+        ResponseEntity<AuthDto.LoginResponse> sameEmail = authController.register(register("other-" + name,
+                name + "@example.com"));
+        assertEquals(HttpStatus.CONFLICT, sameEmail.getStatusCode());
+        assertEquals("Email already exists", sameEmail.getBody().getMessage());
+        assertFalse(userRepository.findByUsername("other-" + name).isPresent());
+    }
+
+    // Its own cache, so the revalidation interval can be set without touching the shared bean
+    private UserService users(long revalidateMs) {
+        UserService users = new UserService();
+        beanFactory.autowireBean(users);
+        ReflectionTestUtils.setField(users, "revalidateMs", revalidateMs);
+        return users;
+    }
+
+    private static User newUser() {
+        String name = "cache-" + UUID.randomUUID().toString().substring(0, 8);
+        return new User(name, "secret", name + "@example.com", User.UserRole.USER, "Cache Test");
+    }
+
+    private static AuthDto.RegisterRequest register(String username, String email) {
+        AuthDto.RegisterRequest request = new AuthDto.RegisterRequest();
+        request.setUsername(username);
+        request.setPassword("secret123");
+        request.setEmail(email);
+        request.setFullName("Registered User");
+        return request;
+    }
+}
@@ -0,0 +1,50 @@
+package com.Inventory.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void smallCountsAreNearlyExact() {
+        HyperLogLog counter = new HyperLogLog(10);
+        assertEquals(0, counter.estimate());
+        for (int i = 0; i < 20; i++) {
+            // Repeats must not count again
+            counter.add("supplier-" + (i % 10));
+        }
+        assertEquals(10, counter.estimate(), 1);
+    }
+
+    // Standard error is 1.04 / sqrt(2^p); allowed three times that
+    @Test
+    void estimatesStayWithinTheStandardError() {
+        for (int precision : new int[] { 10, 14 }) {
+            double allowed = 3 * 1.04 / Math.sqrt(1 << precision);
+            for (int distinct : new int[] { 1_000, 10_000, 200_000 }) {
+                HyperLogLog counter = new HyperLogLog(precision);
+                for (int i = 0; i < distinct; i++) {
+                    counter.add("location-" + i);
+                    counter.add("location-" + (i / 2));
+                }
+                double error = Math.abs(counter.estimate() - distinct) / (double) distinct;
+                assertTrue(error <= allowed, "p=" + precision + " n=" + distinct + " off by " + error);
+            }
+        }
+    }
+
+    @Test
+    void mergedCountersCountTheUnion() {
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        for (int i = 0; i < 30_000; i++) {
+            left.add("category-" + i);
+            right.add("category-" + (i + 20_000));
+        }
+        left.merge(right);
+        double error = Math.abs(left.estimate() - 50_000) / 50_000.0;
+        assertTrue(error <= 3 * 1.04 / Math.sqrt(1 << 12), "off by " + error);
+    }
+}
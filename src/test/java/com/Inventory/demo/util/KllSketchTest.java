@@ -0,0 +1,87 @@
+package com.Inventory.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KllSketchTest {
+
+    private static final double[] QUANTILES = { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99 };
+
+    @Test
+    void smallInputsAreExact() {
+        KllSketch sketch = new KllSketch(200);
+        for (int value = 100; value >= 1; value--) {
+            sketch.update(value);
+        }
+        assertEquals(1, sketch.quantile(0));
+        assertEquals(50, sketch.quantile(0.5));
+        assertEquals(90, sketch.quantile(0.9));
+        assertEquals(100, sketch.quantile(1));
+        assertTrue(Double.isNaN(new KllSketch(200).quantile(0.5)));
+    }
+
+    // About 1/k of rank error; allowed twice that
+    @Test
+    void quantilesStayWithinTheRankError() {
+        Random random = new Random(7);
+        double[] values = new double[200_000];
+        KllSketch sketch = new KllSketch(200);
+        for (int i = 0; i < values.length; i++) {
+            // Skewed like prices: many cheap items, a long tail of expensive ones
+            values[i] = Math.exp(random.nextGaussian() * 1.5 + 3);
+            sketch.update(values[i]);
+        }
+        Arrays.sort(values);
+        assertRankError(sketch, values, 0.01);
+        assertTrue(sketch.getRetained() < 3 * 200 + 100, "retained " + sketch.getRetained());
+        assertEquals(values.length, sketch.getCount());
+    }
+
+    @Test
+    void mergedSketchesAnswerForTheUnion() {
+        Random random = new Random(11);
+        double[] values = new double[100_000];
+        KllSketch left = new KllSketch(200);
+        KllSketch right = new KllSketch(200);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(10_000);
+            (i % 3 == 0 ? left : right).update(values[i]);
+        }
+        left.merge(right);
+        Arrays.sort(values);
+        assertRankError(left, values, 0.01);
+        assertEquals(values[0], left.getMin());
+        assertEquals(values[values.length - 1], left.getMax());
+    }
+
+    private static void assertRankError(KllSketch sketch, double[] sorted, double allowed) {
+        for (double q : QUANTILES) {
+            double estimate = sketch.quantile(q);
+            int below = lowerBound(sorted, estimate);
+            int atOrBelow = lowerBound(sorted, Math.nextUp(estimate));
+            double low = (double) below / sorted.length;
+            double high = (double) atOrBelow / sorted.length;
+            double error = q < low ? low - q : q > high ? q - high : 0;
+            assertTrue(error <= allowed, "quantile " + q + " off by " + error + " in rank");
+        }
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
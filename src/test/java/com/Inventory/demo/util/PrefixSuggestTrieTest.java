@@ -0,0 +1,118 @@
+package com.Inventory.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class PrefixSuggestTrieTest {
+
+    @Test
+    void suggestionsAreRankedByScoreThenId() {
+        PrefixSuggestTrie trie = new PrefixSuggestTrie();
+        trie.put(1, List.of("widget", "blue widget"), 5);
+        trie.put(2, List.of("wire"), 9);
+        trie.put(3, List.of("widget"), 5);
+        trie.put(4, List.of("gadget"), 100);
+
+        assertArrayEquals(new long[] { 2, 1, 3 }, trie.suggest("wi", 10));
+        assertArrayEquals(new long[] { 1, 3 }, trie.suggest("widget", 10));
+        assertArrayEquals(new long[] { 1 }, trie.suggest("blue", 10));
+        assertArrayEquals(new long[] { 2 }, trie.suggest("wi", 1));
+        assertArrayEquals(new long[0], trie.suggest("widgets", 10));
+        assertArrayEquals(new long[0], trie.suggest("x", 10));
+        assertEquals(4, trie.size());
+    }
+
+    // A put replaces the id's terms and score; terms it no longer has stop finding it
+    @Test
+    void putReplacesAndRemoveForgets() {
+        PrefixSuggestTrie trie = new PrefixSuggestTrie();
+        trie.put(1, List.of("bolt"), 1);
+        trie.put(2, List.of("bolt cutter"), 2);
+        assertArrayEquals(new long[] { 2, 1 }, trie.suggest("bolt", 10));
+
+        trie.put(1, List.of("nut"), 3);
+        assertArrayEquals(new long[] { 2 }, trie.suggest("bolt", 10));
+        assertArrayEquals(new long[] { 1 }, trie.suggest("n", 10));
+
+        trie.remove(2);
+        assertArrayEquals(new long[0], trie.suggest("bolt", 10));
+        assertArrayEquals(new long[] { 1 }, trie.suggest("", 10));
+        assertEquals(1, trie.size());
+
+        trie.clear();
+        assertArrayEquals(new long[0], trie.suggest("", 10));
+        assertEquals(0, trie.size());
+    }
+
+    // Enough ids under shared prefixes that the cached tops are built, merged and rebuilt on removal
+    @Test
+    void topKMatchesABruteForceRanking() {
+        Random random = new Random(7);
+        PrefixSuggestTrie trie = new PrefixSuggestTrie();
+        Map<Long, List<String>> terms = new HashMap<>();
+        Map<Long, Long> scores = new HashMap<>();
+        for (long id = 1; id <= 3000; id++) {
+            List<String> words = List.of(word(random), word(random));
+            long score = random.nextInt(500);
+            trie.put(id, words, score);
+            terms.put(id, words);
+            scores.put(id, score);
+        }
+        for (long id = 1; id <= 3000; id += 3) {
+            trie.remove(id);
+            terms.remove(id);
+        }
+        for (long id = 2; id <= 3000; id += 5) {
+            List<String> words = List.of(word(random));
+            long score = random.nextInt(500);
+            trie.put(id, words, score);
+            terms.put(id, words);
+            scores.put(id, score);
+        }
+
+        for (String prefix : new String[] { "", "a", "b", "ab", "ca", "abc", "cab", "zz" }) {
+            List<Long> expected = new ArrayList<>();
+            for (Map.Entry<Long, List<String>> entry : terms.entrySet()) {
+                if (entry.getValue().stream().anyMatch(t -> t.startsWith(prefix))) {
+                    expected.add(entry.getKey());
+                }
+            }
+            expected.sort(Comparator.comparing((Long id) -> -scores.get(id)).thenComparing(id -> id));
+            long[] want = expected.stream().limit(PrefixSuggestTrie.TOP_K).mapToLong(Long::longValue).toArray();
+            assertArrayEquals(want, trie.suggest(prefix, PrefixSuggestTrie.TOP_K), "prefix '" + prefix + "'");
+        }
+    }
+
+    // Each insert merges cached tops rather than whole subtrees, so a shared prefix stays cheap
+    @Test
+    void manyPutsUnderOnePrefixStayLinear() {
+        PrefixSuggestTrie trie = new PrefixSuggestTrie();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (long id = 1; id <= 20_000; id++) {
+                trie.put(id, List.of("sku-" + id), id);
+            }
+        });
+        long[] top = trie.suggest("sku-", 3);
+        assertArrayEquals(new long[] { 20_000, 19_999, 19_998 }, top);
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.Inventory.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(1));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(12));
+        assertEquals(16, new RingBuffer<>(16).capacity());
+    }
+
+    // Many laps over a small array, in order, with a full buffer refusing rather than overwriting
+    @Test
+    void wrapsAroundInOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int lap = 0; lap < 1000; lap++) {
+            while (buffer.offer(next)) {
+                next++;
+            }
+            assertEquals(4, buffer.size());
+            assertFalse(buffer.offer(-1));
+            // Take a varying number so the head and tail meet at every index
+            for (int i = 0; i <= lap % 4; i++) {
+                assertEquals(expected++, buffer.poll());
+            }
+        }
+        Integer item;
+        while ((item = buffer.poll()) != null) {
+            assertEquals(expected++, item);
+        }
+        assertEquals(next, expected);
+        assertEquals(0, buffer.size());
+        assertNull(buffer.poll());
+    }
+
+    // Producers retry while the buffer is full, as AuditService's BLOCK policy does; every item
+    // arrives exactly once and each producer's items arrive in the order offered
+    @Test
+    void concurrentProducersNeitherLoseNorDuplicate() throws Exception {
+        int producers = 8;
+        int perProducer = 20_000;
+        RingBuffer<long[]> buffer = new RingBuffer<>(64);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            running.add(pool.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(new long[] { producer, i })) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+
+        long[] nextByProducer = new long[producers];
+        List<long[]> batch = new ArrayList<>();
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            if (buffer.drainTo(batch, 32) == 0) {
+                Thread.yield();
+                continue;
+            }
+            for (long[] item : batch) {
+                int producer = (int) item[0];
+                assertEquals(nextByProducer[producer], item[1], "producer " + producer);
+                nextByProducer[producer]++;
+            }
+            received += batch.size();
+        }
+        for (Future<?> producer : running) {
+            producer.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertEquals(producers * perProducer, received);
+        for (long next : nextByProducer) {
+            assertEquals(perProducer, next);
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.offer(new long[] { 0, 0 }));
+    }
+}
@@ -0,0 +1,79 @@
+package com.Inventory.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    @Test
+    void boundedDistanceCountsTranspositionsAndStopsAtTheBound() {
+        assertEquals(0, TrigramIndex.boundedDistance("bolt", "bolt", 1));
+        assertEquals(1, TrigramIndex.boundedDistance("widget", "widgte", 2));
+        assertEquals(3, TrigramIndex.boundedDistance("kitten", "sitting", 3));
+        // Past the bound the answer is bound + 1, however far apart they are
+        assertEquals(3, TrigramIndex.boundedDistance("kitten", "sitting", 2));
+        assertEquals(2, TrigramIndex.boundedDistance("a", "abcdef", 1));
+    }
+
+    // Sharing trigrams only makes a candidate; it is a hit only within the distance its length allows
+    @Test
+    void candidatesBeyondTheAllowedDistanceAreDropped() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, fields("sprocket"));
+        index.put(2, fields("sprawl"));
+        index.put(3, fields("car"));
+        index.put(4, fields("sprockets"));
+
+        // Seven letters allow two edits: one typo is found, a word sharing only "spr" is not
+        assertEquals(List.of(1L, 4L), ids(index.search(List.of("sprxcket"), 10)));
+        // Three letters allow none
+        assertEquals(List.of(3L), ids(index.search(List.of("car"), 10)));
+        assertTrue(index.search(List.of("cat"), 10).isEmpty());
+        // Four or more letters also match as a prefix
+        assertEquals(List.of(1L, 4L), ids(index.search(List.of("sproc"), 10)));
+    }
+
+    // Far more documents share the query's trigrams than are verified; the cap holds, and the one
+    // that shares all of them still comes first although its id is the highest
+    @Test
+    void verificationIsCappedAndTheBestOverlapSurvives() {
+        TrigramIndex index = new TrigramIndex();
+        int similar = TrigramIndex.MAX_VERIFIED * 20;
+        for (long id = 1; id <= similar; id++) {
+            index.put(id, fields("widget" + id));
+        }
+        long exact = similar + 1;
+        index.put(exact, fields("widget"));
+
+        List<TrigramIndex.Hit> hits = index.search(List.of("widget"), Integer.MAX_VALUE);
+        assertEquals(TrigramIndex.MAX_VERIFIED, hits.size());
+        assertEquals(exact, hits.get(0).getId());
+        assertEquals(1.0, hits.get(0).getScore());
+    }
+
+    @Test
+    void removedAndReplacedDocumentsStopMatching() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, fields("hammer"));
+        index.put(2, fields("hammers"));
+        index.remove(2);
+        index.put(1, fields("wrench"));
+
+        assertTrue(index.search(List.of("hammer"), 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search(List.of("wrench"), 10)));
+        index.clear();
+        assertTrue(index.search(List.of("wrench"), 10).isEmpty());
+    }
+
+    private static List<TrigramIndex.Field> fields(String... tokens) {
+        return List.of(new TrigramIndex.Field(List.of(tokens), 1.0));
+    }
+
+    private static List<Long> ids(List<TrigramIndex.Hit> hits) {
+        return hits.stream().map(TrigramIndex.Hit::getId).toList();
+    }
+}